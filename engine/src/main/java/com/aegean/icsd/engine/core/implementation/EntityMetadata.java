@@ -0,0 +1,215 @@
+package com.aegean.icsd.engine.core.implementation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.core.annotations.DataProperty;
+import com.aegean.icsd.engine.core.annotations.Id;
+import com.aegean.icsd.engine.core.annotations.Key;
+
+/**
+ * The annotated fields of a bean class, read once, with their getters and setters resolved to method handles
+ * and a parser for the values of every data property.
+ */
+class EntityMetadata {
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Accessor id;
+  private final boolean autoGeneratedId;
+  private final List<Accessor> keys = new ArrayList<>();
+  private final List<Map.Entry<String, Accessor>> dataProperties = new ArrayList<>();
+  private final Map<String, Accessor> dataPropertiesByName = new HashMap<>();
+
+  EntityMetadata(Class<?> objectClass) {
+    Accessor idAccessor = null;
+    boolean autoGenerated = false;
+    for (Field field : getTotalFields(objectClass)) {
+      Accessor accessor = null;
+      if (field.isAnnotationPresent(Id.class)) {
+        accessor = new Accessor(objectClass, field);
+        idAccessor = accessor;
+        autoGenerated = field.getAnnotation(Id.class).autoGenerated();
+      }
+      if (field.isAnnotationPresent(Key.class)) {
+        accessor = accessor != null ? accessor : new Accessor(objectClass, field);
+        keys.add(accessor);
+      }
+      if (field.isAnnotationPresent(DataProperty.class)) {
+        accessor = accessor != null ? accessor : new Accessor(objectClass, field);
+        for (String relation : field.getAnnotation(DataProperty.class).value()) {
+          dataProperties.add(new HashMap.SimpleImmutableEntry<>(relation, accessor));
+          dataPropertiesByName.putIfAbsent(relation, accessor);
+        }
+      }
+    }
+    this.id = idAccessor;
+    this.autoGeneratedId = autoGenerated;
+  }
+
+  /**
+   * @return the field annotated with {@link Id}, or null if there is none
+   */
+  Accessor getId() {
+    return id;
+  }
+
+  boolean isAutoGeneratedId() {
+    return autoGeneratedId;
+  }
+
+  List<Accessor> getKeys() {
+    return Collections.unmodifiableList(keys);
+  }
+
+  /**
+   * @return every data property with its accessor, in the order of the fields
+   */
+  List<Map.Entry<String, Accessor>> getDataProperties() {
+    return Collections.unmodifiableList(dataProperties);
+  }
+
+  /**
+   * @return the accessor of the first field that is mapped to the data property, or null if there is none
+   */
+  Accessor getDataProperty(String property) {
+    return dataPropertiesByName.get(property);
+  }
+
+  /**
+   * The fields of the class along with the fields of its superclass that are not shadowed by the class
+   */
+  static List<Field> getTotalFields(Class<?> objectClass) {
+    List<Field> derivedClassFields = new ArrayList<>(Arrays.asList(objectClass.getDeclaredFields()));
+    Set<String> derivedNames = new HashSet<>();
+    for (Field field : derivedClassFields) {
+      derivedNames.add(field.getName());
+    }
+    for (Field superField : objectClass.getSuperclass().getDeclaredFields()) {
+      if (!derivedNames.contains(superField.getName())) {
+        derivedClassFields.add(superField);
+      }
+    }
+    return derivedClassFields;
+  }
+
+  static Function<Object, Object> getParser(Class<?> clazz) {
+    if (Integer.class.isAssignableFrom(clazz)) {
+      return value -> Integer.parseInt(value.toString());
+    } else if (Long.class.isAssignableFrom(clazz)) {
+      return value -> Long.parseLong(value.toString());
+    } else if (String.class.isAssignableFrom(clazz)) {
+      return value -> value != null ? value.toString() : null;
+    } else if (Enum.class.isAssignableFrom(clazz)) {
+      return value -> Enum.valueOf((Class<Enum>) clazz, value.toString().toUpperCase(Locale.ENGLISH));
+    } else if (Boolean.class.isAssignableFrom(clazz)) {
+      return value -> value != null ? Boolean.valueOf(value.toString()) : null;
+    } else {
+      return value -> value;
+    }
+  }
+
+  /**
+   * Getter and setter of a field. A missing getter or setter fails only when it is used.
+   */
+  static class Accessor {
+    private final boolean list;
+    private final Function<Object, Object> parser;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final Exception getterError;
+    private final Exception setterError;
+
+    Accessor(Class<?> objectClass, Field field) {
+      this.list = List.class.isAssignableFrom(field.getType());
+      if (list) {
+        ParameterizedType listParamType = (ParameterizedType) field.getGenericType();
+        this.parser = getParser((Class<?>) listParamType.getActualTypeArguments()[0]);
+      } else {
+        this.parser = getParser(field.getType());
+      }
+
+      String prefix = Boolean.class.equals(field.getType()) ? "is" : "get";
+      MethodHandle getterHandle = null;
+      Exception getterException = null;
+      try {
+        Method method = objectClass.getMethod(prefix + StringUtils.capitalize(field.getName()));
+        getterHandle = unreflect(method).asType(GETTER_TYPE);
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        getterException = e;
+      }
+      this.getter = getterHandle;
+      this.getterError = getterException;
+
+      MethodHandle setterHandle = null;
+      Exception setterException = null;
+      try {
+        Method method = objectClass.getMethod("set" + StringUtils.capitalize(field.getName()), field.getType());
+        setterHandle = unreflect(method).asType(SETTER_TYPE);
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        setterException = e;
+      }
+      this.setter = setterHandle;
+      this.setterError = setterException;
+    }
+
+    Object get(Object object) throws EngineException {
+      if (getter == null) {
+        throw Exceptions.GenericError(getterError);
+      }
+      try {
+        return (Object) getter.invokeExact(object);
+      } catch (Throwable t) {
+        throw Exceptions.GenericError(t);
+      }
+    }
+
+    void set(Object object, Object value) throws EngineException {
+      if (setter == null) {
+        throw Exceptions.GenericError(setterError);
+      }
+      try {
+        setter.invokeExact(object, value);
+      } catch (Throwable t) {
+        throw Exceptions.GenericError(t);
+      }
+    }
+
+    /**
+     * Parses the value, or every element of it for list fields, to the type of the field and sets it
+     */
+    void parseAndSet(Object object, Object value) throws EngineException {
+      if (list) {
+        List<Object> castedList = new ArrayList<>();
+        for (Object obj : (List<?>) value) {
+          castedList.add(parser.apply(obj));
+        }
+        set(object, castedList);
+      } else {
+        set(object, parser.apply(value));
+      }
+    }
+
+    MethodHandle unreflect(Method method) throws IllegalAccessException {
+      method.setAccessible(true);
+      return MethodHandles.lookup().unreflect(method);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.aegean.icsd.engine.generator.beans;
+
+import java.util.List;
+
+import com.aegean.icsd.engine.common.beans.BaseGame;
+
+public class GamePage<T extends BaseGame> {
+  /**
+   * The games of the page, ordered by id
+   */
+  private List<T> games;
+
+  /**
+   * The cursor of the next page, or null if this is the last page
+   */
+  private String next;
+
+  public GamePage(List<T> games, String next) {
+    this.games = games;
+    this.next = next;
+  }
+
+  public List<T> getGames() {
+    return games;
+  }
+
+  public String getNext() {
+    return next;
+  }
+}
@@ -0,0 +1,42 @@
+package com.aegean.icsd.engine.generator.beans;
+
+public class ObjectCacheStats {
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+  private int size;
+
+  public ObjectCacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.invalidations = invalidations;
+    this.size = size;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public long getInvalidations() {
+    return invalidations;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public double getHitRate() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+}
@@ -0,0 +1,65 @@
+package com.aegean.icsd.engine.generator.beans;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ObjectEntry {
+  /**
+   * The id of the object
+   */
+  private String id;
+
+  /**
+   * The type of the object, or null when only relations are added to an existing object
+   */
+  private String type;
+
+  /**
+   * The values of the data properties of the object
+   */
+  private List<ValueRelation> values = new ArrayList<>();
+
+  /**
+   * The ids of the objects associated through every object property
+   */
+  private Map<String, List<String>> objRelations = new LinkedHashMap<>();
+
+  public ObjectEntry(String id, String type) {
+    this.id = id;
+    this.type = type;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public List<ValueRelation> getValues() {
+    return values;
+  }
+
+  public void setValues(List<ValueRelation> values) {
+    this.values = values;
+  }
+
+  public Map<String, List<String>> getObjRelations() {
+    return objRelations;
+  }
+
+  public void setObjRelations(Map<String, List<String>> objRelations) {
+    this.objRelations = objRelations;
+  }
+}
@@ -0,0 +1,51 @@
+package com.aegean.icsd.engine.generator.beans;
+
+import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.rules.beans.EntityProperty;
+
+public class ObjectRelation {
+  /**
+   * The domain of the relation
+   */
+  private BaseGameObject thisObj;
+
+  /**
+   * The range of the relation
+   */
+  private BaseGameObject thatObj;
+
+  /**
+   * The object property of the relation
+   */
+  private EntityProperty onProperty;
+
+  public ObjectRelation(BaseGameObject thisObj, BaseGameObject thatObj, EntityProperty onProperty) {
+    this.thisObj = thisObj;
+    this.thatObj = thatObj;
+    this.onProperty = onProperty;
+  }
+
+  public BaseGameObject getThisObj() {
+    return thisObj;
+  }
+
+  public void setThisObj(BaseGameObject thisObj) {
+    this.thisObj = thisObj;
+  }
+
+  public BaseGameObject getThatObj() {
+    return thatObj;
+  }
+
+  public void setThatObj(BaseGameObject thatObj) {
+    this.thatObj = thatObj;
+  }
+
+  public EntityProperty getOnProperty() {
+    return onProperty;
+  }
+
+  public void setOnProperty(EntityProperty onProperty) {
+    this.onProperty = onProperty;
+  }
+}
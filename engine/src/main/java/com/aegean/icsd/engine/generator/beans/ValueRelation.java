@@ -0,0 +1,48 @@
+package com.aegean.icsd.engine.generator.beans;
+
+public class ValueRelation {
+  /**
+   * The name of the data property
+   */
+  private String name;
+
+  /**
+   * The value associated through the data property
+   */
+  private Object value;
+
+  /**
+   * The java class of the range of the data property
+   */
+  private Class<?> valueClass;
+
+  public ValueRelation(String name, Object value, Class<?> valueClass) {
+    this.name = name;
+    this.value = value;
+    this.valueClass = valueClass;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  public void setValue(Object value) {
+    this.value = value;
+  }
+
+  public Class<?> getValueClass() {
+    return valueClass;
+  }
+
+  public void setValueClass(Class<?> valueClass) {
+    this.valueClass = valueClass;
+  }
+}
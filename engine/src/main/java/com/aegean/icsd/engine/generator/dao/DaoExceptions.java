@@ -40,4 +40,9 @@ final class DaoExceptions {
   static EngineException ConstructorNotFound(String gameName, Throwable t) {
     return new EngineException(CODE_NAME + "." + 8, String.format("Could not find class for game %s", gameName), t);
   }
+
+  static EngineException FailedToRetrieveLastLevels(String gameName, Difficulty difficulty, Throwable t) {
+    return new EngineException(CODE_NAME + "." + 9, String.format("Unable to retrieve the last levels of the players " +
+        "for the game \"%s\" with difficulty \"%s\"", gameName, difficulty.name()), t);
+  }
 }
@@ -2,18 +2,30 @@ package com.aegean.icsd.engine.generator.dao;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import com.aegean.icsd.engine.common.Utils;
 import com.aegean.icsd.engine.common.beans.Difficulty;
 import com.aegean.icsd.engine.common.beans.EngineException;
 import com.aegean.icsd.engine.core.interfaces.IAnnotationReader;
 import com.aegean.icsd.engine.common.beans.BaseGame;
 import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.generator.beans.GamePage;
+import com.aegean.icsd.engine.generator.beans.ObjectEntry;
+import com.aegean.icsd.engine.generator.beans.ValueRelation;
+import com.aegean.icsd.ontology.beans.DatasetProperties;
 import com.aegean.icsd.ontology.beans.OntologyException;
 import com.aegean.icsd.ontology.interfaces.IMciModelReader;
 import com.aegean.icsd.ontology.interfaces.IOntologyConnector;
@@ -27,6 +39,10 @@ import com.google.gson.JsonObject;
 
 @Repository
 public class GeneratorDao implements IGeneratorDao {
+  private static final String ID_PROPERTY = "hasId";
+  private static final String DIFFICULTY_PROPERTY = "hasDifficulty";
+  private static final String COMPLETED_PROPERTY = "completedDate";
+  private static final String PLAYER_PROPERTY = "hasPlayer";
 
   @Autowired
   private IOntologyConnector ontology;
@@ -37,15 +53,288 @@ public class GeneratorDao implements IGeneratorDao {
   @Autowired
   private IAnnotationReader ano;
 
+  @Autowired
+  private DatasetProperties ontologyProps;
+
   @Override
   public <T extends BaseGameObject> List<T> selectGameObject(Map<String, Object> relations, Class<T> aClass) throws EngineException {
-    return selectObjects(relations, aClass);
+    String entityValue = ano.getEntityValue(aClass);
+    return selectObjects(relations, aClass, Collections.singletonList(entityValue));
+  }
+
+  @Override
+  public <T extends BaseGameObject> List<T> selectGameObjects(Class<T> aClass, Collection<String> ids)
+    throws EngineException {
+    return selectGameObjects(new HashMap<>(), aClass, ids);
+  }
+
+  @Override
+  public <T extends BaseGameObject> List<T> selectGameObjects(Map<String, Object> relations, Class<T> aClass,
+    Collection<String> ids) throws EngineException {
+    if (ids.isEmpty()) {
+      return new ArrayList<>();
+    }
+    String entityValue = ano.getEntityValue(aClass);
+    SelectQuery.Builder qBuilder = new SelectQuery.Builder()
+      .select("s", "p", "o");
+    addCriteria(qBuilder, relations);
+    if (ontologyProps.isLegacyObjectLookup()) {
+      qBuilder.where("s", ID_PROPERTY, "id")
+        .values("id", new LinkedHashSet<>(ids))
+        .addIriParam(ID_PROPERTY, model.getPrefixedEntity(ID_PROPERTY));
+    }
+    qBuilder.where("s", "p", "o");
+    addSubjectLookup(qBuilder, entityValue, Collections.singletonList(entityValue), new LinkedHashSet<>(ids));
+    SelectQuery query = qBuilder
+      .filter("o", SelectQuery.Builder.Operator.IS_LITERAL, "")
+      .build();
+
+    Map<String, JsonArray> groupedByNodeName = new HashMap<>();
+    try {
+      ontology.select(query, row -> groupedByNodeName.computeIfAbsent(row.get("s").getAsString(), x -> new JsonArray())
+        .add(row));
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery("Ids: " + ids, e);
+    }
+
+    Map<String, T> byId = new HashMap<>();
+    for (JsonArray dataProperties : groupedByNodeName.values()) {
+      try {
+        T object = mapJsonToObject(dataProperties, "p", aClass);
+        byId.put(object.getId(), object);
+      } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+        throw DaoExceptions.ConstructorNotFound(aClass.getSimpleName(), e);
+      }
+    }
+
+    List<T> objects = new ArrayList<>();
+    for (String id : ids) {
+      T object = byId.get(id);
+      if (object != null) {
+        objects.add(object);
+      }
+    }
+    return objects;
+  }
+
+  /**
+   * Samples the objects on the store: the subquery matches the criteria, keeps the objects that are not associated
+   * with some instance of newFor and picks count of them in random order, so that only their properties are
+   * returned, whatever the size of the catalogue.
+   */
+  @Override
+  public <T extends BaseGameObject> List<T> selectRandomGameObjects(Map<String, Object> relations, Class<T> aClass,
+    String newFor, int count) throws EngineException {
+    SelectQuery.Builder sampleBuilder = createSampleBuilder(relations, aClass, getIds(relations))
+      .filterExists(new SelectQuery.Builder()
+        .where("newForInstance", "rdfType", "newFor")
+        .filterNotExists(new SelectQuery.Builder()
+          .where("newForInstance", "newForRelation", "s"))
+        .addIriParam("rdfType", "rdf:type")
+        .addIriParam("newFor", model.getPrefixedEntity(newFor)));
+    return selectSample(sampleBuilder, aClass, count, "New for: " + newFor);
+  }
+
+  SelectQuery.Builder createSampleBuilder(Map<String, Object> relations, Class<?> aClass, Collection<String> ids)
+    throws EngineException {
+    String entityValue = ano.getEntityValue(aClass);
+    SelectQuery.Builder sampleBuilder = new SelectQuery.Builder()
+      .select("s")
+      .where("s", ID_PROPERTY, "id")
+      .addIriParam(ID_PROPERTY, model.getPrefixedEntity(ID_PROPERTY));
+    addCriteria(sampleBuilder, relations);
+    addSubjectLookup(sampleBuilder, entityValue, Collections.singletonList(entityValue), ids);
+    return sampleBuilder;
+  }
+
+  <T extends BaseGameObject> List<T> selectSample(SelectQuery.Builder sampleBuilder, Class<T> aClass, int count,
+    String msg) throws EngineException {
+    SelectQuery sample = sampleBuilder
+      .orderByRandom()
+      .limit(count)
+      .build();
+
+    SelectQuery query = new SelectQuery.Builder()
+      .select("s", "p", "o")
+      .where(sample)
+      .where("s", "p", "o")
+      .filter("o", SelectQuery.Builder.Operator.IS_LITERAL, "")
+      .build();
+
+    Map<String, JsonArray> groupedByNodeName = new HashMap<>();
+    try {
+      ontology.select(query, row -> groupedByNodeName.computeIfAbsent(row.get("s").getAsString(), x -> new JsonArray())
+        .add(row));
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery(msg, e);
+    }
+
+    List<T> objects = new ArrayList<>();
+    for (JsonArray dataProperties : groupedByNodeName.values()) {
+      try {
+        objects.add(mapJsonToObject(dataProperties, "p", aClass));
+      } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+        throw DaoExceptions.ConstructorNotFound(aClass.getSimpleName(), e);
+      }
+    }
+    return objects;
   }
 
   @Override
   public <T extends BaseGame> List<T> selectGame(Map<String, Object> relations, Class<T> aClass)
     throws EngineException {
-    return selectObjects(relations, aClass);
+    String entityValue = ano.getEntityValue(aClass);
+    List<String> types = new ArrayList<>();
+    for (Difficulty difficulty : Difficulty.values()) {
+      types.add(Utils.getFullGameName(entityValue, difficulty));
+    }
+    return selectObjects(relations, aClass, types);
+  }
+
+  @Override
+  public <T extends BaseGame> GamePage<T> selectGamePage(Map<String, Object> relations, Class<T> aClass,
+    Boolean completed, String cursor, int limit) throws EngineException {
+    String entityValue = ano.getEntityValue(aClass);
+    List<String> types = new ArrayList<>();
+    Object difficulty = relations.get(DIFFICULTY_PROPERTY);
+    for (Difficulty value : Difficulty.values()) {
+      if (difficulty == null || value.name().equals(difficulty.toString())) {
+        types.add(Utils.getFullGameName(entityValue, value));
+      }
+    }
+
+    SelectQuery.Builder pageBuilder = new SelectQuery.Builder()
+      .select("s", "id");
+    addCriteria(pageBuilder, relations);
+    pageBuilder.where("s", ID_PROPERTY, "id")
+      .addIriParam(ID_PROPERTY, model.getPrefixedEntity(ID_PROPERTY));
+    addSubjectLookup(pageBuilder, entityValue, types, null);
+    if (cursor != null) {
+      pageBuilder.filter("id", SelectQuery.Builder.Operator.GT, "cursor")
+        .addLiteralParam("cursor", cursor);
+    }
+    if (completed != null) {
+      SelectQuery.Builder completedPattern = new SelectQuery.Builder()
+        .where("s", COMPLETED_PROPERTY, "completedValue")
+        .addIriParam(COMPLETED_PROPERTY, model.getPrefixedEntity(COMPLETED_PROPERTY));
+      if (completed) {
+        pageBuilder.filterExists(completedPattern);
+      } else {
+        pageBuilder.filterNotExists(completedPattern);
+      }
+    }
+    // one more game than the page is read, to know if there is a next page
+    pageBuilder.orderByAsc("id")
+      .limit(limit + 1);
+
+    SelectQuery query = new SelectQuery.Builder()
+      .select("s", "p", "o")
+      .where(pageBuilder.build())
+      .where("s", "p", "o")
+      .filter("o", SelectQuery.Builder.Operator.IS_LITERAL, "")
+      .build();
+
+    List<T> games = new ArrayList<>();
+    try {
+      Map<String, JsonArray> groupedByNodeName = groupByNodeName("s", ontology.select(query));
+      for (JsonArray dataProperties : groupedByNodeName.values()) {
+        games.add(mapJsonToObject(dataProperties, "p", aClass));
+      }
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery("Page of type: " + entityValue, e);
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+      throw DaoExceptions.ConstructorNotFound(aClass.getSimpleName(), e);
+    }
+
+    games.sort(Comparator.comparing(BaseGame::getId));
+    String next = null;
+    if (games.size() > limit) {
+      games = new ArrayList<>(games.subList(0, limit));
+      next = games.get(limit - 1).getId();
+    }
+    return new GamePage<>(games, next);
+  }
+
+  @Override
+  public <T extends BaseGame> List<T> selectGamesWithoutPlayer(Map<String, Object> relations, Class<T> aClass)
+    throws EngineException {
+    String entityValue = ano.getEntityValue(aClass);
+    List<String> types = new ArrayList<>();
+    Object difficulty = relations.get(DIFFICULTY_PROPERTY);
+    for (Difficulty value : Difficulty.values()) {
+      if (difficulty == null || value.name().equals(difficulty.toString())) {
+        types.add(Utils.getFullGameName(entityValue, value));
+      }
+    }
+
+    SelectQuery.Builder gamesBuilder = new SelectQuery.Builder()
+      .select("s");
+    addCriteria(gamesBuilder, relations);
+    addSubjectLookup(gamesBuilder, entityValue, types, null);
+    gamesBuilder.filterNotExists(new SelectQuery.Builder()
+      .where("s", PLAYER_PROPERTY, "playerName")
+      .addIriParam(PLAYER_PROPERTY, model.getPrefixedEntity(PLAYER_PROPERTY)));
+
+    SelectQuery query = new SelectQuery.Builder()
+      .select("s", "p", "o")
+      .where(gamesBuilder.build())
+      .where("s", "p", "o")
+      .filter("o", SelectQuery.Builder.Operator.IS_LITERAL, "")
+      .build();
+
+    List<T> games = new ArrayList<>();
+    try {
+      Map<String, JsonArray> groupedByNodeName = groupByNodeName("s", ontology.select(query));
+      for (JsonArray dataProperties : groupedByNodeName.values()) {
+        games.add(mapJsonToObject(dataProperties, "p", aClass));
+      }
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery("Without player of type: " + entityValue, e);
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+      throw DaoExceptions.ConstructorNotFound(aClass.getSimpleName(), e);
+    }
+    return games;
+  }
+
+  @Override
+  public List<String> selectIdsOfType(String type) throws EngineException {
+    SelectQuery query = new SelectQuery.Builder()
+      .select("id")
+      .whereHasType("s", model.getPrefixedEntity(type))
+      .where("s", ID_PROPERTY, "id")
+      .addIriParam(ID_PROPERTY, model.getPrefixedEntity(ID_PROPERTY))
+      .build();
+
+    List<String> ids = new ArrayList<>();
+    try {
+      ontology.select(query, row -> ids.add(row.get("id").getAsString()));
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery("Type: " + type, e);
+    }
+    return ids;
+  }
+
+  @Override
+  public Map<String, List<String>> selectAssociatedIds(String type, String objectType) throws EngineException {
+    SelectQuery query = new SelectQuery.Builder()
+      .select("id", "objId")
+      .setDistinct(true)
+      .whereHasType("s", model.getPrefixedEntity(type))
+      .where("s", ID_PROPERTY, "id")
+      .where("s", "p", "obj")
+      .whereHasType("obj", model.getPrefixedEntity(objectType))
+      .where("obj", ID_PROPERTY, "objId")
+      .addIriParam(ID_PROPERTY, model.getPrefixedEntity(ID_PROPERTY))
+      .build();
+
+    Map<String, List<String>> associated = new HashMap<>();
+    try {
+      ontology.select(query, row -> associated.computeIfAbsent(row.get("id").getAsString(), x -> new ArrayList<>())
+        .add(row.get("objId").getAsString()));
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery("Type: " + type + ", object type: " + objectType, e);
+    }
+    return associated;
   }
 
   @Override
@@ -64,9 +353,21 @@ public class GeneratorDao implements IGeneratorDao {
 
   @Override
   public boolean instantiateObject(String id, String type) throws EngineException {
-    InsertQuery ins = new InsertQuery.Builder()
-      .insertEntry(model.getPrefixedEntity(id), model.getPrefixedEntity(type))
-      .build();
+    return instantiateObject(id, type, new ArrayList<>());
+  }
+
+  @Override
+  public boolean instantiateObject(String id, String type, List<ValueRelation> values) throws EngineException {
+    InsertQuery.Builder builder = new InsertQuery.Builder()
+      .insertEntry(model.getPrefixedEntity(id), model.getPrefixedEntity(type));
+
+    for (ValueRelation value : values) {
+      if (value.getValue() != null) {
+        builder.addRelation(InsertParam.createObj(model.getPrefixedEntity(value.getName())),
+          InsertParam.createValue(value.getValue(), value.getValueClass()));
+      }
+    }
+    InsertQuery ins = builder.build();
 
     try {
       return ontology.insert(ins);
@@ -75,6 +376,43 @@ public class GeneratorDao implements IGeneratorDao {
     }
   }
 
+  /**
+   * Writes all the entries with a single INSERT DATA, with the same triples as
+   * {@link #instantiateObject(String, String, List)} and {@link #createObjRelation(String, String, String)}
+   */
+  @Override
+  public CompletableFuture<Boolean> instantiateObjectsAsync(List<ObjectEntry> entries) {
+    InsertQuery.Builder builder = new InsertQuery.Builder();
+    for (ObjectEntry entry : entries) {
+      String id = model.getPrefixedEntity(entry.getId());
+      if (entry.getType() != null) {
+        builder.insertEntry(id, model.getPrefixedEntity(entry.getType()));
+      } else {
+        builder.forSubject(InsertParam.createObj(id));
+      }
+      for (ValueRelation value : entry.getValues()) {
+        if (value.getValue() != null) {
+          builder.addRelation(InsertParam.createObj(model.getPrefixedEntity(value.getName())),
+            InsertParam.createValue(value.getValue(), value.getValueClass()));
+        }
+      }
+      for (Map.Entry<String, List<String>> relation : entry.getObjRelations().entrySet()) {
+        for (String objId : relation.getValue()) {
+          builder.addRelation(InsertParam.createObj(model.getPrefixedEntity(relation.getKey())),
+            InsertParam.createObj(model.getPrefixedEntity(objId)));
+        }
+      }
+    }
+
+    return ontology.insertAsync(builder.build()).handle((success, ex) -> {
+      if (ex != null) {
+        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+        throw new CompletionException(DaoExceptions.InsertQuery("Objects: " + entries.size(), cause));
+      }
+      return success;
+    });
+  }
+
   @Override
   public int getLastCompletedLevel(String gameName, Difficulty difficulty, String playerName) throws EngineException {
     SelectQuery query = new SelectQuery.Builder()
@@ -104,13 +442,64 @@ public class GeneratorDao implements IGeneratorDao {
     }
   }
 
-  <T> List<T> selectObjects(Map<String, Object> relations, Class<T> aClass) throws EngineException {
+  @Override
+  public Map<String, Integer> selectLastLevels(String gameName, Difficulty difficulty) throws EngineException {
+    SelectQuery query = new SelectQuery.Builder()
+      .select("playerName", "level")
+      .whereHasType("obs", model.getPrefixedEntity(gameName))
+      .where("obs", "hasDifficulty", "difficulty")
+      .where("obs", "hasPlayer", "playerName")
+      .where("obs", "hasLevel", "level")
+      .addIriParam("hasDifficulty", model.getPrefixedEntity("hasDifficulty"))
+      .addIriParam("hasPlayer", model.getPrefixedEntity("hasPlayer"))
+      .addIriParam("hasLevel", model.getPrefixedEntity("hasLevel"))
+      .addLiteralParam("difficulty", difficulty.name())
+      .build();
+
+    Map<String, Integer> levels = new HashMap<>();
+    try {
+      ontology.select(query, row -> levels.merge(row.get("playerName").getAsString(), row.get("level").getAsInt(),
+        Math::max));
+    } catch (OntologyException e) {
+      throw DaoExceptions.FailedToRetrieveLastLevels(gameName, difficulty, e);
+    }
+    return levels;
+  }
+
+  <T> List<T> selectObjects(Map<String, Object> relations, Class<T> aClass, List<String> types)
+    throws EngineException {
     String entityValue = ano.getEntityValue(aClass);
-    int i = 0;
 
     SelectQuery.Builder qBuilder = new SelectQuery.Builder()
       .select("s", "p", "o");
+    addCriteria(qBuilder, relations);
+    qBuilder.where("s", "p", "o");
+    addSubjectLookup(qBuilder, entityValue, types, getIds(relations));
+    qBuilder.filter("o", SelectQuery.Builder.Operator.IS_LITERAL, "");
 
+    try {
+      JsonArray results = ontology.select(qBuilder.build());
+      List<T> objects = new ArrayList<>();
+      Map<String, JsonArray> groupedByNodeName = groupByNodeName("s", results);
+      for (Map.Entry<String, JsonArray> entry : groupedByNodeName.entrySet()) {
+        try {
+          T object = mapJsonToObject(entry.getValue(), "p", aClass);
+          objects.add(object);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+          throw DaoExceptions.ConstructorNotFound(aClass.getSimpleName(), e);
+        }
+      }
+      return objects;
+    } catch (OntologyException e) {
+      throw DaoExceptions.SelectObjectQuery("No extra msg", e);
+    }
+  }
+
+  /**
+   * Matches ?s on the values of the criteria that are set
+   */
+  void addCriteria(SelectQuery.Builder qBuilder, Map<String, Object> relations) {
+    int i = 0;
     for (Map.Entry<String, Object> entry : relations.entrySet()) {
       String dataProperty = entry.getKey();
       Object value = entry.getValue();
@@ -131,27 +520,31 @@ public class GeneratorDao implements IGeneratorDao {
       }
       i++;
     }
-    qBuilder.where("s", "p", "o")
-      .regexFilter("s", entityValue)
-      .filter("o", SelectQuery.Builder.Operator.IS_LITERAL, "")
-      .addLiteralParam(entityValue, entityValue);
+  }
 
-    try {
-      JsonArray results = ontology.select(qBuilder.build());
-      List<T> objects = new ArrayList<>();
-      Map<String, JsonArray> groupedByNodeName = groupByNodeName("s", results);
-      for (Map.Entry<String, JsonArray> entry : groupedByNodeName.entrySet()) {
-        try {
-          T object = mapJsonToObject(entry.getValue(), "p", aClass);
-          objects.add(object);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
-          throw DaoExceptions.ConstructorNotFound(aClass.getSimpleName(), e);
-        }
-      }
-      return objects;
-    } catch (OntologyException e) {
-      throw DaoExceptions.SelectObjectQuery("No extra msg", e);
+  List<String> getIds(Map<String, Object> relations) {
+    Object id = relations.get(ID_PROPERTY);
+    return id == null ? null : Collections.singletonList(id.toString());
+  }
+
+  /**
+   * Restricts ?s to the objects of the given types through the rdf:type index and, when the ids are known,
+   * to their IRIs. The regex on the subject IRI scans every subject of the dataset and is used only when
+   * legacyObjectLookup is enabled.
+   */
+  void addSubjectLookup(SelectQuery.Builder qBuilder, String entityValue, List<String> types, Collection<String> ids) {
+    if (ontologyProps.isLegacyObjectLookup()) {
+      qBuilder.regexFilter("s", entityValue)
+        .addLiteralParam(entityValue, entityValue);
+      return;
+    }
+
+    if (ids != null) {
+      qBuilder.iriValues("s", ids.stream().map(model::getPrefixedEntity).collect(Collectors.toList()));
     }
+    qBuilder.where("s", "rdfType", "type")
+      .iriValues("type", types.stream().map(model::getPrefixedEntity).collect(Collectors.toList()))
+      .addIriParam("rdfType", "rdf:type");
   }
 
   <T> boolean createRelation(String id, String name, Object rangeValue, boolean isObject, Class<T> rangeClass)
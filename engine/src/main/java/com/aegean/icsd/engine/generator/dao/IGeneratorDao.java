@@ -1,19 +1,49 @@
 package com.aegean.icsd.engine.generator.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.aegean.icsd.engine.common.beans.Difficulty;
 import com.aegean.icsd.engine.common.beans.EngineException;
 import com.aegean.icsd.engine.common.beans.BaseGame;
 import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.generator.beans.GamePage;
+import com.aegean.icsd.engine.generator.beans.ObjectEntry;
+import com.aegean.icsd.engine.generator.beans.ValueRelation;
 
 public interface IGeneratorDao {
 
   <T extends BaseGameObject> List<T> selectGameObject(Map<String, Object> relations, Class<T> aClass) throws EngineException;
 
+  <T extends BaseGameObject> List<T> selectGameObjects(Class<T> aClass, Collection<String> ids) throws EngineException;
+
+  <T extends BaseGameObject> List<T> selectGameObjects(Map<String, Object> relations, Class<T> aClass,
+    Collection<String> ids) throws EngineException;
+
+  <T extends BaseGameObject> List<T> selectRandomGameObjects(Map<String, Object> relations, Class<T> aClass,
+    String newFor, int count) throws EngineException;
+
   <T extends BaseGame> List<T> selectGame(Map<String, Object> relations, Class<T> aClass)  throws EngineException;
 
+  /**
+   * @param completed if set, only the completed or the not completed games are selected
+   * @param cursor the id after which the page starts, or null for the first page
+   */
+  <T extends BaseGame> GamePage<T> selectGamePage(Map<String, Object> relations, Class<T> aClass, Boolean completed,
+    String cursor, int limit) throws EngineException;
+
+  /**
+   * Selects the games that match the criteria and have no player
+   */
+  <T extends BaseGame> List<T> selectGamesWithoutPlayer(Map<String, Object> relations, Class<T> aClass)
+    throws EngineException;
+
+  List<String> selectIdsOfType(String type) throws EngineException;
+
+  Map<String, List<String>> selectAssociatedIds(String type, String objectType) throws EngineException;
+
   boolean createValueRelation(String id, String name, Object rangeValue, Class<?> valueClass)
     throws EngineException;
 
@@ -21,6 +51,15 @@ public interface IGeneratorDao {
 
   int getLastCompletedLevel(String gameName, Difficulty difficulty, String playerName) throws EngineException;
 
+  /**
+   * @return the highest level of the games of every player, for the given game and difficulty
+   */
+  Map<String, Integer> selectLastLevels(String gameName, Difficulty difficulty) throws EngineException;
+
   boolean instantiateObject(String id, String type) throws EngineException;
 
+  boolean instantiateObject(String id, String type, List<ValueRelation> values) throws EngineException;
+
+  CompletableFuture<Boolean> instantiateObjectsAsync(List<ObjectEntry> entries);
+
 }
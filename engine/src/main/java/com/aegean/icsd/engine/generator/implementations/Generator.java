@@ -1,7 +1,18 @@
 package com.aegean.icsd.engine.generator.implementations;
 
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -16,6 +27,11 @@ import com.aegean.icsd.engine.common.beans.EngineException;
 import com.aegean.icsd.engine.core.interfaces.IAnnotationReader;
 import com.aegean.icsd.engine.common.beans.BaseGame;
 import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.generator.beans.GamePage;
+import com.aegean.icsd.engine.generator.beans.ObjectCacheStats;
+import com.aegean.icsd.engine.generator.beans.ObjectEntry;
+import com.aegean.icsd.engine.generator.beans.ObjectRelation;
+import com.aegean.icsd.engine.generator.beans.ValueRelation;
 import com.aegean.icsd.engine.generator.dao.IGeneratorDao;
 import com.aegean.icsd.engine.generator.interfaces.IGenerator;
 import com.aegean.icsd.engine.rules.beans.EntityProperty;
@@ -25,12 +41,15 @@ import com.aegean.icsd.engine.rules.beans.ValueRange;
 import com.aegean.icsd.engine.rules.beans.ValueRangeRestriction;
 import com.aegean.icsd.engine.rules.beans.ValueRangeType;
 import com.aegean.icsd.engine.rules.interfaces.IRules;
+import com.aegean.icsd.ontology.beans.DatasetProperties;
 import com.aegean.icsd.ontology.interfaces.IMciModelReader;
 import com.aegean.icsd.ontology.interfaces.IOntologyConnector;
 
 @Service
 public class Generator implements IGenerator {
   private static Logger LOGGER = Logger.getLogger(Generator.class);
+  private static final int BULK_BATCH_SIZE = 500;
+  private static final int BULK_MAX_PENDING = 8;
 
   @Autowired
   private IRules rules;
@@ -47,11 +66,65 @@ public class Generator implements IGenerator {
   @Autowired
   private IMciModelReader model;
 
+  @Autowired
+  private DatasetProperties ontologyProps;
+
+  private ObjectUsageIndex usageIndex;
+  private ProgressIndex progressIndex;
+  private ObjectCache objectCache;
+
+  @PostConstruct
+  void setupUsageIndex() {
+    usageIndex = new ObjectUsageIndex(dao);
+    progressIndex = new ProgressIndex(dao);
+    objectCache = new ObjectCache(ano, ontologyProps.getObjectCacheMaxEntries(), ontologyProps.getObjectCacheTtl(),
+      ontologyProps.getObjectCacheTtls() == null ? Collections.emptyMap() : ontologyProps.getObjectCacheTtls());
+  }
+
   @Override
   public <GAME_OBJECT extends BaseGameObject> List<GAME_OBJECT> selectGameObject(GAME_OBJECT criteria)
     throws EngineException {
     Map<String, Object> relations = ano.getDataProperties(criteria);
-    return (List<GAME_OBJECT>) dao.selectGameObject(relations, criteria.getClass());
+    Class<GAME_OBJECT> aClass = (Class<GAME_OBJECT>) criteria.getClass();
+    return objectCache.get(aClass, relations, () -> dao.selectGameObject(relations, aClass));
+  }
+
+  @Override
+  public ObjectCacheStats getObjectCacheStats() {
+    return objectCache.getStats();
+  }
+
+  @Override
+  public <GAME_OBJECT extends BaseGameObject> List<GAME_OBJECT> selectGameObjects(Class<GAME_OBJECT> aClass,
+    Collection<String> ids) throws EngineException {
+    return dao.selectGameObjects(aClass, ids);
+  }
+
+  @Override
+  public <GAME_OBJECT extends BaseGameObject> List<GAME_OBJECT> selectRandomGameObjects(GAME_OBJECT criteria,
+    String newFor, int count) throws EngineException {
+    Map<String, Object> relations = ano.getDataProperties(criteria);
+    Class<GAME_OBJECT> aClass = (Class<GAME_OBJECT>) criteria.getClass();
+    if (!ontologyProps.isUsageIndex()) {
+      return dao.selectRandomGameObjects(relations, aClass, newFor, count);
+    }
+
+    // the ids are picked at random out of the new ones in memory and only the picked objects are read, topped up
+    // with more picks for the objects that do not match the criteria
+    String objectType = ano.getEntityValue(aClass);
+    List<String> newIds = usageIndex.getNewObjectIds(newFor, objectType);
+    List<GAME_OBJECT> objects = new ArrayList<>();
+    int remaining = newIds.size();
+    while (objects.size() < count && remaining > 0) {
+      List<String> picked = new ArrayList<>();
+      while (picked.size() < count - objects.size() && remaining > 0) {
+        int pick = ThreadLocalRandom.current().nextInt(remaining--);
+        Collections.swap(newIds, pick, remaining);
+        picked.add(newIds.get(remaining));
+      }
+      objects.addAll(dao.selectGameObjects(relations, aClass, picked));
+    }
+    return objects;
   }
 
   @Override
@@ -60,19 +133,88 @@ public class Generator implements IGenerator {
     return (List<GAME>) dao.selectGame(relations, criteria.getClass());
   }
 
+  @Override
+  public <GAME extends BaseGame> GamePage<GAME> selectGamePage(GAME criteria, Boolean completed, String cursor,
+    int limit) throws EngineException {
+    Map<String, Object> relations = ano.getDataProperties(criteria);
+    return (GamePage<GAME>) dao.selectGamePage(relations, criteria.getClass(), completed, cursor, limit);
+  }
+
+  @Override
+  public <GAME extends BaseGame> List<GAME> selectGamesWithoutPlayer(GAME criteria) throws EngineException {
+    Map<String, Object> relations = ano.getDataProperties(criteria);
+    return (List<GAME>) dao.selectGamesWithoutPlayer(relations, criteria.getClass());
+  }
+
   @Override
   public <GAME extends BaseGame> String upsertGame(GAME game) throws EngineException {
     LOGGER.debug("Upserting new Game");
     String entity = ano.getEntityValue(game.getClass());
     String fullName = Utils.getFullGameName(entity, game.getDifficulty());
-    return upsertObject(game, fullName);
+    String id = upsertObject(game, fullName);
+    usageIndex.addInstance(fullName, id);
+    progressIndex.addGame(fullName, game.getDifficulty(), game.getPlayerName(), game.getLevel());
+    return id;
   }
 
   @Override
   public <GAME_OBJECT extends BaseGameObject> String upsertGameObject(GAME_OBJECT object) throws EngineException {
     LOGGER.debug("Upserting new Object");
     String entityName = ano.getEntityValue(object.getClass());
-    return upsertObject(object, entityName);
+    String id = upsertObject(object, entityName);
+    usageIndex.addObject(entityName, id);
+    objectCache.invalidate(entityName);
+    return id;
+  }
+
+  @Override
+  public <GAME_OBJECT extends BaseGameObject> void upsertGameObjects(Collection<GAME_OBJECT> objects)
+    throws EngineException {
+    LOGGER.info(String.format("Upserting %d Objects", objects.size()));
+    List<ObjectEntry> entries = new ArrayList<>();
+    for (GAME_OBJECT object : objects) {
+      entries.add(createEntry(object, ano.getEntityValue(object.getClass())));
+    }
+    writeEntries(entries);
+    Set<String> types = new HashSet<>();
+    for (GAME_OBJECT object : objects) {
+      usageIndex.addObject(ano.getEntityValue(object.getClass()), object.getId());
+      types.add(ano.getEntityValue(object.getClass()));
+    }
+    for (String type : types) {
+      objectCache.invalidate(type);
+    }
+  }
+
+  @Override
+  public void createObjRelations(Collection<ObjectRelation> relations) throws EngineException {
+    LOGGER.info(String.format("Creating %d relations", relations.size()));
+    Set<String> validated = new HashSet<>();
+    Map<String, ObjectEntry> entries = new LinkedHashMap<>();
+    for (ObjectRelation relation : relations) {
+      String entity = ano.getEntityValue(relation.getThisObj().getClass());
+      EntityProperty onProperty = relation.getOnProperty();
+      if (validated.add(entity + " " + onProperty.getName() + " " + onProperty.getRange())) {
+        validateProperty(entity, onProperty);
+      }
+
+      String id = relation.getThisObj().getId();
+      String objId = relation.getThatObj().getId();
+      validateRelation(id, onProperty, objId);
+      addObjRelation(entries, id, onProperty.getName(), objId);
+      if (onProperty.isSymmetric()) {
+        addObjRelation(entries, objId, onProperty.getName(), id);
+      }
+      if (!StringUtils.isEmpty(onProperty.getInverse()) && !onProperty.isSymmetric()) {
+        addObjRelation(entries, objId, onProperty.getInverse(), id);
+      }
+    }
+    writeEntries(new ArrayList<>(entries.values()));
+
+    for (ObjectRelation relation : relations) {
+      updateUsage(ano.getEntityValue(relation.getThisObj().getClass()), relation.getThisObj().getId(),
+        relation.getOnProperty(), ano.getEntityValue(relation.getThatObj().getClass()), relation.getThatObj().getId());
+    }
   }
 
   @Override
@@ -84,7 +226,11 @@ public class Generator implements IGenerator {
     String entity = ano.getEntityValue(thisGame.getClass());
     String fullName = Utils.getFullGameName(entity, thisGame.getDifficulty());
     validateProperty(fullName, onProperty);
-    return createRelation(thisGame.getId(),  onProperty, thatObj.getId());
+    boolean success = createRelation(thisGame.getId(),  onProperty, thatObj.getId());
+    if (success) {
+      updateUsage(fullName, thisGame.getId(), onProperty, ano.getEntityValue(thatObj.getClass()), thatObj.getId());
+    }
+    return success;
   }
 
   @Override
@@ -92,12 +238,19 @@ public class Generator implements IGenerator {
     throws EngineException {
     String entity = ano.getEntityValue(thisObj.getClass());
     validateProperty(entity, onProperty);
-    return createRelation(thisObj.getId(),  onProperty, thatObj.getId());
+    boolean success = createRelation(thisObj.getId(),  onProperty, thatObj.getId());
+    if (success) {
+      updateUsage(entity, thisObj.getId(), onProperty, ano.getEntityValue(thatObj.getClass()), thatObj.getId());
+    }
+    return success;
   }
 
   @Override
   public int getLastCompletedLevel(String gameName, Difficulty difficulty, String playerName) throws EngineException {
-    return dao.getLastCompletedLevel(gameName, difficulty, playerName);
+    if (!ontologyProps.isProgressIndex()) {
+      return dao.getLastCompletedLevel(gameName, difficulty, playerName);
+    }
+    return progressIndex.getLastLevel(gameName, difficulty, playerName);
   }
 
   @Override
@@ -162,10 +315,31 @@ public class Generator implements IGenerator {
 
   }
 
+  void updateUsage(String entity, String id, EntityProperty onProperty, String objEntity, String objId) {
+    usageIndex.addRelation(entity, id, objEntity, objId);
+    if (onProperty.isSymmetric() || !StringUtils.isEmpty(onProperty.getInverse())) {
+      usageIndex.addRelation(objEntity, objId, entity, id);
+    }
+  }
+
   String upsertObject (Object object, String entityName) throws EngineException {
+    ObjectEntry entry = createEntry(object, entityName);
+    String name = ano.getEntityValue(object.getClass());
+    LOGGER.info(String.format("Upserting new %s with id %s", name, entry.getId()));
+
+    boolean success = dao.instantiateObject(entry.getId(), entry.getType(), entry.getValues());
+    if (!success) {
+      throw GeneratorExceptions.CannotCreateObject(name);
+    }
+    return entry.getId();
+  }
+
+  /**
+   * Sets the id of the object and collects the values of its data properties, according to the rules of the entity
+   */
+  ObjectEntry createEntry(Object object, String entityName) throws EngineException {
     String id = ano.setEntityId(object);
     String name = ano.getEntityValue(object.getClass());
-    LOGGER.info(String.format("Upserting new %s with id %s", name, id));
     Map<String, Object> relations = ano.getDataProperties(object);
 
     EntityRules er;
@@ -179,11 +353,8 @@ public class Generator implements IGenerator {
       .filter(x -> !x.isObjectProperty())
       .collect(Collectors.toList());
 
-    boolean success = dao.instantiateObject(id, er.getName());
-    if (!success) {
-      throw GeneratorExceptions.CannotCreateObject(name);
-    }
-
+    ObjectEntry entry = new ObjectEntry(id, er.getName());
+    List<ValueRelation> values = entry.getValues();
     for (EntityProperty property : dataProperties) {
       Object rangeValue = relations.get(property.getName());
       if (rangeValue != null) {
@@ -195,28 +366,21 @@ public class Generator implements IGenerator {
           }
 
           for (Object elem : (List) rangeValue) {
-            dao.createValueRelation(id, property.getName(), elem, rangeClass);
+            values.add(new ValueRelation(property.getName(), elem, rangeClass));
           }
         } else {
-          dao.createValueRelation(id, property.getName(), rangeValue, rangeClass);
+          values.add(new ValueRelation(property.getName(), rangeValue, rangeClass));
         }
       }
     }
-    return id;
+
+    return entry;
   }
 
   boolean createRelation(String id, EntityProperty onProperty, String objId) throws EngineException {
     LOGGER.info(String.format("Associating %s with %s through the relation %s ", id, objId, onProperty.getName()));
     try {
-      if (onProperty.isMandatory() && StringUtils.isEmpty(objId)) {
-        throw GeneratorExceptions.CannotCreateRelation(onProperty.getName(), id, objId,
-          "Property is marked as mandatory. Relation is missing");
-      }
-
-      if (onProperty.isIrreflexive() && id.equals(objId)) {
-        throw GeneratorExceptions.CannotCreateRelation(onProperty.getName(), id, objId,
-          "Property is marked as irreflexive");
-      }
+      validateRelation(id, onProperty, objId);
 
       boolean success = dao.createObjRelation(id, onProperty.getName(), objId);
       if (onProperty.isSymmetric()) {
@@ -232,4 +396,67 @@ public class Generator implements IGenerator {
       throw GeneratorExceptions.CannotCreateRelation(onProperty.getName(), id, e);
     }
   }
+
+  void validateRelation(String id, EntityProperty onProperty, String objId) throws EngineException {
+    if (onProperty.isMandatory() && StringUtils.isEmpty(objId)) {
+      throw GeneratorExceptions.CannotCreateRelation(onProperty.getName(), id, objId,
+        "Property is marked as mandatory. Relation is missing");
+    }
+
+    if (onProperty.isIrreflexive() && id.equals(objId)) {
+      throw GeneratorExceptions.CannotCreateRelation(onProperty.getName(), id, objId,
+        "Property is marked as irreflexive");
+    }
+  }
+
+  void addObjRelation(Map<String, ObjectEntry> entries, String id, String name, String objId) {
+    List<String> objIds = entries.computeIfAbsent(id, x -> new ObjectEntry(id, null))
+      .getObjRelations()
+      .computeIfAbsent(name, x -> new ArrayList<>());
+    if (!objIds.contains(objId)) {
+      objIds.add(objId);
+    }
+  }
+
+  /**
+   * Writes the entries in batches of {@value #BULK_BATCH_SIZE}, keeping at most {@value #BULK_MAX_PENDING} batches
+   * in flight, and reports the progress after every batch
+   */
+  void writeEntries(List<ObjectEntry> entries) throws EngineException {
+    long start = System.currentTimeMillis();
+    int written = 0;
+    Deque<CompletableFuture<Integer>> pending = new ArrayDeque<>();
+    for (int from = 0; from < entries.size(); from += BULK_BATCH_SIZE) {
+      if (pending.size() == BULK_MAX_PENDING) {
+        written += awaitBatch(pending.poll());
+        logProgress(written, entries.size(), start);
+      }
+      List<ObjectEntry> batch = entries.subList(from, Math.min(from + BULK_BATCH_SIZE, entries.size()));
+      pending.add(dao.instantiateObjectsAsync(batch).thenApply(success -> success ? batch.size() : 0));
+    }
+    while (!pending.isEmpty()) {
+      written += awaitBatch(pending.poll());
+      logProgress(written, entries.size(), start);
+    }
+    if (written != entries.size()) {
+      throw GeneratorExceptions.CannotCreateObject(String.format("%d of %d entries", entries.size() - written,
+        entries.size()));
+    }
+  }
+
+  int awaitBatch(CompletableFuture<Integer> batch) throws EngineException {
+    try {
+      return batch.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof EngineException) {
+        throw (EngineException) e.getCause();
+      }
+      throw GeneratorExceptions.CannotCreateObject(e.getCause().getMessage());
+    }
+  }
+
+  void logProgress(int written, int total, long start) {
+    long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+    LOGGER.info(String.format("Written %d of %d entries (%.1f entries/s)", written, total, written * 1000.0 / elapsed));
+  }
 }
@@ -29,4 +29,14 @@ final class GeneratorExceptions {
       "This means it can have at most one value", relationName, type));
   }
 
+  static EngineException UsageIndexNotLoaded(String entity, String objectType, Throwable t) {
+    return new EngineException(CODE_NAME + "." + 8, String.format("Could not load the usage of the objects of type %s " +
+      "by the entity %s", objectType, entity), t);
+  }
+
+  static EngineException ProgressIndexNotLoaded(String gameName, Throwable t) {
+    return new EngineException(CODE_NAME + "." + 9, String.format("Could not load the progress of the players " +
+      "for the game %s", gameName), t);
+  }
+
 }
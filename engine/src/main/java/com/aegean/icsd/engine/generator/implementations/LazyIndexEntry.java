@@ -0,0 +1,72 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.aegean.icsd.engine.common.beans.EngineException;
+
+/**
+ * An entry of an index that is kept in memory and read from the store by the first caller that needs it.
+ * <p>
+ * The entry is registered in its index before it is read, so that no update is lost while it is read, and the other
+ * callers wait for the read. A failed read removes the entry from its index, so that the next caller reads it again.
+ */
+abstract class LazyIndexEntry {
+  private boolean loaded;
+  private EngineException error;
+
+  /**
+   * @return the entry of the key, which is created and read from the store if it is not in the index
+   */
+  static <E extends LazyIndexEntry> E get(ConcurrentMap<String, E> index, String key, Supplier<E> factory)
+    throws EngineException {
+    E entry = index.get(key);
+    if (entry == null) {
+      E created = factory.get();
+      entry = index.putIfAbsent(key, created);
+      if (entry == null) {
+        entry = created;
+        try {
+          entry.read();
+          entry.loaded(null);
+        } catch (EngineException e) {
+          index.remove(key, entry);
+          entry.loaded(e);
+          throw e;
+        }
+      }
+    }
+    entry.awaitLoad();
+    return entry;
+  }
+
+  /**
+   * Reads the entry from the store
+   */
+  abstract void read() throws EngineException;
+
+  /**
+   * @return the error of a caller that is interrupted while it waits for the read
+   */
+  abstract EngineException notLoaded(InterruptedException e);
+
+  synchronized void awaitLoad() throws EngineException {
+    while (!loaded && error == null) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw notLoaded(e);
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  synchronized void loaded(EngineException error) {
+    this.loaded = error == null;
+    this.error = error;
+    notifyAll();
+  }
+}
@@ -0,0 +1,166 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.core.interfaces.IAnnotationReader;
+import com.aegean.icsd.engine.generator.beans.ObjectCacheStats;
+
+/**
+ * Read-through cache of the objects that are selected by their data properties, keyed by the type of the objects
+ * and the values of the criteria. The number of the cached selections is bounded and the least recently used are
+ * evicted first. Every type is kept for its own TTL, and a type without a TTL is not cached.
+ * <p>
+ * All the selections of a type are invalidated when an object of the type is written. The relations between the
+ * objects are not part of the selections, so they don't invalidate any. A selection that is read from the store while
+ * its type is invalidated is not cached. The cached objects are never handed out, every
+ * read returns copies of them.
+ */
+class ObjectCache {
+  private final IAnnotationReader ano;
+  private final int maxEntries;
+  private final long defaultTtl;
+  private final Map<String, Long> ttls;
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  ObjectCache(IAnnotationReader ano, int maxEntries, long defaultTtl, Map<String, Long> ttls) {
+    this.ano = ano;
+    this.maxEntries = maxEntries;
+    this.defaultTtl = defaultTtl;
+    this.ttls = ttls;
+  }
+
+  <T extends BaseGameObject> List<T> get(Class<T> aClass, Map<String, Object> criteria, Loader<T> loader)
+    throws EngineException {
+    String type = ano.getEntityValue(aClass);
+    long ttl = ttls.getOrDefault(type, defaultTtl);
+    if (maxEntries <= 0 || ttl <= 0) {
+      return loader.load();
+    }
+
+    String key = getKey(type, criteria);
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    if (entry != null && System.currentTimeMillis() < entry.expiresAt) {
+      hits.increment();
+      return copy(aClass, entry.objects);
+    }
+
+    misses.increment();
+    long version = getVersion(type).get();
+    List<T> objects = loader.load();
+    synchronized (entries) {
+      if (getVersion(type).get() == version) {
+        entries.put(key, new Entry(type, copy(aClass, objects), System.currentTimeMillis() + ttl));
+        evict();
+      }
+    }
+    return objects;
+  }
+
+  /**
+   * Drops all the selections of the type
+   */
+  void invalidate(String type) {
+    synchronized (entries) {
+      getVersion(type).incrementAndGet();
+      Iterator<Entry> it = entries.values().iterator();
+      while (it.hasNext()) {
+        if (it.next().type.equals(type)) {
+          it.remove();
+          invalidations.increment();
+        }
+      }
+    }
+  }
+
+  ObjectCacheStats getStats() {
+    int size;
+    synchronized (entries) {
+      size = entries.size();
+    }
+    return new ObjectCacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size);
+  }
+
+  void evict() {
+    Iterator<Entry> it = entries.values().iterator();
+    long now = System.currentTimeMillis();
+    while (it.hasNext()) {
+      Entry entry = it.next();
+      if (entries.size() > maxEntries || now >= entry.expiresAt) {
+        it.remove();
+        evictions.increment();
+      } else {
+        break;
+      }
+    }
+  }
+
+  AtomicLong getVersion(String type) {
+    return versions.computeIfAbsent(type, x -> new AtomicLong());
+  }
+
+  String getKey(String type, Map<String, Object> criteria) {
+    Map<String, Object> sorted = new TreeMap<>();
+    for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+      if (entry.getValue() != null) {
+        sorted.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return type + sorted;
+  }
+
+  <T extends BaseGameObject> List<T> copy(Class<T> aClass, List<? extends BaseGameObject> objects)
+    throws EngineException {
+    List<T> copies = new ArrayList<>(objects.size());
+    for (BaseGameObject object : objects) {
+      T copy;
+      try {
+        copy = aClass.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw GeneratorExceptions.CannotCreateObject(aClass.getSimpleName());
+      }
+      for (Map.Entry<String, Object> property : ano.getDataProperties(object).entrySet()) {
+        if (property.getValue() != null) {
+          ano.setDataPropertyValue(copy, property.getKey(), property.getValue());
+        }
+      }
+      copies.add(copy);
+    }
+    return copies;
+  }
+
+  interface Loader<T extends BaseGameObject> {
+    List<T> load() throws EngineException;
+  }
+
+  static class Entry {
+    private final String type;
+    private final List<? extends BaseGameObject> objects;
+    private final long expiresAt;
+
+    Entry(String type, List<? extends BaseGameObject> objects, long expiresAt) {
+      this.type = type;
+      this.objects = objects;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.generator.dao.IGeneratorDao;
+
+/**
+ * Which objects are associated with the instances of an entity, such as a game, kept in memory so that the objects
+ * that are new for the entity are found without a MINUS query on the store.
+ * <p>
+ * The ids of the objects of every type are dictionary encoded. For every entity and object type the index keeps
+ * the objects of every instance as a sorted array of codes and the number of instances that are associated with every
+ * object. As with the store query, an object is new for the entity as long as some instance of it is not associated
+ * with the object.
+ * <p>
+ * Every entity and object type is read from the store the first time it is used and is then updated on every new
+ * instance, object and relation. All the updates are idempotent, so an update that is also read from the store
+ * is counted once. The index is not read at startup, since the pairs of entity and object type are only known once
+ * they are used, so the first sample of every pair after a restart pays for reading it.
+ */
+class ObjectUsageIndex {
+  private static final int[] EMPTY = new int[0];
+
+  private final IGeneratorDao dao;
+  private final ConcurrentMap<String, Catalogue> catalogues = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ConcurrentMap<String, Usage>> usages = new ConcurrentHashMap<>();
+
+  ObjectUsageIndex(IGeneratorDao dao) {
+    this.dao = dao;
+  }
+
+  /**
+   * @return the ids of the objects of the given type that are new for the entity
+   */
+  List<String> getNewObjectIds(String entity, String objectType) throws EngineException {
+    return getUsage(entity, objectType).getNewObjectIds();
+  }
+
+  void addInstance(String entity, String id) {
+    Map<String, Usage> entityUsages = usages.get(entity);
+    if (entityUsages != null) {
+      for (Usage usage : entityUsages.values()) {
+        usage.addInstance(id);
+      }
+    }
+  }
+
+  void addObject(String objectType, String id) {
+    Catalogue catalogue = catalogues.get(objectType);
+    if (catalogue != null) {
+      catalogue.encode(id);
+    }
+  }
+
+  void addRelation(String entity, String id, String objectType, String objectId) {
+    Map<String, Usage> entityUsages = usages.get(entity);
+    Usage usage = entityUsages == null ? null : entityUsages.get(objectType);
+    if (usage != null) {
+      usage.addRelation(id, objectId);
+    }
+  }
+
+  Usage getUsage(String entity, String objectType) throws EngineException {
+    Catalogue catalogue = getCatalogue(objectType);
+    return LazyIndexEntry.get(usages.computeIfAbsent(entity, x -> new ConcurrentHashMap<>()), objectType,
+      () -> new Usage(entity, objectType, catalogue));
+  }
+
+  Catalogue getCatalogue(String objectType) throws EngineException {
+    return LazyIndexEntry.get(catalogues, objectType, () -> new Catalogue(objectType));
+  }
+
+  class Catalogue extends LazyIndexEntry {
+    private final String objectType;
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+
+    Catalogue(String objectType) {
+      this.objectType = objectType;
+    }
+
+    @Override
+    void read() throws EngineException {
+      for (String id : dao.selectIdsOfType(objectType)) {
+        encode(id);
+      }
+    }
+
+    @Override
+    EngineException notLoaded(InterruptedException e) {
+      return GeneratorExceptions.UsageIndexNotLoaded(null, objectType, e);
+    }
+
+    synchronized int encode(String id) {
+      Integer code = codes.get(id);
+      if (code == null) {
+        code = ids.size();
+        codes.put(id, code);
+        ids.add(id);
+      }
+      return code;
+    }
+
+    synchronized List<String> decode(int[] usedBy, int instances) {
+      List<String> newIds = new ArrayList<>();
+      for (int code = 0; code < ids.size(); code++) {
+        int used = code < usedBy.length ? usedBy[code] : 0;
+        if (used < instances) {
+          newIds.add(ids.get(code));
+        }
+      }
+      return newIds;
+    }
+  }
+
+  class Usage extends LazyIndexEntry {
+    private final String entity;
+    private final String objectType;
+    private final Catalogue catalogue;
+    private final Map<String, int[]> instances = new HashMap<>();
+    private int[] usedBy = EMPTY;
+
+    Usage(String entity, String objectType, Catalogue catalogue) {
+      this.entity = entity;
+      this.objectType = objectType;
+      this.catalogue = catalogue;
+    }
+
+    @Override
+    void read() throws EngineException {
+      for (String id : dao.selectIdsOfType(entity)) {
+        addInstance(id);
+      }
+      for (Map.Entry<String, List<String>> entry : dao.selectAssociatedIds(entity, objectType).entrySet()) {
+        for (String objectId : entry.getValue()) {
+          addRelation(entry.getKey(), objectId);
+        }
+      }
+    }
+
+    @Override
+    EngineException notLoaded(InterruptedException e) {
+      return GeneratorExceptions.UsageIndexNotLoaded(entity, objectType, e);
+    }
+
+    synchronized void addInstance(String id) {
+      instances.putIfAbsent(id, EMPTY);
+    }
+
+    void addRelation(String id, String objectId) {
+      int code = catalogue.encode(objectId);
+      synchronized (this) {
+        int[] codes = instances.getOrDefault(id, EMPTY);
+        int pos = Arrays.binarySearch(codes, code);
+        if (pos >= 0) {
+          return;
+        }
+        int insertAt = -pos - 1;
+        int[] updated = new int[codes.length + 1];
+        System.arraycopy(codes, 0, updated, 0, insertAt);
+        updated[insertAt] = code;
+        System.arraycopy(codes, insertAt, updated, insertAt + 1, codes.length - insertAt);
+        instances.put(id, updated);
+
+        if (code >= usedBy.length) {
+          usedBy = Arrays.copyOf(usedBy, Math.max(code + 1, usedBy.length * 2));
+        }
+        usedBy[code]++;
+      }
+    }
+
+    synchronized List<String> getNewObjectIds() {
+      return catalogue.decode(usedBy, instances.size());
+    }
+  }
+}
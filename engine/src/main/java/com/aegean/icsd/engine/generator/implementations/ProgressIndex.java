@@ -0,0 +1,82 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.aegean.icsd.engine.common.beans.Difficulty;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.generator.dao.IGeneratorDao;
+
+/**
+ * The highest level of the games of every player, per game and difficulty, kept in memory so that the level of a new
+ * game is found without a query over all the games of its type.
+ * <p>
+ * Every game and difficulty is read from the store the first time it is used and is then updated on every game that
+ * is created or solved. The updates keep the highest level, so an update that is also read from the store is counted
+ * once.
+ */
+class ProgressIndex {
+  private final IGeneratorDao dao;
+  private final ConcurrentMap<String, Progress> progresses = new ConcurrentHashMap<>();
+
+  ProgressIndex(IGeneratorDao dao) {
+    this.dao = dao;
+  }
+
+  /**
+   * @return the highest level of the games of the player, or 0 if the player has no game
+   */
+  int getLastLevel(String gameName, Difficulty difficulty, String playerName) throws EngineException {
+    return getProgress(gameName, difficulty).getLastLevel(playerName);
+  }
+
+  void addGame(String gameName, Difficulty difficulty, String playerName, Integer level) {
+    if (playerName == null || level == null) {
+      return;
+    }
+    Progress progress = progresses.get(getKey(gameName, difficulty));
+    if (progress != null) {
+      progress.addLevel(playerName, level);
+    }
+  }
+
+  Progress getProgress(String gameName, Difficulty difficulty) throws EngineException {
+    return LazyIndexEntry.get(progresses, getKey(gameName, difficulty), () -> new Progress(gameName, difficulty));
+  }
+
+  String getKey(String gameName, Difficulty difficulty) {
+    return gameName + "_" + difficulty.name();
+  }
+
+  class Progress extends LazyIndexEntry {
+    private final String gameName;
+    private final Difficulty difficulty;
+    private final ConcurrentMap<String, Integer> levels = new ConcurrentHashMap<>();
+
+    Progress(String gameName, Difficulty difficulty) {
+      this.gameName = gameName;
+      this.difficulty = difficulty;
+    }
+
+    @Override
+    void read() throws EngineException {
+      for (Map.Entry<String, Integer> entry : dao.selectLastLevels(gameName, difficulty).entrySet()) {
+        addLevel(entry.getKey(), entry.getValue());
+      }
+    }
+
+    @Override
+    EngineException notLoaded(InterruptedException e) {
+      return GeneratorExceptions.ProgressIndexNotLoaded(gameName, e);
+    }
+
+    void addLevel(String playerName, int level) {
+      levels.merge(playerName, level, Math::max);
+    }
+
+    int getLastLevel(String playerName) {
+      return levels.getOrDefault(playerName, 0);
+    }
+  }
+}
@@ -1,11 +1,15 @@
 package com.aegean.icsd.engine.generator.interfaces;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.aegean.icsd.engine.common.beans.Difficulty;
 import com.aegean.icsd.engine.common.beans.EngineException;
 import com.aegean.icsd.engine.common.beans.BaseGame;
 import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.generator.beans.GamePage;
+import com.aegean.icsd.engine.generator.beans.ObjectCacheStats;
+import com.aegean.icsd.engine.generator.beans.ObjectRelation;
 import com.aegean.icsd.engine.rules.beans.EntityProperty;
 import com.aegean.icsd.engine.rules.beans.ValueRangeRestriction;
 
@@ -13,12 +17,62 @@ public interface IGenerator {
 
   <GAME_OBJECT extends BaseGameObject> List<GAME_OBJECT> selectGameObject(GAME_OBJECT criteria) throws EngineException;
 
+  /**
+   * @return the statistics of the cache of {@link #selectGameObject(BaseGameObject)}
+   */
+  ObjectCacheStats getObjectCacheStats();
+
+  /**
+   * Selects the objects with the given ids with a single query.
+   *
+   * @return the objects in the order of the ids. Ids without an object are skipped.
+   */
+  <GAME_OBJECT extends BaseGameObject> List<GAME_OBJECT> selectGameObjects(Class<GAME_OBJECT> aClass,
+    Collection<String> ids) throws EngineException;
+
+  /**
+   * Selects at most count objects in random order that match the criteria and are new for the entity.
+   * With the usage index, the objects are picked in memory and only the picked ones are read.
+   *
+   * @param newFor the entity, such as a game. An object is new for it when some of its instances are not associated
+   *               with the object
+   */
+  <GAME_OBJECT extends BaseGameObject> List<GAME_OBJECT> selectRandomGameObjects(GAME_OBJECT criteria, String newFor,
+    int count) throws EngineException;
+
   <GAME extends BaseGame> List<GAME> selectGame(GAME criteria) throws EngineException;
 
+  /**
+   * Selects a page of the games that match the criteria, ordered by id
+   *
+   * @param completed if set, only the completed or the not completed games are selected
+   * @param cursor the cursor of the page, as returned with the previous page, or null for the first page
+   * @param limit the maximum number of games of the page
+   */
+  <GAME extends BaseGame> GamePage<GAME> selectGamePage(GAME criteria, Boolean completed, String cursor, int limit)
+    throws EngineException;
+
+  /**
+   * Selects the games that match the criteria and have no player yet, such as the games that are generated before
+   * any player asks for them
+   */
+  <GAME extends BaseGame> List<GAME> selectGamesWithoutPlayer(GAME criteria) throws EngineException;
+
   <GAME extends BaseGame> String upsertGame(GAME game) throws EngineException;
 
   <GAME_OBJECT extends BaseGameObject> String upsertGameObject(GAME_OBJECT gameObject) throws EngineException;
 
+  /**
+   * Writes the objects with batched updates, for bulk imports. Unlike {@link #upsertGameObject(BaseGameObject)}
+   * the ids are set locally, so the objects must have been deduplicated by the caller.
+   */
+  <GAME_OBJECT extends BaseGameObject> void upsertGameObjects(Collection<GAME_OBJECT> objects) throws EngineException;
+
+  /**
+   * Creates the relations with batched updates, for bulk imports. Every property is validated once per entity.
+   */
+  void createObjRelations(Collection<ObjectRelation> relations) throws EngineException;
+
   <GAME extends BaseGame, GAME_OBJECT extends BaseGameObject> boolean createObjRelation(GAME thisGame, GAME_OBJECT thatObj, EntityProperty onProperty) throws EngineException;
 
   <GAME_OBJECT extends BaseGameObject> boolean createObjRelation(GAME_OBJECT thisObj, GAME_OBJECT thatObj, EntityProperty onProperty) throws EngineException;
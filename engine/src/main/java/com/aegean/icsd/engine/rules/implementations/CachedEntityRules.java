@@ -0,0 +1,57 @@
+package com.aegean.icsd.engine.rules.implementations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aegean.icsd.engine.rules.beans.EntityProperty;
+import com.aegean.icsd.engine.rules.beans.EntityRestriction;
+import com.aegean.icsd.engine.rules.beans.EntityRules;
+
+/**
+ * The rules of an entity as they are kept in the cache of {@link Rules}, indexed by property name.
+ * The cached objects are shared between callers and must never be modified.
+ */
+class CachedEntityRules {
+  private final EntityRules rules;
+  private final Map<String, List<EntityRestriction>> restrictionsByProperty;
+  private final Map<String, EntityProperty> propertiesByName;
+
+  CachedEntityRules(EntityRules rules) {
+    Map<String, List<EntityRestriction>> restrictions = new HashMap<>();
+    for (EntityRestriction restriction : rules.getRestrictions()) {
+      if (restriction.getOnProperty() != null) {
+        restrictions.computeIfAbsent(restriction.getOnProperty().getName(), x -> new ArrayList<>()).add(restriction);
+      }
+    }
+    restrictions.replaceAll((name, list) -> Collections.unmodifiableList(list));
+
+    Map<String, EntityProperty> properties = new HashMap<>();
+    for (EntityProperty property : rules.getProperties()) {
+      properties.putIfAbsent(property.getName(), property);
+    }
+
+    EntityRules readOnly = new EntityRules();
+    readOnly.setName(rules.getName());
+    readOnly.setRestrictions(Collections.unmodifiableList(new ArrayList<>(rules.getRestrictions())));
+    readOnly.setProperties(Collections.unmodifiableList(new ArrayList<>(rules.getProperties())));
+
+    this.rules = readOnly;
+    this.restrictionsByProperty = Collections.unmodifiableMap(restrictions);
+    this.propertiesByName = Collections.unmodifiableMap(properties);
+  }
+
+  EntityRules getRules() {
+    return rules;
+  }
+
+  List<EntityRestriction> getRestrictions(String propertyName) {
+    return restrictionsByProperty.getOrDefault(propertyName, Collections.emptyList());
+  }
+
+  EntityProperty getProperty(String propertyName) {
+    return propertiesByName.get(propertyName);
+  }
+}
@@ -2,6 +2,8 @@ package com.aegean.icsd.engine.rules.implementations;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -40,6 +42,8 @@ public class Rules implements IRules {
   @Autowired
   private IAnnotationReader ano;
 
+  private final ConcurrentMap<String, CachedEntityRules> cache = new ConcurrentHashMap<>();
+
   @Override
   public EntityRules getGameRules(String gameName, Difficulty difficulty) throws RulesException {
     String entityName = Utils.getFullGameName(gameName, difficulty);
@@ -48,6 +52,22 @@ public class Rules implements IRules {
 
   @Override
   public EntityRules getEntityRules(String entityName) throws RulesException {
+    return getCachedRules(entityName).getRules();
+  }
+
+  CachedEntityRules getCachedRules(String entityName) throws RulesException {
+    CachedEntityRules cached = cache.get(entityName);
+    if (cached == null) {
+      cached = new CachedEntityRules(readEntityRules(entityName));
+      CachedEntityRules existing = cache.putIfAbsent(entityName, cached);
+      if (existing != null) {
+        cached = existing;
+      }
+    }
+    return cached;
+  }
+
+  EntityRules readEntityRules(String entityName) throws RulesException {
     LOGGER.info(String.format("Retrieving rules for %s", entityName));
 
     ClassSchema entitySchema;
@@ -96,11 +116,12 @@ public class Rules implements IRules {
   @Override
   public EntityRestriction getEntityRestriction(String entityName, String restrictionName) throws RulesException {
     LOGGER.info(String.format("Retrieving restriction %s of %s", restrictionName, entityName));
-    EntityRules rules = getEntityRules(entityName);
+    CachedEntityRules rules = getCachedRules(entityName);
     EntityRestriction er;
 
-    List<EntityRestriction> restrictions = rules.getRestrictions().stream()
-      .filter(x -> restrictionName.equals(x.getOnProperty().getName()))
+    // the cached restrictions are shared, so the resolution below works on copies of them
+    List<EntityRestriction> restrictions = rules.getRestrictions(restrictionName).stream()
+      .map(this::copyRestriction)
       .collect(Collectors.toList());
 
     EntityRestriction only = restrictions.stream()
@@ -149,8 +170,8 @@ public class Rules implements IRules {
     if (er != null && er.getOnProperty() != null) {
       String parentName = er.getOnProperty().getParent();
       if (parentName != null) {
-        EntityRestriction parentOverride = rules.getRestrictions().stream()
-          .filter(x -> parentName.equals(x.getOnProperty().getName()) && RestrictionType.ONLY.equals(x.getType()))
+        EntityRestriction parentOverride = rules.getRestrictions(parentName).stream()
+          .filter(x -> RestrictionType.ONLY.equals(x.getType()))
           .findFirst()
           .orElse(null);
 
@@ -167,19 +188,7 @@ public class Rules implements IRules {
   public EntityProperty getProperty(String entityName, String propertyName) throws RulesException {
     LOGGER.info(String.format("Retrieving property %s for %s", propertyName, entityName));
 
-    ClassSchema entitySchema;
-    try {
-      entitySchema = model.getClassSchema(entityName);
-    } catch (OntologyException e) {
-      throw RulesExceptions.CannotRetrieveClassSchema(entityName, e);
-    }
-
-    List<EntityProperty> properties = getEntityProperties(entitySchema.getProperties());
-
-    EntityProperty requestedProperty = properties.stream()
-      .filter(x -> propertyName.equals(x.getName()))
-      .findFirst()
-      .orElse(null);
+    EntityProperty requestedProperty = getCachedRules(entityName).getProperty(propertyName);
 
     if (requestedProperty == null) {
       throw RulesExceptions.CannotFindProperty(propertyName, entityName);
@@ -212,6 +221,15 @@ public class Rules implements IRules {
   }
 
 
+  EntityRestriction copyRestriction(EntityRestriction restriction) {
+    EntityRestriction copy = new EntityRestriction();
+    copy.setOnProperty(restriction.getOnProperty());
+    copy.setType(restriction.getType());
+    copy.setCardinality(restriction.getCardinality());
+    copy.setDataRange(restriction.getDataRange());
+    return copy;
+  }
+
   EntityProperty getEntityProperty(PropertySchema prop) {
     EntityProperty property = new EntityProperty();
     property.setName(prop.getName());
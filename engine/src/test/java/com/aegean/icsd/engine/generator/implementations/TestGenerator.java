@@ -0,0 +1,136 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.core.annotations.DataProperty;
+import com.aegean.icsd.engine.core.annotations.Entity;
+import com.aegean.icsd.engine.core.implementation.AnnotationReader;
+import com.aegean.icsd.engine.generator.dao.IGeneratorDao;
+import com.aegean.icsd.ontology.beans.DatasetProperties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestGenerator {
+  private static final String TYPE = "SampledObject";
+  private static final String GAME = "Game_EASY";
+
+  @InjectMocks
+  private Generator generator;
+
+  @Mock
+  private IGeneratorDao dao;
+
+  @Mock
+  private DatasetProperties ontologyProps;
+
+  @Spy
+  private AnnotationReader ano = new AnnotationReader();
+
+  private final List<Integer> requested = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() throws EngineException {
+    given(ontologyProps.isUsageIndex()).willReturn(true);
+    generator.setupUsageIndex();
+    given(dao.selectIdsOfType(TYPE)).willReturn(Arrays.asList("o1", "o2", "o3", "o4", "o5", "o6", "o7", "o8"));
+    given(dao.selectIdsOfType(GAME)).willReturn(Collections.singletonList("g1"));
+  }
+
+  @Test
+  public void testSampleOfNewObjects() throws EngineException {
+    givenUsed("o1", "o2");
+    given(dao.selectGameObjects(any(), eq(SampledObject.class), anyCollection()))
+      .willAnswer(invocation -> select(invocation.getArgument(2), Arrays.asList("o3", "o4", "o5", "o6", "o7", "o8")));
+
+    List<SampledObject> sample = generator.selectRandomGameObjects(new SampledObject(), GAME, 3);
+    Assertions.assertEquals(3, sample.size());
+    Assertions.assertEquals(3, sample.stream().map(SampledObject::getId).distinct().count());
+    Assertions.assertEquals(Collections.singletonList(3), requested);
+  }
+
+  @Test
+  public void testSampleIsToppedUp() throws EngineException {
+    givenUsed("o1", "o2");
+    List<String> matching = Arrays.asList("o4", "o6", "o8");
+    given(dao.selectGameObjects(any(), eq(SampledObject.class), anyCollection()))
+      .willAnswer(invocation -> select(invocation.getArgument(2), matching));
+
+    List<SampledObject> sample = generator.selectRandomGameObjects(new SampledObject(), GAME, 3);
+    Assertions.assertEquals(new HashSet<>(matching),
+      sample.stream().map(SampledObject::getId).collect(Collectors.toSet()));
+    Assertions.assertTrue(requested.stream().mapToInt(Integer::intValue).sum() <= 6);
+
+    requested.clear();
+    Assertions.assertEquals(3, generator.selectRandomGameObjects(new SampledObject(), GAME, 5).size());
+    Assertions.assertEquals(6, requested.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void testNoNewObjects() throws EngineException {
+    givenUsed("o1", "o2", "o3", "o4", "o5", "o6", "o7", "o8");
+
+    Assertions.assertTrue(generator.selectRandomGameObjects(new SampledObject(), GAME, 3).isEmpty());
+    verify(dao, never()).selectGameObjects(any(), eq(SampledObject.class), anyCollection());
+  }
+
+  void givenUsed(String... ids) throws EngineException {
+    given(dao.selectAssociatedIds(GAME, TYPE)).willReturn(Collections.singletonMap("g1", Arrays.asList(ids)));
+  }
+
+  List<SampledObject> select(Collection<String> ids, List<String> matching) {
+    requested.add(ids.size());
+    Set<String> unique = new HashSet<>(ids);
+    Assertions.assertEquals(ids.size(), unique.size());
+    List<SampledObject> objects = new ArrayList<>();
+    for (String id : ids) {
+      Assertions.assertFalse(id.equals("o1") || id.equals("o2"));
+      if (matching.contains(id)) {
+        SampledObject object = new SampledObject();
+        object.setId(id);
+        objects.add(object);
+      }
+    }
+    return objects;
+  }
+
+  @Entity(TYPE)
+  public static class SampledObject extends BaseGameObject {
+    @DataProperty("hasValue")
+    private String value;
+
+    public String getValue() {
+      return value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.core.annotations.DataProperty;
+import com.aegean.icsd.engine.core.annotations.Entity;
+import com.aegean.icsd.engine.core.implementation.AnnotationReader;
+import com.aegean.icsd.engine.generator.beans.ObjectCacheStats;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestObjectCache {
+  private static final String TYPE = "CachedObject";
+
+  @Test
+  public void testCopies() throws EngineException {
+    ObjectCache cache = createCache(10, 60000);
+    List<CachedObject> loaded = cache.get(CachedObject.class, criteria("a"), () -> load("a"));
+    loaded.get(0).setValue("changed");
+
+    List<CachedObject> cached = cache.get(CachedObject.class, criteria("a"), () -> load("other"));
+    Assertions.assertEquals("a", cached.get(0).getValue());
+    Assertions.assertEquals("a_id", cached.get(0).getId());
+    cached.get(0).setValue("changed");
+    Assertions.assertEquals("a", cache.get(CachedObject.class, criteria("a"), () -> load("other")).get(0).getValue());
+
+    ObjectCacheStats stats = cache.getStats();
+    Assertions.assertEquals(2, stats.getHits());
+    Assertions.assertEquals(1, stats.getMisses());
+  }
+
+  @Test
+  public void testTtl() throws EngineException, InterruptedException {
+    AtomicInteger loads = new AtomicInteger();
+    ObjectCache cache = createCache(10, 1);
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Thread.sleep(10);
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Assertions.assertEquals(2, loads.get());
+
+    ObjectCache uncached = createCache(10, 0);
+    uncached.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    uncached.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Assertions.assertEquals(4, loads.get());
+    Assertions.assertEquals(0, uncached.getStats().getSize());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() throws EngineException {
+    AtomicInteger loads = new AtomicInteger();
+    ObjectCache cache = createCache(2, 60000);
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    cache.get(CachedObject.class, criteria("b"), () -> count(loads, "b"));
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    cache.get(CachedObject.class, criteria("c"), () -> count(loads, "c"));
+    Assertions.assertEquals(3, loads.get());
+
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Assertions.assertEquals(3, loads.get());
+    cache.get(CachedObject.class, criteria("b"), () -> count(loads, "b"));
+    Assertions.assertEquals(4, loads.get());
+    Assertions.assertEquals(2, cache.getStats().getSize());
+    Assertions.assertEquals(2, cache.getStats().getEvictions());
+  }
+
+  @Test
+  public void testInvalidationDuringLoad() throws EngineException {
+    AtomicInteger loads = new AtomicInteger();
+    ObjectCache cache = createCache(10, 60000);
+    cache.get(CachedObject.class, criteria("a"), () -> {
+      cache.invalidate(TYPE);
+      return count(loads, "a");
+    });
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Assertions.assertEquals(2, loads.get());
+
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Assertions.assertEquals(2, loads.get());
+    cache.invalidate(TYPE);
+    cache.get(CachedObject.class, criteria("a"), () -> count(loads, "a"));
+    Assertions.assertEquals(3, loads.get());
+    Assertions.assertEquals(1, cache.getStats().getInvalidations());
+  }
+
+  ObjectCache createCache(int maxEntries, long ttl) {
+    return new ObjectCache(new AnnotationReader(), maxEntries, 0, Collections.singletonMap(TYPE, ttl));
+  }
+
+  Map<String, Object> criteria(String value) {
+    Map<String, Object> criteria = new HashMap<>();
+    criteria.put("hasValue", value);
+    criteria.put("hasId", null);
+    return criteria;
+  }
+
+  List<CachedObject> count(AtomicInteger loads, String value) {
+    loads.incrementAndGet();
+    return load(value);
+  }
+
+  List<CachedObject> load(String value) {
+    CachedObject object = new CachedObject();
+    object.setId(value + "_id");
+    object.setValue(value);
+    return Collections.singletonList(object);
+  }
+
+  @Entity(TYPE)
+  public static class CachedObject extends BaseGameObject {
+    @DataProperty("hasValue")
+    private String value;
+
+    public String getValue() {
+      return value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+  }
+}
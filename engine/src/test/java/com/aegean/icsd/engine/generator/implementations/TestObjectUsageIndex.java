@@ -0,0 +1,83 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.generator.dao.IGeneratorDao;
+
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestObjectUsageIndex {
+
+  @Mock
+  private IGeneratorDao dao;
+
+  @Test
+  public void testNewObjects() throws EngineException {
+    ObjectUsageIndex index = new ObjectUsageIndex(dao);
+    given(dao.selectIdsOfType("Word")).willReturn(Arrays.asList("w1", "w2", "w3", "w4"));
+    given(dao.selectIdsOfType("Game_EASY")).willReturn(Arrays.asList("g1", "g2"));
+    Map<String, List<String>> associated = new HashMap<>();
+    associated.put("g1", Arrays.asList("w1", "w2"));
+    associated.put("g2", Arrays.asList("w1", "w3"));
+    given(dao.selectAssociatedIds("Game_EASY", "Word")).willReturn(associated);
+
+    Assertions.assertEquals(Arrays.asList("w2", "w3", "w4"), index.getNewObjectIds("Game_EASY", "Word"));
+
+    index.addRelation("Game_EASY", "g1", "Word", "w3");
+    index.addObject("Word", "w5");
+    Assertions.assertEquals(Arrays.asList("w2", "w4", "w5"), index.getNewObjectIds("Game_EASY", "Word"));
+
+    index.addInstance("Game_EASY", "g3");
+    Assertions.assertEquals(Arrays.asList("w1", "w2", "w3", "w4", "w5"),
+      index.getNewObjectIds("Game_EASY", "Word"));
+  }
+
+  @Test
+  public void testUpdatesDuringLoad() throws EngineException {
+    ObjectUsageIndex index = new ObjectUsageIndex(dao);
+    given(dao.selectIdsOfType("Word")).willAnswer(invocation -> {
+      index.addObject("Word", "w2");
+      index.addObject("Word", "w3");
+      return Arrays.asList("w1", "w2");
+    });
+    given(dao.selectIdsOfType("Game_EASY")).willAnswer(invocation -> {
+      index.addInstance("Game_EASY", "g2");
+      index.addRelation("Game_EASY", "g2", "Word", "w1");
+      return Collections.singletonList("g1");
+    });
+    Map<String, List<String>> associated = new HashMap<>();
+    associated.put("g1", Arrays.asList("w1", "w2"));
+    associated.put("g2", Collections.singletonList("w1"));
+    given(dao.selectAssociatedIds("Game_EASY", "Word")).willReturn(associated);
+
+    Assertions.assertEquals(Arrays.asList("w2", "w3"), index.getNewObjectIds("Game_EASY", "Word"));
+  }
+
+  @Test
+  public void testFailedLoadIsRetried() throws EngineException {
+    ObjectUsageIndex index = new ObjectUsageIndex(dao);
+    given(dao.selectIdsOfType("Word"))
+      .willThrow(new EngineException("TEST.1", "Unavailable"))
+      .willReturn(Collections.singletonList("w1"));
+    given(dao.selectIdsOfType("Game_EASY")).willReturn(Collections.singletonList("g1"));
+    given(dao.selectAssociatedIds("Game_EASY", "Word")).willReturn(new HashMap<>());
+
+    Assertions.assertThrows(EngineException.class, () -> index.getNewObjectIds("Game_EASY", "Word"));
+    Assertions.assertEquals(Collections.singletonList("w1"), index.getNewObjectIds("Game_EASY", "Word"));
+  }
+}
@@ -0,0 +1,115 @@
+package com.aegean.icsd.engine.generator.implementations;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aegean.icsd.engine.common.beans.Difficulty;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.generator.dao.IGeneratorDao;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestProgressIndex {
+
+  @Mock
+  private IGeneratorDao dao;
+
+  @Test
+  public void testLastLevels() throws EngineException {
+    ProgressIndex index = new ProgressIndex(dao);
+    Map<String, Integer> levels = new HashMap<>();
+    levels.put("p1", 3);
+    levels.put("p2", 1);
+    given(dao.selectLastLevels("EasySynonyms", Difficulty.EASY)).willReturn(levels);
+    given(dao.selectLastLevels("HardSynonyms", Difficulty.HARD)).willReturn(new HashMap<>());
+
+    Assertions.assertEquals(3, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p1"));
+    Assertions.assertEquals(0, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p3"));
+    Assertions.assertEquals(0, index.getLastLevel("HardSynonyms", Difficulty.HARD, "p1"));
+
+    index.addGame("EasySynonyms", Difficulty.EASY, "p1", 4);
+    index.addGame("EasySynonyms", Difficulty.EASY, "p2", 1);
+    index.addGame("EasySynonyms", Difficulty.EASY, null, null);
+    index.addGame("MediumSynonyms", Difficulty.MEDIUM, "p1", 7);
+    Assertions.assertEquals(4, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p1"));
+    Assertions.assertEquals(1, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p2"));
+    verify(dao, times(1)).selectLastLevels("EasySynonyms", Difficulty.EASY);
+  }
+
+  @Test
+  public void testUpdatesDuringLoad() throws EngineException {
+    ProgressIndex index = new ProgressIndex(dao);
+    given(dao.selectLastLevels("EasySynonyms", Difficulty.EASY)).willAnswer(invocation -> {
+      index.addGame("EasySynonyms", Difficulty.EASY, "p1", 5);
+      index.addGame("EasySynonyms", Difficulty.EASY, "p2", 2);
+      return Collections.singletonMap("p1", 4);
+    });
+
+    Assertions.assertEquals(5, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p1"));
+    Assertions.assertEquals(2, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p2"));
+  }
+
+  @Test
+  public void testConcurrentCallersWaitForLoad() throws Throwable {
+    ProgressIndex index = new ProgressIndex(dao);
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    given(dao.selectLastLevels("EasySynonyms", Difficulty.EASY)).willAnswer(invocation -> {
+      reading.countDown();
+      release.await();
+      return Collections.singletonMap("p1", 2);
+    });
+
+    Callable<Integer> lastLevel = () -> {
+      try {
+        return index.getLastLevel("EasySynonyms", Difficulty.EASY, "p1");
+      } catch (EngineException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> first = executor.submit(lastLevel);
+      Assertions.assertTrue(reading.await(10, TimeUnit.SECONDS));
+      Future<Integer> second = executor.submit(lastLevel);
+      release.countDown();
+      Assertions.assertEquals(2, first.get(10, TimeUnit.SECONDS));
+      Assertions.assertEquals(2, second.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(dao, times(1)).selectLastLevels("EasySynonyms", Difficulty.EASY);
+  }
+
+  @Test
+  public void testFailedLoadIsRetried() throws EngineException {
+    ProgressIndex index = new ProgressIndex(dao);
+    given(dao.selectLastLevels("EasySynonyms", Difficulty.EASY))
+      .willThrow(new EngineException("TEST.1", "Unavailable"))
+      .willReturn(Collections.singletonMap("p1", 2));
+
+    Assertions.assertThrows(EngineException.class,
+      () -> index.getLastLevel("EasySynonyms", Difficulty.EASY, "p1"));
+    index.addGame("EasySynonyms", Difficulty.EASY, "p1", 3);
+    Assertions.assertEquals(2, index.getLastLevel("EasySynonyms", Difficulty.EASY, "p1"));
+  }
+}
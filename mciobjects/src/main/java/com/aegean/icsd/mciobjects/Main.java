@@ -1,5 +1,7 @@
 package com.aegean.icsd.mciobjects;
 
+import java.util.Arrays;
+
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
@@ -13,7 +15,11 @@ public class Main {
       EngineConfiguration.class,
       OntologyConfiguration.class);
 
-    ObjectsInitiator init = ctx.getBean(ObjectsInitiator.class);
-    init.setupObjects();
+    if (Arrays.asList(args).contains("--bulk")) {
+      ctx.getBean(ObjectsBulkLoader.class).load();
+    } else {
+      ObjectsInitiator init = ctx.getBean(ObjectsInitiator.class);
+      init.setupObjects();
+    }
   }
 }
@@ -21,6 +21,7 @@ import com.aegean.icsd.engine.rules.interfaces.IRules;
 import com.aegean.icsd.mciobjects.blocks.beans.Block;
 import com.aegean.icsd.mciobjects.blocks.beans.BlockSet;
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
+import com.aegean.icsd.mciobjects.common.configuration.FileConfiguration;
 import com.aegean.icsd.mciobjects.common.implementations.ProviderExceptions;
 import com.aegean.icsd.mciobjects.images.beans.Image;
 import com.aegean.icsd.mciobjects.images.configuration.ImageConfiguration;
@@ -37,7 +38,8 @@ import com.aegean.icsd.mciobjects.words.configuration.WordConfiguration;
   @PropertySource("classpath:com/aegean/icsd/mciobjects/providers/words.properties"),
   @PropertySource("classpath:com/aegean/icsd/mciobjects/providers/images.properties"),
   @PropertySource("classpath:com/aegean/icsd/mciobjects/providers/sounds.properties"),
-  @PropertySource("classpath:com/aegean/icsd/mciobjects/providers/questions.properties")
+  @PropertySource("classpath:com/aegean/icsd/mciobjects/providers/questions.properties"),
+  @PropertySource("classpath:com/aegean/icsd/mciobjects/providers/files.properties")
 })
 public class MciObjectsConfiguration {
   private static final Logger LOGGER = LogManager.getLogger(MciObjectsConfiguration.class);
@@ -194,6 +196,9 @@ public class MciObjectsConfiguration {
     config.setTitleIndex(Integer.parseInt(getPropertyValue("image.index.title")));
     config.setSubjectIndex(Integer.parseInt(getPropertyValue("image.index.subject")));
     config.setParentIndex(Integer.parseInt(getPropertyValue("image.index.parentImage")));
+    config.setCacheDir(getPropertyValue("image.cache.dir"));
+    config.setCacheMaxSize(Long.parseLong(getPropertyValue("image.cache.maxSize")));
+    config.setSourceCacheMaxSize(Long.parseLong(getPropertyValue("image.sourceCache.maxSize")));
     return config;
   }
 
@@ -223,6 +228,13 @@ public class MciObjectsConfiguration {
     return config;
   }
 
+  @Bean
+  public FileConfiguration getFileConfiguration() {
+    FileConfiguration config = new FileConfiguration();
+    config.setCacheDir(getPropertyValue("files.cacheDir"));
+    config.setRevalidateAfter(Long.parseLong(getPropertyValue("files.revalidateAfter")));
+    return config;
+  }
 
   private String getPropertyValue (String propertyName) {
     String value = env.getProperty(propertyName);
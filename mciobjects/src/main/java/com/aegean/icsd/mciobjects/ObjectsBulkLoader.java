@@ -0,0 +1,314 @@
+package com.aegean.icsd.mciobjects;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.generator.beans.ObjectRelation;
+import com.aegean.icsd.engine.generator.interfaces.IGenerator;
+import com.aegean.icsd.engine.rules.beans.EntityProperty;
+import com.aegean.icsd.engine.rules.beans.EntityRestriction;
+import com.aegean.icsd.engine.rules.beans.RulesException;
+import com.aegean.icsd.engine.rules.interfaces.IRules;
+import com.aegean.icsd.mciobjects.common.beans.ProviderException;
+import com.aegean.icsd.mciobjects.common.implementations.ProviderExceptions;
+import com.aegean.icsd.mciobjects.common.interfaces.IObjectFileProvider;
+import com.aegean.icsd.mciobjects.images.beans.Image;
+import com.aegean.icsd.mciobjects.images.configuration.ImageConfiguration;
+import com.aegean.icsd.mciobjects.sounds.beans.Sound;
+import com.aegean.icsd.mciobjects.sounds.configurations.SoundConfiguration;
+import com.aegean.icsd.mciobjects.words.beans.Word;
+import com.aegean.icsd.mciobjects.words.configuration.WordConfiguration;
+
+/**
+ * Bulk counterpart of {@link ObjectsInitiator}. The files are read in parallel and the objects are deduplicated
+ * in memory, so that every object and relation is resolved locally and written to the knowledge base with batched
+ * updates, instead of a select and an insert per line.
+ * <p>
+ * The words have their value as id, while the sounds and images that are already in the knowledge base are read
+ * once and matched by path, so that the import can be repeated. Every image and every sound is associated with a
+ * random sound and image of the same subject, if there is one.
+ */
+@Component
+public class ObjectsBulkLoader {
+  private static Logger LOGGER = Logger.getLogger(ObjectsBulkLoader.class);
+
+  @Autowired
+  private WordConfiguration wordConfig;
+
+  @Autowired
+  private ImageConfiguration imageConfig;
+
+  @Autowired
+  private SoundConfiguration soundConfig;
+
+  @Autowired
+  private Map<String, EntityRestriction> initializerRules;
+
+  @Autowired
+  private IGenerator generator;
+
+  @Autowired
+  private IObjectFileProvider fileProvider;
+
+  @Autowired
+  private IRules rules;
+
+  void load() throws ProviderException {
+    long start = System.currentTimeMillis();
+    EntityProperty hasAssociatedImage;
+    try {
+      hasAssociatedImage = rules.getProperty(Sound.NAME, "hasAssociatedImage");
+    } catch (RulesException e) {
+      throw ProviderExceptions.UnableToRetrieveRules(Sound.NAME, e);
+    }
+
+    CompletableFuture<List<String>> wordLines = readLines(wordConfig.getLocation() + "/" + wordConfig.getFilename());
+    CompletableFuture<List<String>> soundLines = readLines(soundConfig.getLocation() + "/" + soundConfig.getFilename());
+    CompletableFuture<List<String>> imageLines = readLines(imageConfig.getLocation() + "/" + imageConfig.getFilename());
+    CompletableFuture<Map<String, Sound>> existingSounds = selectExisting(new Sound(), Sound::getPath);
+    CompletableFuture<Map<String, Image>> existingImages = selectExisting(new Image(), Image::getPath);
+
+    Batch batch = new Batch();
+    parseWords(batch, await(wordLines));
+    parseSounds(batch, await(soundLines), await(existingSounds));
+    parseImages(batch, await(imageLines), await(existingImages));
+    associateSounds(batch, hasAssociatedImage);
+    LOGGER.info(String.format("Parsed %d words, %d sounds, %d images and %d relations in %d ms",
+      batch.words.size(), batch.sounds.size(), batch.images.size(), batch.relations.size(),
+      System.currentTimeMillis() - start));
+
+    upsert(Word.NAME, batch.words.values());
+    CompletableFuture<Void> soundsWritten =
+      CompletableFuture.runAsync(() -> upsertAsync(Sound.NAME, batch.sounds.values()));
+    CompletableFuture<Void> imagesWritten =
+      CompletableFuture.runAsync(() -> upsertAsync(Image.NAME, batch.images.values()));
+    await(soundsWritten);
+    await(imagesWritten);
+
+    long relationsStart = System.currentTimeMillis();
+    try {
+      generator.createObjRelations(batch.relations);
+    } catch (EngineException e) {
+      throw ProviderExceptions.GenerationError(Word.NAME, e);
+    }
+    LOGGER.info(String.format("Created %d relations in %d ms", batch.relations.size(),
+      System.currentTimeMillis() - relationsStart));
+    LOGGER.info(String.format("Bulk import finished in %d ms", System.currentTimeMillis() - start));
+  }
+
+  void parseWords(Batch batch, List<String> lines) {
+    EntityProperty synonymProperty = initializerRules.get("synonymRes").getOnProperty();
+    EntityProperty antonymProperty = initializerRules.get("antonymRes").getOnProperty();
+    for (String line : lines) {
+      String[] fragments = line.split(wordConfig.getDelimiter());
+      if (fragments.length == 1) {
+        continue;
+      }
+
+      Word value = batch.getWord(fragments[wordConfig.getValueIndex()]);
+      String antonymRaw = fragments[wordConfig.getAntonymIndex()];
+      String synonymRaw = fragments[wordConfig.getSynonymIndex()];
+
+      if (!StringUtils.isEmpty(antonymRaw)) {
+        for (String antonym : antonymRaw.split(wordConfig.getAntonymDelimiter())) {
+          Word antonymWord = batch.getWord(antonym);
+          antonymWord.setAntonym(true);
+          value.setAntonym(true);
+          batch.relations.add(new ObjectRelation(value, antonymWord, antonymProperty));
+        }
+      }
+
+      if (!StringUtils.isEmpty(synonymRaw)) {
+        for (String synonym : synonymRaw.split(wordConfig.getSynonymDelimiter())) {
+          Word synonymWord = batch.getWord(synonym);
+          synonymWord.setSynonym(true);
+          value.setSynonym(true);
+          batch.relations.add(new ObjectRelation(value, synonymWord, synonymProperty));
+        }
+      }
+    }
+  }
+
+  void parseSounds(Batch batch, List<String> lines, Map<String, Sound> existing) {
+    EntityProperty subjectProperty = initializerRules.get("soundSubjRes").getOnProperty();
+    for (String line : lines) {
+      String[] fragments = line.split(soundConfig.getDelimiter());
+      String url = fragments[soundConfig.getUrlIndex()];
+      if (batch.sounds.containsKey(url)) {
+        continue;
+      }
+
+      Sound sound = existing.get(url);
+      if (sound == null) {
+        sound = new Sound();
+        sound.setPath(url);
+      }
+      batch.sounds.put(url, sound);
+
+      Word subjectWord = batch.getWord(fragments[soundConfig.getSubjectIndex()]);
+      batch.soundsBySubject.computeIfAbsent(subjectWord.getValue(), x -> new ArrayList<>()).add(sound);
+      batch.relations.add(new ObjectRelation(sound, subjectWord, subjectProperty));
+    }
+  }
+
+  void parseImages(Batch batch, List<String> lines, Map<String, Image> existing) {
+    EntityProperty subjectProperty = initializerRules.get("imageSubjRes").getOnProperty();
+    EntityProperty titleProperty = initializerRules.get("imageTitleRes").getOnProperty();
+    EntityProperty previousProperty = initializerRules.get("hasPreviousImage").getOnProperty();
+    EntityProperty soundProperty = initializerRules.get("hasAssociatedSound").getOnProperty();
+    Set<String> parsed = new HashSet<>();
+    for (String line : lines) {
+      String[] fragments = line.split(imageConfig.getDelimiter());
+      String url = fragments[imageConfig.getUrlIndex()];
+      if (!parsed.add(url)) {
+        continue;
+      }
+
+      Image parentImage = null;
+      if (fragments.length > imageConfig.getParentIndex()) {
+        parentImage = batch.getImage(fragments[imageConfig.getParentIndex()], existing);
+      }
+
+      Image image = batch.getImage(url, existing);
+      image.setOrdered(parentImage != null);
+      Word titleWord = batch.getWord(fragments[imageConfig.getTitleIndex()]);
+      Word subjectWord = batch.getWord(fragments[imageConfig.getSubjectIndex()]);
+      batch.relations.add(new ObjectRelation(image, titleWord, titleProperty));
+      batch.relations.add(new ObjectRelation(image, subjectWord, subjectProperty));
+      if (parentImage != null) {
+        batch.relations.add(new ObjectRelation(image, parentImage, previousProperty));
+      }
+
+      batch.imagesBySubject.computeIfAbsent(subjectWord.getValue(), x -> new ArrayList<>()).add(image);
+      List<Sound> subjectSounds = batch.soundsBySubject.get(subjectWord.getValue());
+      if (subjectSounds != null) {
+        Sound sound = subjectSounds.get(ThreadLocalRandom.current().nextInt(subjectSounds.size()));
+        image.setSoundAssociated(true);
+        sound.setImageAssociated(true);
+        batch.relations.add(new ObjectRelation(image, sound, soundProperty));
+      }
+    }
+  }
+
+  /**
+   * Associates every sound with a random image of its subject
+   */
+  void associateSounds(Batch batch, EntityProperty hasAssociatedImage) {
+    for (Map.Entry<String, List<Sound>> entry : batch.soundsBySubject.entrySet()) {
+      List<Image> subjectImages = batch.imagesBySubject.get(entry.getKey());
+      if (subjectImages == null) {
+        continue;
+      }
+      for (Sound sound : entry.getValue()) {
+        Image image = subjectImages.get(ThreadLocalRandom.current().nextInt(subjectImages.size()));
+        image.setSoundAssociated(true);
+        sound.setImageAssociated(true);
+        batch.relations.add(new ObjectRelation(sound, image, hasAssociatedImage));
+      }
+    }
+  }
+
+  <T extends BaseGameObject> void upsert(String name, Collection<T> objects) throws ProviderException {
+    long start = System.currentTimeMillis();
+    try {
+      generator.upsertGameObjects(objects);
+    } catch (EngineException e) {
+      throw ProviderExceptions.GenerationError(name, e);
+    }
+    LOGGER.info(String.format("Upserted %d %s objects in %d ms", objects.size(), name,
+      System.currentTimeMillis() - start));
+  }
+
+  <T extends BaseGameObject> void upsertAsync(String name, Collection<T> objects) {
+    try {
+      upsert(name, objects);
+    } catch (ProviderException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  CompletableFuture<List<String>> readLines(String url) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return fileProvider.getLines(url);
+      } catch (ProviderException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
+
+  <T extends BaseGameObject> CompletableFuture<Map<String, T>> selectExisting(T criteria,
+                                                                             Function<T, String> key) {
+    return CompletableFuture.supplyAsync(() -> {
+      Map<String, T> existing = new HashMap<>();
+      try {
+        for (T object : generator.selectGameObject(criteria)) {
+          existing.putIfAbsent(key.apply(object), object);
+        }
+      } catch (EngineException e) {
+        throw new CompletionException(ProviderExceptions.GenerationError(criteria.getClass().getSimpleName(), e));
+      }
+      return existing;
+    });
+  }
+
+  <T> T await(CompletableFuture<T> future) throws ProviderException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ProviderException) {
+        throw (ProviderException) e.getCause();
+      }
+      throw ProviderExceptions.GenerationError(ObjectsBulkLoader.class.getSimpleName(), e.getCause());
+    }
+  }
+
+  /**
+   * The objects and relations of one import
+   */
+  static class Batch {
+    private final Map<String, Word> words = new LinkedHashMap<>();
+    private final Map<String, Sound> sounds = new LinkedHashMap<>();
+    private final Map<String, Image> images = new LinkedHashMap<>();
+    private final Map<String, List<Sound>> soundsBySubject = new HashMap<>();
+    private final Map<String, List<Image>> imagesBySubject = new HashMap<>();
+    private final List<ObjectRelation> relations = new ArrayList<>();
+
+    Word getWord(String value) {
+      return words.computeIfAbsent(value, x -> {
+        Word word = new Word();
+        word.setValue(x);
+        word.setLength(x.length());
+        return word;
+      });
+    }
+
+    Image getImage(String path, Map<String, Image> existing) {
+      return images.computeIfAbsent(path, x -> {
+        Image image = existing.get(x);
+        if (image == null) {
+          image = new Image();
+          image.setPath(x);
+        }
+        return image;
+      });
+    }
+  }
+}
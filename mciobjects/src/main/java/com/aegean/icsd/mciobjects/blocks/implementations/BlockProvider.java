@@ -169,16 +169,14 @@ public class BlockProvider implements IBlockProvider {
   }
 
   List<Block> getBlocksFromIds(List<String> ids) throws ProviderException {
-    List<Block> blocks = new ArrayList<>();
-    for (String id : ids) {
-      Block block = new Block();
-      block.setId(id);
-      try {
-        List<Block> results = generator.selectGameObject(block);
-        blocks.add(results.get(0));
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject("id = " + id, e);
-      }
+    List<Block> blocks;
+    try {
+      blocks = generator.selectGameObjects(Block.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject("ids = " + ids, e);
+    }
+    if (blocks.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject("ids = " + ids);
     }
     return blocks;
   }
@@ -186,20 +184,20 @@ public class BlockProvider implements IBlockProvider {
   List<BlockSet> getBlockSetsFromIds(List<String> ids) throws ProviderException {
     EntityRestriction hasMovingBlock = blockRules.get("hasMovingBlock");
 
-    List<BlockSet> blockSets = new ArrayList<>();
-    for (String id : ids) {
-      BlockSet blockSet = new BlockSet();
-      blockSet.setId(id);
-      try {
-        BlockSet result = generator.selectGameObject(blockSet).get(0);
-        List<Block> blocks = selectBlocksByEntityId(result.getId());
-        List<Block> movingBlocks = selectBlocksByEntityIdOnProperty(result.getId(), hasMovingBlock.getOnProperty());
-        result.setBlocks(blocks);
-        result.setMovingBlocks(movingBlocks);
-        blockSets.add(result);
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject("id = " + id, e);
-      }
+    List<BlockSet> blockSets;
+    try {
+      blockSets = generator.selectGameObjects(BlockSet.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject("ids = " + ids, e);
+    }
+    if (blockSets.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject("ids = " + ids);
+    }
+    for (BlockSet result : blockSets) {
+      List<Block> blocks = selectBlocksByEntityId(result.getId());
+      List<Block> movingBlocks = selectBlocksByEntityIdOnProperty(result.getId(), hasMovingBlock.getOnProperty());
+      result.setBlocks(blocks);
+      result.setMovingBlocks(movingBlocks);
     }
     return blockSets;
   }
@@ -0,0 +1,22 @@
+package com.aegean.icsd.mciobjects.common.configuration;
+
+public class FileConfiguration {
+  private String cacheDir;
+  private long revalidateAfter;
+
+  public String getCacheDir() {
+    return cacheDir;
+  }
+
+  public void setCacheDir(String cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  public long getRevalidateAfter() {
+    return revalidateAfter;
+  }
+
+  public void setRevalidateAfter(long revalidateAfter) {
+    this.revalidateAfter = revalidateAfter;
+  }
+}
@@ -1,6 +1,7 @@
 package com.aegean.icsd.mciobjects.common.daos;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.aegean.icsd.engine.common.beans.BaseGameObject;
 import com.aegean.icsd.engine.rules.beans.EntityProperty;
@@ -16,6 +17,12 @@ public interface IObjectsDao {
 
   <T extends BaseGameObject> List<String> getAssociatedIdsOnPropertyForEntityId(String id, EntityProperty onProperty, Class<T> object) throws ProviderException;
 
+  /**
+   * Asynchronous variant of {@link #getAssociatedIdsOnPropertyForEntityId}. The returned future completes
+   * exceptionally with a {@link ProviderException} when the query fails
+   */
+  <T extends BaseGameObject> CompletableFuture<List<String>> getAssociatedIdsOnPropertyForEntityIdAsync(String id, EntityProperty onProperty, Class<T> object);
+
   <T extends BaseGameObject> boolean areObjectsAssociatedOn(T thisObj, T thatObj, EntityProperty onProperty) throws ProviderException;
 
   List<String> getIdAssociatedWithOtherOnProperty(String otherId, EntityProperty onProperty) throws ProviderException;
@@ -3,6 +3,8 @@ package com.aegean.icsd.mciobjects.common.daos;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,11 +54,8 @@ public class ObjectsDao implements IObjectsDao {
       .build();
 
     try {
-      JsonArray results = ont.select(q);
       List<String> ids = new ArrayList<>();
-      for (JsonElement result : results) {
-        ids.add(result.getAsJsonObject().get("objId").getAsString());
-      }
+      ont.select(q, row -> ids.add(row.get("objId").getAsString()));
       return ids;
     } catch (OntologyException e) {
       throw Exceptions.FailedToRetrieveObjects(objectName, e);
@@ -85,11 +84,8 @@ public class ObjectsDao implements IObjectsDao {
       .build();
 
     try {
-      JsonArray results = ont.select(q);
       List<String> ids = new ArrayList<>();
-      for (JsonElement result : results) {
-        ids.add(result.getAsJsonObject().get("objId").getAsString());
-      }
+      ont.select(q, row -> ids.add(row.get("objId").getAsString()));
       return ids;
     } catch (OntologyException e) {
       throw Exceptions.FailedToRetrieveObjects(Word.NAME, e);
@@ -133,6 +129,33 @@ public class ObjectsDao implements IObjectsDao {
   public <T extends BaseGameObject> List<String> getAssociatedIdsOnPropertyForEntityId(String id,
                                                                                        EntityProperty onProperty,
                                                                                        Class<T> object) throws ProviderException {
+    try {
+      return toAssociatedIds(ont.select(getAssociatedIdsOnPropertyQuery(id, onProperty, object)));
+    } catch (OntologyException e) {
+      throw Exceptions.FailedToRetrieveObjects(id, e);
+    }
+  }
+
+  @Override
+  public <T extends BaseGameObject> CompletableFuture<List<String>> getAssociatedIdsOnPropertyForEntityIdAsync(
+    String id, EntityProperty onProperty, Class<T> object) {
+    SelectQuery query;
+    try {
+      query = getAssociatedIdsOnPropertyQuery(id, onProperty, object);
+    } catch (ProviderException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return ont.selectAsync(query).handle((results, ex) -> {
+      if (ex != null) {
+        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+        throw new CompletionException(Exceptions.FailedToRetrieveObjects(id, cause));
+      }
+      return toAssociatedIds(results);
+    });
+  }
+
+  <T extends BaseGameObject> SelectQuery getAssociatedIdsOnPropertyQuery(String id, EntityProperty onProperty,
+                                                                         Class<T> object) throws ProviderException {
     String objectName;
     try {
       objectName = ano.getEntityValue(object);
@@ -153,19 +176,18 @@ public class ObjectsDao implements IObjectsDao {
     if (!StringUtils.isEmpty(id)) {
       qBuilder.addLiteralParam("id", id);
     }
+    return qBuilder.build();
+  }
 
-    try {
-      JsonArray results = ont.select(qBuilder.build());
-      List<String> ids = new ArrayList<>();
-      for (JsonElement result : results) {
-        ids.add(result.getAsJsonObject().get("associatedId").getAsString());
-      }
-      return ids;
-    } catch (OntologyException e) {
-      throw Exceptions.FailedToRetrieveObjects(id, e);
+  List<String> toAssociatedIds(JsonArray results) {
+    List<String> ids = new ArrayList<>();
+    for (JsonElement result : results) {
+      ids.add(result.getAsJsonObject().get("associatedId").getAsString());
     }
+    return ids;
   }
 
+
   @Override
   public <T extends BaseGameObject> boolean areObjectsAssociatedOn(T thisObj, T thatObj, EntityProperty onProperty)
     throws ProviderException {
@@ -0,0 +1,178 @@
+package com.aegean.icsd.mciobjects.common.implementations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+
+/**
+ * A file of the objects that is downloaded once and kept on the disk, along with its ETag and Last-Modified
+ * headers, and in memory as a list of lines. The file is revalidated with a conditional request once the given
+ * interval has passed and is downloaded again only if it has changed.
+ * <p>
+ * Only the first read waits for the file. Once there is a copy, the callers get it at once, even if it is stale,
+ * while one revalidation at a time runs on the given executor.
+ */
+class CachedFile {
+  private static Logger LOGGER = Logger.getLogger(CachedFile.class);
+
+  private static final int TIMEOUT = 180000;
+
+  private final String url;
+  private final Path location;
+  private final Path metaLocation;
+  private final long revalidateAfter;
+  private final Executor revalidators;
+  private final AtomicBoolean revalidating = new AtomicBoolean();
+
+  private volatile List<String> lines;
+  private volatile long validatedAt;
+  private volatile String etag;
+  private volatile String lastModified;
+
+  CachedFile(String url, Path cacheDir, long revalidateAfter, Executor revalidators) {
+    String[] chunks = url.split("/");
+    String fileName = Integer.toHexString(url.hashCode()) + "_" + chunks[chunks.length - 1];
+    this.url = url;
+    this.location = cacheDir.resolve(fileName);
+    this.metaLocation = cacheDir.resolve(fileName + ".meta");
+    this.revalidateAfter = revalidateAfter;
+    this.revalidators = revalidators;
+  }
+
+  /**
+   * @return the lines of the file. A stale copy is returned while the file is revalidated, or if it can't be
+   * revalidated
+   */
+  List<String> getLines() throws IOException {
+    List<String> current = lines;
+    if (current == null) {
+      return load();
+    }
+    if (System.currentTimeMillis() - validatedAt >= revalidateAfter) {
+      revalidateLater();
+    }
+    return current;
+  }
+
+  /**
+   * Reads the local copy, which is then revalidated, or downloads the file if there is none
+   */
+  synchronized List<String> load() throws IOException {
+    if (lines == null) {
+      readLocalCopy();
+      if (lines == null) {
+        revalidate();
+        validatedAt = System.currentTimeMillis();
+      } else {
+        revalidateLater();
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Schedules a revalidation, unless one is already running
+   */
+  void revalidateLater() {
+    if (revalidating.compareAndSet(false, true)) {
+      try {
+        revalidators.execute(this::refresh);
+      } catch (RejectedExecutionException e) {
+        revalidating.set(false);
+        LOGGER.warn(String.format("Unable to schedule the revalidation of %s", url), e);
+      }
+    }
+  }
+
+  void refresh() {
+    try {
+      revalidate();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn(String.format("Unable to revalidate %s, using the local copy", url), e);
+    } finally {
+      validatedAt = System.currentTimeMillis();
+      revalidating.set(false);
+    }
+  }
+
+  void readLocalCopy() throws IOException {
+    try {
+      List<String> localLines = Files.readAllLines(location);
+      Properties meta = new Properties();
+      try (InputStream in = Files.newInputStream(metaLocation)) {
+        meta.load(in);
+      }
+      lines = Collections.unmodifiableList(localLines);
+      etag = meta.getProperty("etag");
+      lastModified = meta.getProperty("lastModified");
+    } catch (NoSuchFileException e) {
+      LOGGER.info(String.format("No local copy of %s", url));
+    }
+  }
+
+  void revalidate() throws IOException {
+    URLConnection connection = new URL(url).openConnection();
+    connection.setConnectTimeout(TIMEOUT);
+    connection.setReadTimeout(TIMEOUT);
+    if (lines != null && etag != null) {
+      connection.setRequestProperty("If-None-Match", etag);
+    }
+    if (lines != null && lastModified != null) {
+      connection.setRequestProperty("If-Modified-Since", lastModified);
+    }
+
+    if (connection instanceof HttpURLConnection) {
+      HttpURLConnection http = (HttpURLConnection) connection;
+      int status = http.getResponseCode();
+      if (status == HttpURLConnection.HTTP_NOT_MODIFIED && lines != null) {
+        LOGGER.debug(String.format("%s is not modified", url));
+        http.disconnect();
+        return;
+      }
+      if (status >= 400) {
+        http.disconnect();
+        throw new IOException(String.format("Error %d when retrieving %s", status, url));
+      }
+    }
+
+    LOGGER.info(String.format("Downloading %s to %s", url, location));
+    Files.createDirectories(location.toAbsolutePath().getParent());
+    Path tmp = Files.createTempFile(location.toAbsolutePath().getParent(), location.getFileName().toString(), ".tmp");
+    try (InputStream in = connection.getInputStream()) {
+      Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+      List<String> downloaded = Files.readAllLines(tmp);
+      Files.move(tmp, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      lines = Collections.unmodifiableList(downloaded);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+
+    etag = connection.getHeaderField("ETag");
+    lastModified = connection.getHeaderField("Last-Modified");
+    Properties meta = new Properties();
+    if (etag != null) {
+      meta.setProperty("etag", etag);
+    }
+    if (lastModified != null) {
+      meta.setProperty("lastModified", lastModified);
+    }
+    try (OutputStream out = Files.newOutputStream(metaLocation)) {
+      meta.store(out, url);
+    }
+  }
+}
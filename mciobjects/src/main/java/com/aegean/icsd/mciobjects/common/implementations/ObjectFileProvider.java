@@ -1,20 +1,23 @@
 package com.aegean.icsd.mciobjects.common.implementations;
 
-import java.io.File;
+import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.net.URL;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
+import com.aegean.icsd.mciobjects.common.configuration.FileConfiguration;
 import com.aegean.icsd.mciobjects.common.interfaces.IObjectFileProvider;
 
 @Service
@@ -22,42 +25,59 @@ public class ObjectFileProvider implements IObjectFileProvider {
 
   private static Logger LOGGER = Logger.getLogger(ObjectFileProvider.class);
 
+  @Autowired
+  private FileConfiguration fileConfig;
+
+  private final ConcurrentMap<String, CachedFile> files = new ConcurrentHashMap<>();
+
+  private ExecutorService revalidators;
+
+  /**
+   * @return the lines of the file, which are shared between the callers and must not be modified
+   */
   @Override
   public List<String> getLines(String url) throws ProviderException {
-    LOGGER.info(String.format("Retrieving lines from file at %s", url));
-    String[] chunks = url.split("/");
-    String fileName = chunks[chunks.length - 1];
-    File file;
-    List<String> allLines;
+    LOGGER.debug(String.format("Retrieving lines from file at %s", url));
+    Path cacheDir = Paths.get(fileConfig.getCacheDir());
+    CachedFile file = files.computeIfAbsent(url,
+      x -> new CachedFile(x, cacheDir, fileConfig.getRevalidateAfter(), getRevalidators()));
     try {
-      file = new File(fileName);
-      FileUtils.copyURLToFile(
-        new URL(url),
-        file, 180000, 180000);
-      allLines = Files.readAllLines(Paths.get(file.getPath()));
+      return file.getLines();
     } catch (IOException e) {
-      throw ProviderExceptions.UnableToGetFileFromUrl(url, fileName, e);
+      String[] chunks = url.split("/");
+      throw ProviderExceptions.UnableToGetFileFromUrl(url, chunks[chunks.length - 1], e);
     }
-    return allLines;
   }
 
   @Override
   public String getFileLineFromUrl(String url) throws ProviderException {
     LOGGER.info(String.format("Retrieving line from file at %s", url));
 
-    Supplier<Stream<String>> streamSupplier = getLines(url)::stream;
-
-    if (streamSupplier.get() == null ) {
-      throw ProviderExceptions.UnableToReadFile(String.format("Error when reading file at: %s", url));
-    }
-
-    long totalNb = streamSupplier.get().count();
-    long lineNumber = ThreadLocalRandom.current().nextLong(0, totalNb);
-    String line = streamSupplier.get().skip(lineNumber).findFirst().orElse(null);
-    if (line == null) {
+    List<String> lines = getLines(url);
+    if (lines.isEmpty()) {
       throw ProviderExceptions.UnableToReadFile("Could not read the line");
     }
 
+    String line = lines.get(ThreadLocalRandom.current().nextInt(lines.size()));
     return line.replace("\\r", "").trim();
   }
+
+  synchronized ExecutorService getRevalidators() {
+    if (revalidators == null) {
+      AtomicInteger count = new AtomicInteger();
+      revalidators = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "file-revalidation-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return revalidators;
+  }
+
+  @PreDestroy
+  synchronized void shutdown() {
+    if (revalidators != null) {
+      revalidators.shutdownNow();
+    }
+  }
 }
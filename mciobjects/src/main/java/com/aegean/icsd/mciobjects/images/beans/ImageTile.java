@@ -0,0 +1,22 @@
+package com.aegean.icsd.mciobjects.images.beans;
+
+public class ImageTile {
+  private byte[] content;
+  private String mimeType;
+
+  public byte[] getContent() {
+    return content;
+  }
+
+  public void setContent(byte[] content) {
+    this.content = content;
+  }
+
+  public String getMimeType() {
+    return mimeType;
+  }
+
+  public void setMimeType(String mimeType) {
+    this.mimeType = mimeType;
+  }
+}
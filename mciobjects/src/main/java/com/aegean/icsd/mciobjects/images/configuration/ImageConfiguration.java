@@ -8,6 +8,9 @@ public class ImageConfiguration {
   private int titleIndex;
   private int subjectIndex;
   private int parentIndex;
+  private String cacheDir;
+  private long cacheMaxSize;
+  private long sourceCacheMaxSize;
 
   public String getLocation() {
     return location;
@@ -64,4 +67,28 @@ public class ImageConfiguration {
   public void setParentIndex(int parentIndex) {
     this.parentIndex = parentIndex;
   }
+
+  public String getCacheDir() {
+    return cacheDir;
+  }
+
+  public void setCacheDir(String cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  public long getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  public void setCacheMaxSize(long cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
+  public long getSourceCacheMaxSize() {
+    return sourceCacheMaxSize;
+  }
+
+  public void setSourceCacheMaxSize(long sourceCacheMaxSize) {
+    this.sourceCacheMaxSize = sourceCacheMaxSize;
+  }
 }
@@ -0,0 +1,222 @@
+package com.aegean.icsd.mciobjects.images.implementations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Content addressed store of the downloaded images and of the encoded tiles of their grids under a root folder.
+ * Every entry is a folder named after its key, which is written in a temporary folder and moved in place at once, so
+ * that concurrent writers never see nor overwrite a half written entry.
+ * <p>
+ * The size of all the entries is bounded. When it is exceeded, the least recently used entries are deleted, whether
+ * they are images or tiles. Any folder that is not named after a key is left as is.
+ */
+class ImageCache {
+  private static Logger LOGGER = Logger.getLogger(ImageCache.class);
+
+  private static final String TMP_PREFIX = ".tmp_";
+  private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+  private final Path root;
+  private final long maxSize;
+  private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+
+  ImageCache(Path root, long maxSize) {
+    this.root = root;
+    this.maxSize = maxSize;
+    scan();
+  }
+
+  /**
+   * @return the folder of the entry, or null if it is not in the cache
+   */
+  Path get(String key) {
+    synchronized (this) {
+      if (!entries.containsKey(key)) {
+        return null;
+      }
+      entries.get(key);
+    }
+    return root.resolve(key);
+  }
+
+  /**
+   * Writes the entry in a temporary folder with the given writer and moves it in place. If another writer has
+   * stored the same entry in the meantime, its entry is kept.
+   *
+   * @return the folder of the entry
+   */
+  Path put(String key, EntryWriter writer) throws IOException {
+    Files.createDirectories(root);
+    Path tmp = Files.createTempDirectory(root, TMP_PREFIX);
+    Path location = root.resolve(key);
+    try {
+      writer.write(tmp);
+      try {
+        Files.move(tmp, location, StandardCopyOption.ATOMIC_MOVE);
+      } catch (FileAlreadyExistsException e) {
+        LOGGER.debug(String.format("Entry %s was stored by another writer", key));
+      } catch (IOException e) {
+        if (!Files.isDirectory(location)) {
+          throw e;
+        }
+        LOGGER.debug(String.format("Entry %s was stored by another writer", key));
+      }
+    } finally {
+      if (Files.exists(tmp)) {
+        delete(tmp);
+      }
+    }
+
+    synchronized (this) {
+      if (!entries.containsKey(key)) {
+        add(key, location);
+        evict(key);
+      }
+    }
+    return location;
+  }
+
+  void add(String key, Path location) throws IOException {
+    long entrySize = sizeOf(location);
+    entries.put(key, entrySize);
+    size += entrySize;
+  }
+
+  /**
+   * Deletes the least recently used entries, except the given one, until the cache fits in its size
+   */
+  void evict(String keep) {
+    Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+    while (size > maxSize && it.hasNext()) {
+      Map.Entry<String, Long> entry = it.next();
+      if (entry.getKey().equals(keep)) {
+        continue;
+      }
+      LOGGER.info(String.format("Evicting %s from the image cache", entry.getKey()));
+      try {
+        delete(root.resolve(entry.getKey()));
+      } catch (IOException e) {
+        LOGGER.error(String.format("Unable to evict %s", entry.getKey()), e);
+        continue;
+      }
+      size -= entry.getValue();
+      it.remove();
+    }
+  }
+
+  /**
+   * Reads the entries that are stored from a previous run, oldest first, and removes any leftover temporary folder.
+   * The folders that are not named after a key are not entries of the cache.
+   */
+  void scan() {
+    if (!Files.isDirectory(root)) {
+      return;
+    }
+    List<Path> folders = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, Files::isDirectory)) {
+      for (Path folder : stream) {
+        String name = folder.getFileName().toString();
+        if (name.startsWith(TMP_PREFIX)) {
+          delete(folder);
+        } else if (isKey(name)) {
+          folders.add(folder);
+        }
+      }
+      folders.sort(Comparator.comparingLong(this::lastModified));
+      for (Path folder : folders) {
+        add(folder.getFileName().toString(), folder);
+      }
+    } catch (IOException | UncheckedIOException e) {
+      LOGGER.error(String.format("Unable to read the image cache at %s", root), e);
+    }
+    LOGGER.info(String.format("Image cache at %s has %d entries of %d bytes", root, entries.size(), size));
+  }
+
+  long lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  long sizeOf(Path folder) throws IOException {
+    try (Stream<Path> files = Files.walk(folder)) {
+      return files.filter(Files::isRegularFile)
+        .mapToLong(file -> {
+          try {
+            return Files.size(file);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        })
+        .sum();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  void delete(Path folder) throws IOException {
+    try (Stream<Path> files = Files.walk(folder)) {
+      for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  boolean isKey(String name) {
+    return KEY.matcher(name).matches();
+  }
+
+  /**
+   * @return the key of the downloaded image of the path
+   */
+  static String sourceKey(String path) {
+    return hash(path);
+  }
+
+  /**
+   * @return the key of the tiles of the image for the grid
+   */
+  static String tilesKey(String imageId, int rows, int cols) {
+    return hash(imageId + "/" + rows + "x" + cols);
+  }
+
+  static String hash(String value) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  interface EntryWriter {
+    void write(Path folder) throws IOException;
+  }
+}
@@ -21,6 +21,7 @@ import com.aegean.icsd.mciobjects.common.daos.IObjectsDao;
 import com.aegean.icsd.mciobjects.common.implementations.ProviderExceptions;
 import com.aegean.icsd.mciobjects.images.beans.Image;
 import com.aegean.icsd.mciobjects.images.beans.ImageData;
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
 import com.aegean.icsd.mciobjects.images.daos.IImageDao;
 import com.aegean.icsd.mciobjects.images.interfaces.IImageProvider;
 import com.aegean.icsd.mciobjects.sounds.beans.Sound;
@@ -32,6 +33,8 @@ public class ImageProvider implements IImageProvider {
 
   private static Logger LOGGER = Logger.getLogger(ImageProvider.class);
 
+  private static final int MAX_GRID_SIZE = 50;
+
   @Autowired
   private IGenerator generator;
 
@@ -47,6 +50,9 @@ public class ImageProvider implements IImageProvider {
   @Autowired
   private Map<String, EntityRestriction> imageRules;
 
+  @Autowired
+  private ImageUtils imageUtils;
+
   @Override
   public List<String> getImageIds() throws ProviderException {
     return dao.getObjectIds(Image.class);
@@ -54,26 +60,14 @@ public class ImageProvider implements IImageProvider {
 
   @Override
   public List<Image> getNewImagesFor(String entityName, int count, Image criteria) throws ProviderException {
-    List<String> availableIds = dao.getNewObjectIdsFor(entityName, Image.class);
-    if (availableIds.isEmpty()) {
-      throw ProviderExceptions.UnableToGenerateObject(Image.NAME);
+    List<Image> availableImages;
+    try {
+      availableImages = generator.selectRandomGameObjects(criteria, entityName, count);
+    } catch (EngineException e) {
+      throw ProviderExceptions.GenerationError(Image.NAME, e);
     }
-    List<Image> availableImages = new ArrayList<>();
-    Collections.shuffle(availableIds, new Random(System.currentTimeMillis()));
-    for (String id : availableIds) {
-      Image cp = copy(criteria);
-      cp.setId(id);
-      try {
-        List<Image> results = generator.selectGameObject(cp);
-        if (!results.isEmpty()) {
-          availableImages.add(results.get(0));
-        }
-      } catch (EngineException e) {
-        throw ProviderExceptions.GenerationError(Image.NAME, e);
-      }
-      if(availableImages.size() == count) {
-        break;
-      }
+    if (availableImages.isEmpty()) {
+      throw ProviderExceptions.UnableToGenerateObject(Image.NAME);
     }
 
     if(availableImages.size() != count) {
@@ -119,41 +113,35 @@ public class ImageProvider implements IImageProvider {
   }
 
   @Override
-  public Image[][] getImageChunks(Image image, int rows, int cols) throws ProviderException {
-    Image[][] imageChunks = new ImageUtils().splitImage(image, rows, cols);
-    for (Image[] imageRow : imageChunks) {
-      for (Image value : imageRow) {
-        try {
-          generator.upsertGameObject(value);
-        } catch (EngineException e) {
-          throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
-        }
-      }
+  public ImageTile getImageTile(String imageId, int rows, int cols, int row, int col) throws ProviderException {
+    if (rows < 1 || cols < 1 || rows > MAX_GRID_SIZE || cols > MAX_GRID_SIZE
+      || row < 0 || col < 0 || row >= rows || col >= cols) {
+      throw ProviderExceptions.UnableToGetObject(String.format("Invalid tile %s,%s of a %sx%s grid", row, col, rows, cols));
     }
-    return imageChunks;
+
+    return imageUtils.getTile(imageId, rows, cols, row, col, () -> {
+      Image criteria = new Image();
+      criteria.setId(imageId);
+      List<Image> images;
+      try {
+        images = generator.selectGameObject(criteria);
+      } catch (EngineException e) {
+        throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
+      }
+      if (images.isEmpty()) {
+        throw ProviderExceptions.UnableToGetObject("No image found with id: " + imageId);
+      }
+      return images.get(0);
+    });
   }
 
   @Override
   public List<Image> selectNewImagesForEntity(String entityName, int count) throws ProviderException {
-    List<Image> images = new ArrayList<>();
     try {
-      List<String> imageIds = dao.getNewObjectIdsFor(entityName, Image.class);
-      for(String imageId : imageIds) {
-        if (images.size() == count) {
-          break;
-        }
-        Image criteria = new Image();
-        criteria.setId(imageId);
-        List<Image> result = generator.selectGameObject(criteria);
-        if (!result.isEmpty()) {
-          images.addAll(result);
-        }
-      }
-    } catch (ProviderException | EngineException e) {
+      return generator.selectRandomGameObjects(new Image(), entityName, count);
+    } catch (EngineException e) {
       throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
     }
-
-    return images;
   }
 
   @Override
@@ -214,19 +202,14 @@ public class ImageProvider implements IImageProvider {
   @Override
   public List<Image> selectImagesByEntityId(String entityId) throws ProviderException {
     List<String> ids = dao.getAssociatedObjectsOfEntityId(entityId, Image.class);
-    List<Image> images = new ArrayList<>();
-    for (String id : ids) {
-      Image criteria = new Image();
-      criteria.setId(id);
-      try {
-        List<Image> results = generator.selectGameObject(criteria);
-        if (results.size() != 1) {
-          throw ProviderExceptions.UnableToGetObject("No image or more than one image found with the same id :" + id);
-        }
-        images.add(results.get(0));
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject("No image or more than one image found with the same id :" + id, e);
-      }
+    List<Image> images;
+    try {
+      images = generator.selectGameObjects(Image.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject("Images of entityId = " + entityId, e);
+    }
+    if (images.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject("No image found for one of the ids :" + ids);
     }
     return images;
   }
@@ -237,12 +220,4 @@ public class ImageProvider implements IImageProvider {
     List<String> wordId = dao.getAssociatedIdsOnPropertyForEntityId(imageId, imageSubjRes.getOnProperty(), Word.class);
     return wordId.get(0);
   }
-
-  Image copy(Image toCopy) {
-    Image cp = new Image();
-    cp.setId(toCopy.getId());
-    cp.setPath(toCopy.getPath());
-    cp.setSoundAssociated(toCopy.isSoundAssociated());
-    return cp;
-  }
 }
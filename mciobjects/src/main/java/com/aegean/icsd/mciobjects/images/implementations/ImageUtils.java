@@ -1,5 +1,6 @@
 package com.aegean.icsd.mciobjects.images.implementations;
 
+import javax.annotation.PreDestroy;
 import javax.imageio.ImageIO;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -7,132 +8,324 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileInputStream;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 
 import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
 
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
 import com.aegean.icsd.mciobjects.common.implementations.ProviderExceptions;
 import com.aegean.icsd.mciobjects.images.beans.Image;
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
+import com.aegean.icsd.mciobjects.images.configuration.ImageConfiguration;
 
+@Component
 class ImageUtils {
-  private static final String ROOT_PATH = "../webapps/mci/images";
+  private static final String SOURCE_NAME = "source";
 
-  private static Logger LOGGER = Logger.getLogger(ImageUtils.class);
+  private static final int ENCODERS = Runtime.getRuntime().availableProcessors();
+  private static final int MAX_PENDING_ENCODINGS = ENCODERS * 2;
 
-  Image[][] splitImage(Image image, int rows, int cols) throws ProviderException {
-    LOGGER.info(String.format("Begin splitting image %s in %s rows and %s columns", image.getId(), rows, cols));
+  private static Logger LOGGER = Logger.getLogger(ImageUtils.class);
 
-    String storedPath = downloadImage(image);
+  private final ForkJoinPool encoders = new ForkJoinPool(ENCODERS);
+  private final Semaphore pendingEncodings = new Semaphore(MAX_PENDING_ENCODINGS);
 
-    BufferedImage bufferedImage = readImageFromPath(storedPath);
-    BufferedImage[][] bufferedImages = splitBufferedImage(bufferedImage, rows, cols);
+  private final Map<String, CompletableFuture<SourceImage>> sourceImages = new LinkedHashMap<>(16, 0.75f, true);
+  private long sourceImagesSize;
+  private final ConcurrentMap<String, CompletableFuture<Path>> pendingTileSets = new ConcurrentHashMap<>();
 
-    return writeBufferedImages(image, bufferedImages, rows, cols);
-  }
+  @Autowired
+  private ImageConfiguration imageConfig;
 
-  String downloadImage(Image image) throws ProviderException {
+  private ImageCache cache;
 
-    String imageName = getImageName(image);
-    try (InputStream in = getTrustedUrl(image.getPath()).openStream()) {
+  private boolean trustInstalled;
 
-      String localPath = ROOT_PATH + "/" + imageName;
-      LOGGER.info(String.format("Downloading image %s at %s ", image.getId(), localPath));
-      File dir = new File(localPath);
-      if (!dir.exists()) {
-        dir.mkdirs();
+  Path downloadImage(Image image) throws ProviderException {
+    String key = ImageCache.sourceKey(image.getPath());
+    String localName = SOURCE_NAME + "." + getImageExtension(image);
+    try {
+      Path folder = getCache().get(key);
+      if (folder == null) {
+        LOGGER.info(String.format("Downloading image %s", image.getId()));
+        URL url = getTrustedUrl(image.getPath());
+        folder = getCache().put(key, tmp -> {
+          try (InputStream in = url.openStream()) {
+            Files.copy(in, tmp.resolve(localName));
+          }
+        });
       }
-      String localName = localPath + "/" + getImageNameWithExtension(image);
-      Files.copy(in, Paths.get(localName), StandardCopyOption.REPLACE_EXISTING);
-      return localName;
+      return folder.resolve(localName);
     } catch (IOException e) {
       throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
     }
   }
 
-  BufferedImage readImageFromPath(String path) throws ProviderException {
-    File file = new File(path);
-    FileInputStream fis;
-    BufferedImage bufferedImage;
-    try {
-      fis = new FileInputStream(file);
-      bufferedImage = ImageIO.read(fis);
+  BufferedImage readImageFromPath(Path path) throws ProviderException {
+    try (InputStream in = Files.newInputStream(path)) {
+      return ImageIO.read(in);
     } catch (IOException e) {
       throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
     }
-    return bufferedImage;
   }
 
-  BufferedImage[][] splitBufferedImage(BufferedImage image, int rows, int cols) {
-    int chunkWidth = image.getWidth() / cols;
-    int chunkHeight = image.getHeight() / rows;
-    BufferedImage[][] bufferedImages = new BufferedImage[rows][cols];
+  BufferedImage copyRegion(BufferedImage image, int x, int y, int width, int height) {
+    WritableRaster region = image.getRaster().createCompatibleWritableRaster(width, height);
+    region.setDataElements(0, 0, image.getRaster().createChild(x, y, width, height, 0, 0, null));
+    return new BufferedImage(image.getColorModel(), region, image.isAlphaPremultiplied(), null);
+  }
+
+  /**
+   * Returns the decoded image with the given id. An image that is not one of the last decoded images is looked up,
+   * downloaded if it is not in the cache and decoded once, by the first caller, while the concurrent callers for the
+   * same image wait for it.
+   */
+  SourceImage getSourceImage(String imageId, ImageLookup lookup) throws ProviderException {
+    CompletableFuture<SourceImage> future;
+    boolean load = false;
+    synchronized (sourceImages) {
+      future = sourceImages.get(imageId);
+      if (future == null) {
+        future = new CompletableFuture<>();
+        sourceImages.put(imageId, future);
+        load = true;
+      }
+    }
 
-    LOGGER.info("Splitting image ...");
-    for (int x = 0; x < rows; x++) {
-      for (int y = 0; y < cols; y++) {
-        bufferedImages[x][y] = new BufferedImage(chunkWidth, chunkHeight, image.getType());
-        Graphics2D gr = bufferedImages[x][y].createGraphics();
-        gr.drawImage(image, 0, 0, chunkWidth, chunkHeight,
-                chunkWidth * y, chunkHeight * x,
-                chunkWidth * y + chunkWidth, chunkHeight * x + chunkHeight,
-                null);
-        gr.dispose();
+    if (load) {
+      try {
+        SourceImage source = loadSourceImage(lookup.find());
+        synchronized (sourceImages) {
+          future.complete(source);
+          sourceImagesSize += source.getSize();
+          evictSourceImages(imageId);
+        }
+      } catch (ProviderException | RuntimeException e) {
+        synchronized (sourceImages) {
+          sourceImages.remove(imageId, future);
+        }
+        future.completeExceptionally(e);
+        throw e;
       }
     }
-    LOGGER.info("Splitting done");
-    return bufferedImages;
+
+    return join(future);
+  }
+
+  /**
+   * Removes the least recently used decoded images, except the given one and the ones that are still loading,
+   * until the decoded images fit in their size
+   */
+  void evictSourceImages(String keep) {
+    Iterator<Map.Entry<String, CompletableFuture<SourceImage>>> it = sourceImages.entrySet().iterator();
+    while (sourceImagesSize > imageConfig.getSourceCacheMaxSize() && it.hasNext()) {
+      Map.Entry<String, CompletableFuture<SourceImage>> entry = it.next();
+      if (entry.getKey().equals(keep) || !entry.getValue().isDone() || entry.getValue().isCompletedExceptionally()) {
+        continue;
+      }
+      sourceImagesSize -= entry.getValue().join().getSize();
+      it.remove();
+    }
+  }
+
+  /**
+   * Downloads the image, if it is not in the cache, and decodes it
+   */
+  SourceImage loadSourceImage(Image image) throws ProviderException {
+    BufferedImage decoded = readImageFromPath(downloadImage(image));
+    if (decoded == null) {
+      throw ProviderExceptions.UnableToGetObject(String.format("Unsupported image format of %s", image.getId()));
+    }
+    return new SourceImage(decoded, getImageExtension(image));
   }
 
-  Image[][] writeBufferedImages(Image image, BufferedImage[][] images, int rows, int cols)
-          throws ProviderException {
-    Image[][] splits = new Image[rows][cols];
+  /**
+   * Returns the tile at the given row and column of the grid. The tiles of a grid are encoded together the first
+   * time one of them is requested and stored in the cache, so that the rest of them are read from the disk.
+   */
+  ImageTile getTile(String imageId, int rows, int cols, int row, int col, ImageLookup lookup)
+      throws ProviderException {
+    String key = ImageCache.tilesKey(imageId, rows, cols);
+    for (int attempt = 0; attempt < 2; attempt++) {
+      Path folder = getCache().get(key);
+      if (folder == null) {
+        folder = getTileSet(key, imageId, rows, cols, lookup);
+      }
+      ImageTile tile = readTile(folder, row, col);
+      if (tile != null) {
+        return tile;
+      }
+      LOGGER.debug(String.format("Tiles %s were evicted while reading them", key));
+    }
+    throw ProviderExceptions.UnableToGetObject(String.format("Tile %s,%s of image %s is not available", row, col,
+      imageId));
+  }
 
-    String imageName = getImageName(image);
-    String extension = getImageExtension(image);
-    String chunkFolderPath = ROOT_PATH + "/" + imageName;
+  /**
+   * Encodes and stores the tiles of the grid once, by the first caller, while the concurrent callers for the same
+   * grid wait for it.
+   *
+   * @return the folder of the tiles
+   */
+  Path getTileSet(String key, String imageId, int rows, int cols, ImageLookup lookup) throws ProviderException {
+    CompletableFuture<Path> future = new CompletableFuture<>();
+    CompletableFuture<Path> pending = pendingTileSets.putIfAbsent(key, future);
+    if (pending != null) {
+      return join(pending);
+    }
 
-    for (int row = 0; row < rows; row++) {
-      for (int col = 0; col < cols; col++) {
-        String chunkName = imageName + "_" + row + "_" + col + "." + extension;
-        String chunkPath = chunkFolderPath + "/" + chunkName;
+    try {
+      Path folder = getCache().get(key);
+      if (folder == null) {
+        SourceImage source = getSourceImage(imageId, lookup);
+        byte[][] tiles = encodeTiles(source, rows, cols);
+        folder = getCache().put(key, tmp -> {
+          for (int i = 0; i < tiles.length; i++) {
+            Files.write(tmp.resolve(getTileName(i / cols, i % cols, source.getExtension())), tiles[i]);
+          }
+        });
+      }
+      future.complete(folder);
+      return folder;
+    } catch (IOException e) {
+      ProviderException error = ProviderExceptions.UnableToGetObject(Image.NAME, e);
+      future.completeExceptionally(error);
+      throw error;
+    } catch (ProviderException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      pendingTileSets.remove(key, future);
+    }
+  }
 
-        writeBufferedImage(chunkPath, extension, images[row][col]);
+  /**
+   * @return the stored tile, or null if its tiles were evicted
+   */
+  ImageTile readTile(Path folder, int row, int col) throws ProviderException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, getTileName(row, col, "*"))) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        ImageTile tile = new ImageTile();
+        tile.setContent(Files.readAllBytes(file));
+        tile.setMimeType(getMimeType(name.substring(name.lastIndexOf('.') + 1)));
+        return tile;
+      }
+      return null;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
+    }
+  }
 
-        Image chunkImage = new Image();
-        chunkImage.setPath(chunkPath);
-        splits[row][col] = chunkImage;
+  /**
+   * Encodes every chunk of the grid in parallel on the encoders pool, dividing the image in equal chunks and leaving
+   * out any remainder pixels. At most {@link #MAX_PENDING_ENCODINGS} chunks wait for the pool at any time, across all
+   * the grids, so the caller blocks until there is room for the next chunk.
+   *
+   * @return the encoded chunks, row by row
+   */
+  byte[][] encodeTiles(SourceImage source, int rows, int cols) throws ProviderException {
+    List<CompletableFuture<byte[]>> encodings = new ArrayList<>(rows * cols);
+    try {
+      for (int i = 0; i < rows * cols; i++) {
+        int row = i / cols;
+        int col = i % cols;
+        pendingEncodings.acquire();
+        encodings.add(CompletableFuture.supplyAsync(() -> {
+          try {
+            return encodeTile(source, rows, cols, row, col);
+          } catch (ProviderException e) {
+            throw new CompletionException(e);
+          }
+        }, encoders).whenComplete((result, ex) -> pendingEncodings.release()));
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
     }
-    return splits;
+
+    byte[][] tiles = new byte[encodings.size()][];
+    for (int i = 0; i < tiles.length; i++) {
+      tiles[i] = join(encodings.get(i));
+    }
+    return tiles;
   }
 
-  void writeBufferedImage(String path, String extension, BufferedImage image) throws ProviderException {
+  byte[] encodeTile(SourceImage source, int rows, int cols, int row, int col) throws ProviderException {
+    BufferedImage image = source.getImage();
+    int chunkWidth = image.getWidth() / cols;
+    int chunkHeight = image.getHeight() / rows;
+    BufferedImage tile = copyRegion(image, chunkWidth * col, chunkHeight * row, chunkWidth, chunkHeight);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
     try {
-      LOGGER.info(String.format("Writing image at %s", path));
-      ImageIO.write(image, extension, new File(path));
+      if (!ImageIO.write(tile, source.getExtension(), out)) {
+        throw new IOException(String.format("No writer found for %s", source.getExtension()));
+      }
     } catch (IOException e) {
       throw ProviderExceptions.UnableToGetObject(Image.NAME, e);
     }
+    return out.toByteArray();
   }
 
-  String getImageName(Image image) {
-    String withExtension = getImageNameWithExtension(image);
-    String[] nameFragments = withExtension.split("\\.");
-    return nameFragments[0];
+  <T> T join(CompletableFuture<T> future) throws ProviderException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ProviderException) {
+        throw (ProviderException) e.getCause();
+      }
+      throw ProviderExceptions.UnableToGetObject(Image.NAME, e.getCause());
+    }
+  }
+
+  String getTileName(int row, int col, String extension) {
+    return row + "_" + col + "." + extension;
+  }
+
+  String getMimeType(String extension) {
+    return "jpg".equalsIgnoreCase(extension) ? "image/jpeg" : "image/" + extension.toLowerCase();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    encoders.shutdown();
+  }
+
+  synchronized ImageCache getCache() {
+    if (cache == null) {
+      cache = new ImageCache(Paths.get(imageConfig.getCacheDir()), imageConfig.getCacheMaxSize());
+    }
+    return cache;
   }
 
   String getImageExtension(Image image) {
@@ -147,23 +340,29 @@ class ImageUtils {
     return fragments[fragments.length - 1];
   }
 
-  URL getTrustedUrl(String url) throws MalformedURLException, ProviderException {
-    TrustManager[] trustAllCerts = getTrustManager();
-
-    SSLContext sc = null;
-    try {
-      sc = SSLContext.getInstance("SSL");
-      sc.init(null, trustAllCerts, new java.security.SecureRandom());
-    } catch (NoSuchAlgorithmException | KeyManagementException e) {
-      throw ProviderExceptions.UnableToSetupTrustManager(url,e);
-    }
+  /**
+   * Installs the all-trusting SSL context and host name verifier once
+   */
+  synchronized URL getTrustedUrl(String url) throws MalformedURLException, ProviderException {
+    if (!trustInstalled) {
+      TrustManager[] trustAllCerts = getTrustManager();
+
+      SSLContext sc = null;
+      try {
+        sc = SSLContext.getInstance("SSL");
+        sc.init(null, trustAllCerts, new java.security.SecureRandom());
+      } catch (NoSuchAlgorithmException | KeyManagementException e) {
+        throw ProviderExceptions.UnableToSetupTrustManager(url,e);
+      }
 
-    HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
+      HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
 
-    // Create all-trusting host name verifier
-    HostnameVerifier allHostsValid = getHostnameVerifier();
-    // Install the all-trusting host verifier
-    HttpsURLConnection.setDefaultHostnameVerifier(allHostsValid);
+      // Create all-trusting host name verifier
+      HostnameVerifier allHostsValid = getHostnameVerifier();
+      // Install the all-trusting host verifier
+      HttpsURLConnection.setDefaultHostnameVerifier(allHostsValid);
+      trustInstalled = true;
+    }
 
     return new URL(url);
   }
@@ -188,4 +387,36 @@ class ImageUtils {
       }
     }};
   }
+
+  interface ImageLookup {
+    Image find() throws ProviderException;
+  }
+
+  static class SourceImage {
+    private final BufferedImage image;
+    private final String extension;
+    private final long size;
+
+    SourceImage(BufferedImage image, String extension) {
+      this.image = image;
+      this.extension = extension;
+      DataBuffer buffer = image.getRaster().getDataBuffer();
+      this.size = (long) buffer.getSize() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    BufferedImage getImage() {
+      return image;
+    }
+
+    String getExtension() {
+      return extension;
+    }
+
+    /**
+     * @return the size of the decoded pixels in bytes
+     */
+    long getSize() {
+      return size;
+    }
+  }
 }
@@ -5,6 +5,7 @@ import java.util.List;
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
 import com.aegean.icsd.mciobjects.images.beans.Image;
 import com.aegean.icsd.mciobjects.images.beans.ImageData;
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
 import com.aegean.icsd.mciobjects.sounds.beans.Sound;
 import com.aegean.icsd.mciobjects.words.beans.Word;
 
@@ -15,7 +16,11 @@ public interface IImageProvider {
 
   List<Image> getNewOrderedImagesFor(String entityName, int cardinality) throws ProviderException;
 
-  Image[][] getImageChunks(Image image, int rows, int cols) throws ProviderException;
+  /**
+   * The chunk of the image at the given row and column of a rows x cols grid, encoded on the fly from the image,
+   * without storing the chunk
+   */
+  ImageTile getImageTile(String imageId, int rows, int cols, int row, int col) throws ProviderException;
 
   Image selectImageByNode(String nodeName) throws ProviderException;
 
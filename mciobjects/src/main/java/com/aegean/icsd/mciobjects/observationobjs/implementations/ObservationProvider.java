@@ -1,6 +1,5 @@
 package com.aegean.icsd.mciobjects.observationobjs.implementations;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -111,16 +110,14 @@ public class ObservationProvider implements IObservationProvider {
   @Override
   public List<ObservationObj> selectObservationObjByEntityId(String entityId) throws ProviderException {
     List<String> ids = dao.getAssociatedObjectsOfEntityId(entityId, ObservationObj.class);
-    List<ObservationObj> observationObjs = new ArrayList<>();
-    for (String id : ids) {
-      ObservationObj obj = new ObservationObj();
-      obj.setId(id);
-      try {
-        List<ObservationObj> results = generator.selectGameObject(obj);
-        observationObjs.add(results.get(0));
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e);
-      }
+    List<ObservationObj> observationObjs;
+    try {
+      observationObjs = generator.selectGameObjects(ObservationObj.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e);
+    }
+    if (observationObjs.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject("entityId = " + entityId);
     }
     return observationObjs;
   }
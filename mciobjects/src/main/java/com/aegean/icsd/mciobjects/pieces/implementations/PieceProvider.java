@@ -14,8 +14,6 @@ import com.aegean.icsd.engine.rules.beans.EntityRestriction;
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
 import com.aegean.icsd.mciobjects.common.daos.IObjectsDao;
 import com.aegean.icsd.mciobjects.common.implementations.ProviderExceptions;
-import com.aegean.icsd.mciobjects.images.beans.Image;
-import com.aegean.icsd.mciobjects.images.interfaces.IImageProvider;
 import com.aegean.icsd.mciobjects.pieces.beans.Piece;
 import com.aegean.icsd.mciobjects.pieces.interfaces.IPieceProvider;
 
@@ -58,16 +56,6 @@ public class PieceProvider implements IPieceProvider {
     }
   }
 
-  @Override
-  public void setPieceImage(Piece piece, Image image) throws ProviderException {
-    EntityRestriction hasImage = pieceRules.get("hasImage");
-    try {
-      generator.createObjRelation(piece, image, hasImage.getOnProperty());
-    } catch (EngineException e) {
-      throw ProviderExceptions.GenerationError(Piece.NAME, e);
-    }
-  }
-
   @Override
   public List<Piece> selectPiecesForEntityOnProperty(String entityId, EntityProperty oProperty)
     throws ProviderException {
@@ -4,7 +4,6 @@ import java.util.List;
 
 import com.aegean.icsd.engine.rules.beans.EntityProperty;
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
-import com.aegean.icsd.mciobjects.images.beans.Image;
 import com.aegean.icsd.mciobjects.pieces.beans.Piece;
 
 public interface IPieceProvider {
@@ -12,8 +11,6 @@ public interface IPieceProvider {
 
   void connectPieces(Piece thisPiece, Piece otherPiece) throws ProviderException;
 
-  void setPieceImage(Piece piece, Image image) throws ProviderException;
-
   List<Piece> selectPiecesForEntityOnProperty(String entityId, EntityProperty oProperty) throws ProviderException;
 
   List<Piece> selectConnectingPieces(String pieceId) throws ProviderException;
@@ -111,26 +111,20 @@ public class QuestionProvider implements IQuestionProvider {
   @Override
   public List<Question> selectQuestionsForEntityId(String entityId) throws ProviderException {
     List<String> ids = dao.getAssociatedObjectsOfEntityId(entityId, Question.class);
-    List<Question> questions = new ArrayList<>();
+    List<Question> questions;
+    try {
+      questions = generator.selectGameObjects(Question.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject(Question.NAME + " for entityId = " + entityId, e);
+    }
 
-    for (String id : ids) {
-      Question question = new Question();
-      question.setId(id);
-      try {
-        List<Question> results = generator.selectGameObject(question);
-        if (!results.isEmpty()) {
-          Question q = results.get(0);
-          if (q.isImageQuestion()) {
-            List<Image> associatedImages = imageProvider.selectImagesByEntityId(q.getId());
-            if (associatedImages.isEmpty()) {
-              throw ProviderExceptions.UnableToGetObject(Question.NAME + " for entityId = " + q.getId());
-            }
-            q.setDescription(associatedImages.get(0).getPath());
-          }
-          questions.add(q);
+    for (Question q : questions) {
+      if (q.isImageQuestion()) {
+        List<Image> associatedImages = imageProvider.selectImagesByEntityId(q.getId());
+        if (associatedImages.isEmpty()) {
+          throw ProviderExceptions.UnableToGetObject(Question.NAME + " for entityId = " + q.getId());
         }
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject(Question.NAME + " for entityId = " + entityId, e);
+        q.setDescription(associatedImages.get(0).getPath());
       }
     }
     return questions;
@@ -1,6 +1,5 @@
 package com.aegean.icsd.mciobjects.sounds.implementations;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -38,26 +37,14 @@ public class SoundProvider implements ISoundProvider {
 
   @Override
   public List<Sound> getNewSoundsFor(String entityName, int count, Sound criteria) throws ProviderException {
-    List<String> availableIds = dao.getNewObjectIdsFor(entityName, Sound.class);
-    if (availableIds.isEmpty()) {
-      throw ProviderExceptions.UnableToGenerateObject(Sound.NAME);
+    List<Sound> availableSounds;
+    try {
+      availableSounds = generator.selectRandomGameObjects(criteria, entityName, count);
+    } catch (EngineException e) {
+      throw ProviderExceptions.GenerationError(Sound.NAME, e);
     }
-    List<Sound> availableSounds = new ArrayList<>();
-    Collections.shuffle(availableIds, new Random(System.currentTimeMillis()));
-    for (String id : availableIds) {
-      Sound cp = copy(criteria);
-      cp.setId(id);
-      try {
-        List<Sound> results = generator.selectGameObject(cp);
-        if (!results.isEmpty()) {
-          availableSounds.add(results.get(0));
-        }
-      } catch (EngineException e) {
-        throw ProviderExceptions.GenerationError(Sound.NAME, e);
-      }
-      if(availableSounds.size() == count) {
-        break;
-      }
+    if (availableSounds.isEmpty()) {
+      throw ProviderExceptions.UnableToGenerateObject(Sound.NAME);
     }
 
     if(availableSounds.size() != count) {
@@ -70,16 +57,14 @@ public class SoundProvider implements ISoundProvider {
   @Override
   public List<Sound> selectSoundsByEntityId(String entityId) throws ProviderException {
     List<String> ids = dao.getAssociatedObjectsOfEntityId(entityId, Sound.class);
-    List<Sound> sounds = new ArrayList<>();
-    for (String id : ids) {
-      Sound sound = new Sound();
-      sound.setId(id);
-      try {
-        List<Sound> results = generator.selectGameObject(sound);
-        sounds.add(results.get(0));
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject(Sound.NAME + " for entityId = " + entityId, e);
-      }
+    List<Sound> sounds;
+    try {
+      sounds = generator.selectGameObjects(Sound.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject(Sound.NAME + " for entityId = " + entityId, e);
+    }
+    if (sounds.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject(Sound.NAME + " for entityId = " + entityId);
     }
     return sounds;
   }
@@ -114,12 +99,4 @@ public class SoundProvider implements ISoundProvider {
       throw ProviderExceptions.UnableToGetObject(Sound.NAME, e);
     }
   }
-
-  Sound copy(Sound toCopy) {
-    Sound cp = new Sound();
-    cp.setId(toCopy.getId());
-    cp.setPath(toCopy.getPath());
-    cp.setImageAssociated(toCopy.isImageAssociated());
-    return cp;
-  }
 }
@@ -1,9 +1,9 @@
 package com.aegean.icsd.mciobjects.words.implementations;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
@@ -61,26 +61,14 @@ public class WordProvider implements IWordProvider {
 
   @Override
   public List<Word> getNewWordsFor(String entityName, int count, Word criteria) throws ProviderException {
-    List<String> availableIds = dao.getNewObjectIdsFor(entityName, Word.class);
-    if (availableIds.isEmpty()) {
-      throw ProviderExceptions.UnableToGenerateObject(Word.NAME);
+    List<Word> availableWords;
+    try {
+      availableWords = generator.selectRandomGameObjects(criteria, entityName, count);
+    } catch (EngineException e) {
+      throw ProviderExceptions.GenerationError(Word.NAME, e);
     }
-    List<Word> availableWords = new ArrayList<>();
-    Collections.shuffle(availableIds, new Random(System.currentTimeMillis()));
-    for (String id : availableIds) {
-      Word cp = copy(criteria);
-      cp.setId(id);
-      try {
-        List<Word> results = generator.selectGameObject(cp);
-        if (!results.isEmpty()) {
-          availableWords.add(results.get(0));
-        }
-      } catch (EngineException e) {
-        throw ProviderExceptions.GenerationError(Word.NAME, e);
-      }
-      if(availableWords.size() == count) {
-        break;
-      }
+    if (availableWords.isEmpty()) {
+      throw ProviderExceptions.UnableToGenerateObject(Word.NAME);
     }
 
     if(availableWords.size() != count) {
@@ -118,16 +106,14 @@ public class WordProvider implements IWordProvider {
   @Override
   public List<Word> selectWordsByEntityId(String entityId) throws ProviderException {
     List<String> ids = dao.getAssociatedObjectsOfEntityId(entityId, Word.class);
-    List<Word> words = new ArrayList<>();
-    for (String id : ids) {
-      Word word = new Word();
-      word.setId(id);
-      try {
-        List<Word> results = generator.selectGameObject(word);
-        words.add(results.get(0));
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e);
-      }
+    List<Word> words;
+    try {
+      words = generator.selectGameObjects(Word.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e);
+    }
+    if (words.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject("entityId = " + entityId);
     }
     return words;
   }
@@ -136,16 +122,42 @@ public class WordProvider implements IWordProvider {
   public List<Word> selectWordsByEntityIdOnProperty(String entityId, EntityProperty onProperty)
     throws ProviderException {
     List<String> ids = dao.getAssociatedIdsOnPropertyForEntityId(entityId, onProperty, Word.class);
-    List<Word> words = new ArrayList<>();
-    for (String id : ids) {
-      Word word = new Word();
-      word.setId(id);
+    return selectWords(entityId, ids);
+  }
+
+  @Override
+  public List<List<Word>> selectWordsByEntityIdOnProperties(String entityId, List<EntityProperty> onProperties)
+    throws ProviderException {
+    List<CompletableFuture<List<String>>> pending = new ArrayList<>();
+    for (EntityProperty onProperty : onProperties) {
+      pending.add(dao.getAssociatedIdsOnPropertyForEntityIdAsync(entityId, onProperty, Word.class));
+    }
+
+    List<List<Word>> words = new ArrayList<>();
+    for (CompletableFuture<List<String>> ids : pending) {
+      List<String> resolved;
       try {
-        List<Word> results = generator.selectGameObject(word);
-        words.add(results.get(0));
-      } catch (EngineException e) {
-        throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e);
+        resolved = ids.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof ProviderException) {
+          throw (ProviderException) e.getCause();
+        }
+        throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e.getCause());
       }
+      words.add(selectWords(entityId, resolved));
+    }
+    return words;
+  }
+
+  List<Word> selectWords(String entityId, List<String> ids) throws ProviderException {
+    List<Word> words;
+    try {
+      words = generator.selectGameObjects(Word.class, ids);
+    } catch (EngineException e) {
+      throw ProviderExceptions.UnableToGetObject("entityId = " + entityId, e);
+    }
+    if (words.size() != ids.size()) {
+      throw ProviderExceptions.UnableToGetObject("entityId = " + entityId);
     }
     return words;
   }
@@ -166,14 +178,4 @@ public class WordProvider implements IWordProvider {
     word.setLength(value.length());
     return word;
   }
-
-  Word copy(Word word) {
-    Word cp = new Word();
-    cp.setId(word.getId());
-    cp.setLength(word.getLength());
-    cp.setValue(word.getValue());
-    cp.setAntonym(word.isAntonym());
-    cp.setSynonym(word.isSynonym());
-    return cp;
-  }
 }
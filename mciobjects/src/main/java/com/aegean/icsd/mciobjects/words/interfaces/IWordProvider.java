@@ -21,6 +21,14 @@ public interface IWordProvider {
 
   List<Word> selectWordsByEntityIdOnProperty(String entityId, EntityProperty onProperty) throws ProviderException;
 
+  /**
+   * Looks up the words of every property at the same time
+   *
+   * @return the words of every property, in the order of the properties
+   */
+  List<List<Word>> selectWordsByEntityIdOnProperties(String entityId, List<EntityProperty> onProperties)
+    throws ProviderException;
+
   boolean areSynonyms(Word thisWord, Word otherWord) throws ProviderException;
 
   boolean areAntonyms(Word thisWord, Word otherWord) throws ProviderException;
@@ -0,0 +1,184 @@
+package com.aegean.icsd.mciobjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.generator.beans.ObjectRelation;
+import com.aegean.icsd.engine.generator.interfaces.IGenerator;
+import com.aegean.icsd.engine.rules.beans.EntityProperty;
+import com.aegean.icsd.engine.rules.beans.EntityRestriction;
+import com.aegean.icsd.engine.rules.interfaces.IRules;
+import com.aegean.icsd.mciobjects.common.interfaces.IObjectFileProvider;
+import com.aegean.icsd.mciobjects.images.beans.Image;
+import com.aegean.icsd.mciobjects.images.configuration.ImageConfiguration;
+import com.aegean.icsd.mciobjects.sounds.beans.Sound;
+import com.aegean.icsd.mciobjects.sounds.configurations.SoundConfiguration;
+import com.aegean.icsd.mciobjects.words.beans.Word;
+import com.aegean.icsd.mciobjects.words.configuration.WordConfiguration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestObjectsBulkLoader {
+  private static final String[] RULES = {"synonymRes", "antonymRes", "soundSubjRes", "imageSubjRes", "imageTitleRes",
+    "hasPreviousImage", "hasAssociatedSound"};
+
+  @InjectMocks
+  private ObjectsBulkLoader loader;
+
+  @Spy
+  private WordConfiguration wordConfig = new WordConfiguration();
+
+  @Spy
+  private ImageConfiguration imageConfig = new ImageConfiguration();
+
+  @Spy
+  private SoundConfiguration soundConfig = new SoundConfiguration();
+
+  @Spy
+  private Map<String, EntityRestriction> initializerRules = new HashMap<>();
+
+  @Mock
+  private IGenerator generator;
+
+  @Mock
+  private IObjectFileProvider fileProvider;
+
+  @Mock
+  private IRules rules;
+
+  private final Sound existingSound = new Sound();
+  private final List<Collection<? extends BaseGameObject>> upserted = new CopyOnWriteArrayList<>();
+  private final List<List<ObjectRelation>> created = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() throws Throwable {
+    wordConfig.setLocation("words");
+    wordConfig.setFilename("words.csv");
+    wordConfig.setDelimiter(";");
+    wordConfig.setValueIndex(0);
+    wordConfig.setAntonymIndex(1);
+    wordConfig.setSynonymIndex(2);
+    wordConfig.setAntonymDelimiter(",");
+    wordConfig.setSynonymDelimiter(",");
+    soundConfig.setLocation("sounds");
+    soundConfig.setFilename("sounds.csv");
+    soundConfig.setDelimiter(";");
+    soundConfig.setUrlIndex(0);
+    soundConfig.setSubjectIndex(1);
+    imageConfig.setLocation("images");
+    imageConfig.setFilename("images.csv");
+    imageConfig.setDelimiter(";");
+    imageConfig.setUrlIndex(0);
+    imageConfig.setTitleIndex(1);
+    imageConfig.setSubjectIndex(2);
+    imageConfig.setParentIndex(3);
+    for (String rule : RULES) {
+      initializerRules.put(rule, restriction(rule));
+    }
+
+    given(rules.getProperty(Sound.NAME, "hasAssociatedImage")).willReturn(property("hasAssociatedImage"));
+    given(fileProvider.getLines("words/words.csv")).willReturn(Arrays.asList("big;small;large,huge", "dog"));
+    given(fileProvider.getLines("sounds/sounds.csv")).willReturn(Arrays.asList("s1;dog", "s2;dog", "s1;dog", "s3;cat"));
+    given(fileProvider.getLines("images/images.csv"))
+      .willReturn(Arrays.asList("i1;Dog;dog", "i2;Puppy;dog;i1", "i3;Tree;tree", "i1;Dog;dog"));
+
+    existingSound.setId("Sound_s1");
+    existingSound.setPath("s1");
+    given(generator.selectGameObject(any())).willAnswer(invocation ->
+      invocation.getArgument(0) instanceof Sound ? Collections.singletonList(existingSound) : Collections.emptyList());
+    willAnswer(invocation -> upserted.add(invocation.getArgument(0))).given(generator).upsertGameObjects(anyCollection());
+    willAnswer(invocation -> created.add(new ArrayList<>(invocation.<Collection<ObjectRelation>>getArgument(0))))
+      .given(generator).createObjRelations(anyCollection());
+  }
+
+  @Test
+  public void testObjectsAreUpsertedInBatches() throws Throwable {
+    loader.load();
+
+    Assertions.assertEquals(3, upserted.size());
+    Assertions.assertEquals(Arrays.asList("big", "small", "large", "huge", "dog", "cat", "Dog", "Puppy", "Tree", "tree"),
+      upserted.get(0).stream().map(word -> ((Word) word).getValue()).collect(Collectors.toList()));
+    Collection<? extends BaseGameObject> sounds = upserted.stream()
+      .filter(objects -> objects.iterator().next() instanceof Sound)
+      .findFirst()
+      .orElseThrow();
+    Assertions.assertEquals(3, sounds.size());
+    Assertions.assertSame(existingSound, sounds.iterator().next());
+    Assertions.assertEquals(1, created.size());
+  }
+
+  @Test
+  public void testSoundsAndImagesOfTheSameSubjectAreLinked() throws Throwable {
+    loader.load();
+
+    List<ObjectRelation> toImages = relations("hasAssociatedImage");
+    Assertions.assertEquals(Arrays.asList("s1", "s2"),
+      toImages.stream().map(relation -> ((Sound) relation.getThisObj()).getPath()).sorted().collect(Collectors.toList()));
+    for (ObjectRelation relation : toImages) {
+      Image image = (Image) relation.getThatObj();
+      Assertions.assertTrue(Arrays.asList("i1", "i2").contains(image.getPath()));
+      Assertions.assertTrue(image.isSoundAssociated());
+      Assertions.assertTrue(((Sound) relation.getThisObj()).isImageAssociated());
+    }
+
+    List<ObjectRelation> toSounds = relations("hasAssociatedSound");
+    Assertions.assertEquals(Arrays.asList("i1", "i2"),
+      toSounds.stream().map(relation -> ((Image) relation.getThisObj()).getPath()).sorted().collect(Collectors.toList()));
+    for (ObjectRelation relation : toSounds) {
+      Assertions.assertTrue(Arrays.asList("s1", "s2").contains(((Sound) relation.getThatObj()).getPath()));
+    }
+    Assertions.assertEquals(1, relations("hasPreviousImage").size());
+  }
+
+  @Test
+  public void testRepeatedLoadsDoNotAccumulate() throws Throwable {
+    loader.load();
+    loader.load();
+
+    Assertions.assertEquals(2, created.size());
+    Assertions.assertEquals(created.get(0).size(), created.get(1).size());
+    Assertions.assertEquals(upserted.get(0).size(), upserted.get(3).size());
+  }
+
+  List<ObjectRelation> relations(String property) {
+    return created.get(0).stream()
+      .filter(relation -> property.equals(relation.getOnProperty().getName()))
+      .collect(Collectors.toList());
+  }
+
+  EntityRestriction restriction(String name) {
+    EntityRestriction restriction = new EntityRestriction();
+    restriction.setOnProperty(property(name));
+    return restriction;
+  }
+
+  EntityProperty property(String name) {
+    EntityProperty property = new EntityProperty();
+    property.setName(name);
+    return property;
+  }
+}
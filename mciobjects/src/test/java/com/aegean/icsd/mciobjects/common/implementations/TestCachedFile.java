@@ -0,0 +1,126 @@
+package com.aegean.icsd.mciobjects.common.implementations;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestCachedFile {
+  private static final String NONE = "-";
+
+  @TempDir
+  Path dir;
+
+  private HttpServer server;
+  private String url;
+
+  private final List<String> conditions = new CopyOnWriteArrayList<>();
+  private volatile String etag = "\"v1\"";
+  private volatile String body = "a\nb\n";
+  private volatile boolean failing;
+  private volatile CountDownLatch gate = new CountDownLatch(0);
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/objects.csv", exchange -> {
+      String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+      conditions.add(condition == null ? NONE : condition);
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (failing) {
+        exchange.sendResponseHeaders(500, -1);
+      } else if (etag.equals(condition)) {
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(200, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(content);
+        }
+      }
+      exchange.close();
+    });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/objects.csv";
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testNotModified() throws IOException {
+    CachedFile file = new CachedFile(url, dir, 0, Runnable::run);
+    List<String> lines = file.getLines();
+    Assertions.assertEquals(Arrays.asList("a", "b"), lines);
+
+    Assertions.assertSame(lines, file.getLines());
+    Assertions.assertEquals(Arrays.asList(NONE, "\"v1\""), conditions);
+
+    etag = "\"v2\"";
+    body = "c\n";
+    Assertions.assertSame(lines, file.getLines());
+    Assertions.assertEquals(Collections.singletonList("c"), file.getLines());
+    Assertions.assertEquals(Arrays.asList(NONE, "\"v1\"", "\"v1\"", "\"v2\""), conditions);
+  }
+
+  @Test
+  public void testFailureKeepsTheStaleCopy() throws IOException {
+    CachedFile file = new CachedFile(url, dir, 0, Runnable::run);
+    List<String> lines = file.getLines();
+
+    failing = true;
+    Assertions.assertSame(lines, file.getLines());
+    Assertions.assertSame(lines, file.getLines());
+    Assertions.assertEquals(Arrays.asList("a", "b"), new CachedFile(url, dir, 0, Runnable::run).getLines());
+    Assertions.assertThrows(IOException.class,
+      () -> new CachedFile(url, dir.resolve("empty"), 0, Runnable::run).getLines());
+  }
+
+  @Test
+  public void testStaleCopyIsReturnedWhileRevalidating() throws IOException, InterruptedException {
+    ExecutorService revalidators = Executors.newCachedThreadPool();
+    try {
+      CachedFile file = new CachedFile(url, dir, 0, revalidators);
+      List<String> lines = file.getLines();
+
+      gate = new CountDownLatch(1);
+      Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        for (int i = 0; i < 5; i++) {
+          Assertions.assertSame(lines, file.getLines());
+        }
+      });
+      gate.countDown();
+    } finally {
+      revalidators.shutdown();
+    }
+    Assertions.assertTrue(revalidators.awaitTermination(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(2, conditions.size());
+  }
+}
@@ -0,0 +1,196 @@
+package com.aegean.icsd.mciobjects.images.implementations;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aegean.icsd.mciobjects.common.beans.ProviderException;
+import com.aegean.icsd.mciobjects.images.beans.Image;
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
+import com.aegean.icsd.mciobjects.images.configuration.ImageConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestImageUtils {
+  private static final int THREADS = 8;
+  private static final long IMAGE_SIZE = 40 * 20 * 4;
+
+  @TempDir
+  Path dir;
+
+  @Spy
+  private ImageConfiguration imageConfig = new ImageConfiguration();
+
+  @InjectMocks
+  private ImageUtils imageUtils;
+
+  @BeforeEach
+  public void setUp() {
+    imageConfig.setCacheDir(dir.resolve("cache").toString());
+    imageConfig.setCacheMaxSize(1024 * 1024);
+    imageConfig.setSourceCacheMaxSize(2 * IMAGE_SIZE);
+  }
+
+  @Test
+  public void testConcurrentLoads() throws Throwable {
+    Image image = createImage("i1");
+    AtomicInteger lookups = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    Callable<ImageUtils.SourceImage> load = () -> {
+      start.await();
+      try {
+        return imageUtils.getSourceImage("i1", () -> {
+          lookups.incrementAndGet();
+          return image;
+        });
+      } catch (ProviderException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<ImageUtils.SourceImage>> loads = new ArrayList<>();
+    try {
+      for (int i = 0; i < THREADS; i++) {
+        loads.add(executor.submit(load));
+      }
+      start.countDown();
+      ImageUtils.SourceImage first = loads.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<ImageUtils.SourceImage> other : loads) {
+        Assertions.assertSame(first, other.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals(1, lookups.get());
+    Assertions.assertEquals(IMAGE_SIZE, loads.get(0).get().getSize());
+  }
+
+  @Test
+  public void testEvictionBySize() throws Throwable {
+    AtomicInteger lookups = new AtomicInteger();
+    for (String id : new String[] {"i1", "i2", "i1", "i3", "i1", "i2"}) {
+      Image image = createImage(id);
+      imageUtils.getSourceImage(id, () -> {
+        lookups.incrementAndGet();
+        return image;
+      });
+    }
+    Assertions.assertEquals(4, lookups.get());
+  }
+
+  @Test
+  public void testFailedLoadIsRetried() throws Throwable {
+    Image image = createImage("i1");
+    Assertions.assertThrows(ProviderException.class, () -> imageUtils.getSourceImage("i1", () -> {
+      throw new ProviderException("TEST.1", "Unavailable");
+    }));
+    Assertions.assertNotNull(imageUtils.getSourceImage("i1", () -> image));
+  }
+
+  @Test
+  public void testTilesAreEncodedOnce() throws Throwable {
+    Image image = createImage("i1");
+    AtomicInteger lookups = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<ImageTile>> tiles = new ArrayList<>();
+    try {
+      for (int i = 0; i < THREADS; i++) {
+        int tile = i % 4;
+        tiles.add(executor.submit(() -> {
+          start.await();
+          try {
+            return imageUtils.getTile("i1", 2, 2, tile / 2, tile % 2, () -> {
+              lookups.incrementAndGet();
+              return image;
+            });
+          } catch (ProviderException e) {
+            throw new IllegalStateException(e);
+          }
+        }));
+      }
+      start.countDown();
+      for (Future<ImageTile> tile : tiles) {
+        ImageTile encoded = tile.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals("image/png", encoded.getMimeType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded.getContent()));
+        Assertions.assertEquals(20, decoded.getWidth());
+        Assertions.assertEquals(10, decoded.getHeight());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals(1, lookups.get());
+    Assertions.assertNotNull(imageUtils.getTile("i1", 2, 2, 1, 1, () -> {
+      throw new ProviderException("TEST.1", "Looked up");
+    }));
+  }
+
+  @Test
+  public void testTilesAreEvictedBySize() throws Throwable {
+    imageConfig.setCacheMaxSize(1);
+    Image image = createImage("i1");
+    imageUtils.getTile("i1", 2, 2, 0, 0, () -> image);
+    imageUtils.getTile("i1", 3, 3, 0, 0, () -> image);
+
+    try (Stream<Path> folders = Files.list(dir.resolve("cache"))) {
+      Assertions.assertEquals(List.of(ImageCache.tilesKey("i1", 3, 3)),
+        folders.map(folder -> folder.getFileName().toString()).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void testParallelEncodingKeepsTheGridOrder() throws Throwable {
+    BufferedImage pixels = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+    for (int x = 0; x < 50; x++) {
+      for (int y = 0; y < 50; y++) {
+        pixels.setRGB(x, y, x * 5 << 16 | y * 5);
+      }
+    }
+    ImageUtils.SourceImage source = new ImageUtils.SourceImage(pixels, "png");
+
+    byte[][] tiles = imageUtils.encodeTiles(source, 5, 5);
+    Assertions.assertEquals(25, tiles.length);
+    for (int i = 0; i < tiles.length; i++) {
+      Assertions.assertArrayEquals(imageUtils.encodeTile(source, 5, 5, i / 5, i % 5), tiles[i]);
+    }
+    imageUtils.shutdown();
+  }
+
+  Image createImage(String id) throws IOException {
+    Path file = dir.resolve(id + ".png");
+    if (!file.toFile().exists()) {
+      ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+    }
+    Image image = new Image();
+    image.setId(id);
+    image.setPath(file.toUri().toString());
+    return image;
+  }
+}
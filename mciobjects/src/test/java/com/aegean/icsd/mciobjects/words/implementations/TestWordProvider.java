@@ -0,0 +1,99 @@
+package com.aegean.icsd.mciobjects.words.implementations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aegean.icsd.engine.generator.interfaces.IGenerator;
+import com.aegean.icsd.engine.rules.beans.EntityProperty;
+import com.aegean.icsd.mciobjects.common.beans.ProviderException;
+import com.aegean.icsd.mciobjects.common.daos.IObjectsDao;
+import com.aegean.icsd.mciobjects.words.beans.Word;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestWordProvider {
+  private static final String GAME = "Questions_1";
+
+  @InjectMocks
+  private WordProvider provider;
+
+  @Mock
+  private IObjectsDao dao;
+
+  @Mock
+  private IGenerator generator;
+
+  @Test
+  public void testWordsOfAllPropertiesAreLookedUpTogether() throws Throwable {
+    EntityProperty answer = property("hasAnswer");
+    EntityProperty choice = property("hasChoice");
+    CompletableFuture<List<String>> answerIds = new CompletableFuture<>();
+    CompletableFuture<List<String>> choiceIds = new CompletableFuture<>();
+    given(dao.getAssociatedIdsOnPropertyForEntityIdAsync(GAME, answer, Word.class)).willReturn(answerIds);
+    given(dao.getAssociatedIdsOnPropertyForEntityIdAsync(GAME, choice, Word.class)).willReturn(choiceIds);
+    given(generator.selectGameObjects(eq(Word.class), anyList())).willAnswer(invocation ->
+      invocation.<List<String>>getArgument(1).stream().map(this::word).collect(Collectors.toList()));
+
+    CompletableFuture<List<List<Word>>> words = CompletableFuture.supplyAsync(() -> {
+      try {
+        return provider.selectWordsByEntityIdOnProperties(GAME, Arrays.asList(answer, choice));
+      } catch (ProviderException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    verify(dao, timeout(10000)).getAssociatedIdsOnPropertyForEntityIdAsync(GAME, choice, Word.class);
+    Assertions.assertFalse(words.isDone());
+
+    choiceIds.complete(Arrays.asList("b", "c"));
+    answerIds.complete(Collections.singletonList("a"));
+    List<List<Word>> results = words.join();
+    Assertions.assertEquals(Collections.singletonList("a"), values(results.get(0)));
+    Assertions.assertEquals(Arrays.asList("b", "c"), values(results.get(1)));
+  }
+
+  @Test
+  public void testFailedLookup() {
+    EntityProperty answer = property("hasAnswer");
+    ProviderException error = new ProviderException("TEST.1", "Failed");
+    given(dao.getAssociatedIdsOnPropertyForEntityIdAsync(GAME, answer, Word.class))
+      .willReturn(CompletableFuture.failedFuture(error));
+
+    ProviderException thrown = Assertions.assertThrows(ProviderException.class,
+      () -> provider.selectWordsByEntityIdOnProperties(GAME, Collections.singletonList(answer)));
+    Assertions.assertSame(error, thrown);
+  }
+
+  List<String> values(List<Word> words) {
+    return words.stream().map(Word::getValue).collect(Collectors.toList());
+  }
+
+  Word word(String value) {
+    Word word = new Word();
+    word.setValue(value);
+    return word;
+  }
+
+  EntityProperty property(String name) {
+    EntityProperty property = new EntityProperty();
+    property.setName(name);
+    return property;
+  }
+}
@@ -4,8 +4,10 @@ import java.util.Collections;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
@@ -14,12 +16,17 @@ import org.springframework.web.servlet.config.annotation.DefaultServletHandlerCo
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.aegean.icsd.mciwebapp.common.configuration.GamePoolConfiguration;
+import com.aegean.icsd.mciwebapp.common.configuration.SnapshotConfiguration;
+
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.internal.bind.DateTypeAdapter;
 
 @Configuration
 @EnableWebMvc
 @ComponentScan({"com.aegean.icsd.engine", "com.aegean.icsd.mciwebapp", "com.aegean.icsd.mciobjects"})
+@PropertySource("classpath:com/aegean/icsd/mciwebapp/mciwebapp.properties")
 public class WebAppConfig implements WebMvcConfigurer {
 
   @Autowired
@@ -32,13 +39,35 @@ public class WebAppConfig implements WebMvcConfigurer {
 
   @Override
   public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-    GsonBuilder b = new GsonBuilder();
-    b.registerTypeAdapterFactory(DateTypeAdapter.FACTORY);
-
     GsonHttpMessageConverter gsonHttpMessageConverter = new GsonHttpMessageConverter();
-    gsonHttpMessageConverter.setGson(b.create());
+    gsonHttpMessageConverter.setGson(getGson());
     gsonHttpMessageConverter.setSupportedMediaTypes(Collections.singletonList(MediaType.APPLICATION_JSON));
     converters.add(gsonHttpMessageConverter);
   }
 
+  @Bean
+  public Gson getGson() {
+    GsonBuilder b = new GsonBuilder();
+    b.registerTypeAdapterFactory(DateTypeAdapter.FACTORY);
+    return b.create();
+  }
+
+  @Bean
+  public GamePoolConfiguration getGamePoolConfiguration() {
+    GamePoolConfiguration config = new GamePoolConfiguration();
+    config.setEnabled(env.getProperty("gamePool.enabled", Boolean.class, true));
+    config.setSize(env.getProperty("gamePool.size", Integer.class, 5));
+    config.setLowWaterMark(env.getProperty("gamePool.lowWaterMark", Integer.class, 2));
+    config.setThreads(env.getProperty("gamePool.threads", Integer.class, 2));
+    return config;
+  }
+
+  @Bean
+  public SnapshotConfiguration getSnapshotConfiguration() {
+    SnapshotConfiguration config = new SnapshotConfiguration();
+    config.setDir(env.getProperty("snapshots.dir", "snapshots"));
+    config.setMaxEntries(env.getProperty("snapshots.maxEntries", Integer.class, 1000));
+    config.setMaxFiles(env.getProperty("snapshots.maxFiles", Integer.class, 100000));
+    return config;
+  }
 }
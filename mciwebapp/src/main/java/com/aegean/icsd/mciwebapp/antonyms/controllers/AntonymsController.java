@@ -23,8 +23,8 @@ import com.aegean.icsd.engine.common.beans.Difficulty;
 import com.aegean.icsd.mciwebapp.antonyms.beans.AntonymResponse;
 import com.aegean.icsd.mciwebapp.antonyms.beans.Antonyms;
 import com.aegean.icsd.mciwebapp.antonyms.interfaces.IAntonymsSvc;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.synonyms.beans.SynonymRequest;
@@ -47,12 +47,11 @@ public class AntonymsController {
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<Antonyms>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
                                                             @RequestParam(name = "completed", required = false) Boolean completed,
+                                                            @RequestParam(name = "cursor", required = false) String cursor,
+                                                            @RequestParam(name = "limit", required = false) Integer limit,
                                                             @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-
-    List<ServiceResponse<Antonyms>> responses = antonymsSvc.getGames(player, Antonyms.class);
-    List<ServiceResponse<Antonyms>> filtered = FilterResponse.by(responses, difficulty, completed);
-
-    return new Response<>(filtered);
+    PageResponse<Antonyms> page = antonymsSvc.getGames(player, difficulty, completed, cursor, limit, Antonyms.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -23,8 +23,8 @@ import com.aegean.icsd.mciwebapp.calculations.beans.Calculation;
 import com.aegean.icsd.mciwebapp.calculations.beans.CalculationRequest;
 import com.aegean.icsd.mciwebapp.calculations.beans.CalculationResponse;
 import com.aegean.icsd.mciwebapp.calculations.interfaces.ICalculationSvc;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.hidingblocks.beans.HidingBlocks;
@@ -48,10 +48,11 @@ public class CalculationController {
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<Calculation>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
                                                                @RequestParam(name = "completed", required = false) Boolean completed,
+                                                               @RequestParam(name = "cursor", required = false) String cursor,
+                                                               @RequestParam(name = "limit", required = false) Integer limit,
                                                                @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-    List<ServiceResponse<Calculation>> responses = calculationSvc.getGames(player, Calculation.class);
-    List<ServiceResponse<Calculation>> filtered = FilterResponse.by(responses, difficulty, completed);
-    return new Response<>(filtered);
+    PageResponse<Calculation> page = calculationSvc.getGames(player, difficulty, completed, cursor, limit, Calculation.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -23,8 +23,8 @@ import com.aegean.icsd.mciwebapp.chronorder.beans.ChronologicalOrder;
 import com.aegean.icsd.mciwebapp.chronorder.beans.ChronologicalOrderRequest;
 import com.aegean.icsd.mciwebapp.chronorder.beans.ChronologicalOrderResponse;
 import com.aegean.icsd.mciwebapp.chronorder.interfaces.IChronologicalOrderSvc;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.recall.beans.Recall;
@@ -47,11 +47,12 @@ public class ChronologicalOrderController {
     produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<ChronologicalOrder>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
-                                                          @RequestParam(name = "completed", required = false) Boolean completed,
-                                                          @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-    List<ServiceResponse<ChronologicalOrder>> responses = chronoSvc.getGames(player, ChronologicalOrder.class);
-    List<ServiceResponse<ChronologicalOrder>> filtered = FilterResponse.by(responses, difficulty, completed);
-    return new Response<>(filtered);
+                                                                      @RequestParam(name = "completed", required = false) Boolean completed,
+                                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                                      @RequestParam(name = "limit", required = false) Integer limit,
+                                                                      @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
+    PageResponse<ChronologicalOrder> page = chronoSvc.getGames(player, difficulty, completed, cursor, limit, ChronologicalOrder.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -0,0 +1,23 @@
+package com.aegean.icsd.mciwebapp.common.beans;
+
+import java.util.List;
+
+import com.aegean.icsd.engine.common.beans.BaseGame;
+
+public class PageResponse<T extends BaseGame> {
+  private List<ServiceResponse<T>> games;
+  private String next;
+
+  public PageResponse(List<ServiceResponse<T>> games, String next) {
+    this.games = games;
+    this.next = next;
+  }
+
+  public List<ServiceResponse<T>> getGames() {
+    return games;
+  }
+
+  public String getNext() {
+    return next;
+  }
+}
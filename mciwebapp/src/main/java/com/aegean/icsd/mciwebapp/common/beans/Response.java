@@ -3,11 +3,17 @@ package com.aegean.icsd.mciwebapp.common.beans;
 public class Response<T> {
   private T payload;
   private AppError error;
+  private String next;
 
   public Response(T payload) {
     this.payload = payload;
   }
 
+  public Response(T payload, String next) {
+    this.payload = payload;
+    this.next = next;
+  }
+
   public AppError getError() {
     return error;
   }
@@ -19,4 +25,11 @@ public class Response<T> {
   public T getPayload() {
     return payload;
   }
+
+  /**
+   * @return the cursor of the next page of the payload, or null if there is no next page
+   */
+  public String getNext() {
+    return next;
+  }
 }
@@ -0,0 +1,40 @@
+package com.aegean.icsd.mciwebapp.common.configuration;
+
+public class GamePoolConfiguration {
+  private boolean enabled;
+  private int size;
+  private int lowWaterMark;
+  private int threads;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  public int getLowWaterMark() {
+    return lowWaterMark;
+  }
+
+  public void setLowWaterMark(int lowWaterMark) {
+    this.lowWaterMark = lowWaterMark;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+}
@@ -0,0 +1,31 @@
+package com.aegean.icsd.mciwebapp.common.configuration;
+
+public class SnapshotConfiguration {
+  private String dir;
+  private int maxEntries;
+  private int maxFiles;
+
+  public String getDir() {
+    return dir;
+  }
+
+  public void setDir(String dir) {
+    this.dir = dir;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public void setMaxEntries(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public int getMaxFiles() {
+    return maxFiles;
+  }
+
+  public void setMaxFiles(int maxFiles) {
+    this.maxFiles = maxFiles;
+  }
+}
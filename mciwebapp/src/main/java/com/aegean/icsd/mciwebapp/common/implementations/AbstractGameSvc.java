@@ -3,6 +3,7 @@ package com.aegean.icsd.mciwebapp.common.implementations;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -14,6 +15,7 @@ import com.aegean.icsd.engine.common.beans.EngineException;
 import com.aegean.icsd.engine.core.interfaces.IAnnotationReader;
 import com.aegean.icsd.engine.common.beans.BaseGame;
 import com.aegean.icsd.engine.common.beans.BaseGameObject;
+import com.aegean.icsd.engine.generator.beans.GamePage;
 import com.aegean.icsd.engine.generator.interfaces.IGenerator;
 import com.aegean.icsd.engine.rules.beans.EntityProperty;
 import com.aegean.icsd.engine.rules.beans.EntityRestriction;
@@ -21,6 +23,7 @@ import com.aegean.icsd.engine.rules.beans.RulesException;
 import com.aegean.icsd.engine.rules.interfaces.IRules;
 import com.aegean.icsd.mciwebapp.common.GameExceptions;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.common.interfaces.IGameService;
 import com.aegean.icsd.mciwebapp.synonyms.beans.Synonyms;
@@ -29,6 +32,8 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
     implements IGameService<T, R> {
 
   private static Logger LOGGER = Logger.getLogger(AbstractGameSvc.class);
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int MAX_PAGE_SIZE = 500;
 
   @Autowired
   private IGenerator generator;
@@ -39,6 +44,12 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
   @Autowired
   private IRules rules;
 
+  @Autowired
+  private GamePool gamePool;
+
+  @Autowired
+  private ResponseSnapshots snapshots;
+
   protected abstract void handleDataTypeRestrictions(String fullName, T toCreate) throws MciException;
   protected abstract void handleObjectRestrictions(String fullName, T toCreate) throws MciException;
   protected abstract boolean isValid(Object solution);
@@ -46,29 +57,36 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
   protected abstract R toResponse(T game) throws MciException;
 
   @Override
-  public List<ServiceResponse<T>> getGames(String playerName, Class<T> gameClass)
-      throws MciException {
+  public PageResponse<T> getGames(String playerName, String difficulty, Boolean completed, String cursor,
+      Integer limit, Class<T> gameClass) throws MciException {
 
     String gameName = getGameName(gameClass);
 
-    if (StringUtils.isEmpty(playerName)) {
+    if (StringUtils.isEmpty(playerName)
+        || (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE))) {
       throw GameExceptions.InvalidRequest(gameName);
     }
 
-    List<T> games;
+    GamePage<T> page;
     try {
       T criteria = gameClass.getDeclaredConstructor().newInstance();
       criteria.setPlayerName(playerName);
-      games = generator.selectGame(criteria);
+      if (!StringUtils.isEmpty(difficulty)) {
+        criteria.setDifficulty(Difficulty.valueOf(difficulty.toUpperCase()));
+      }
+      page = generator.selectGamePage(criteria, completed, StringUtils.isEmpty(cursor) ? null : cursor,
+        limit == null ? DEFAULT_PAGE_SIZE : limit);
+    } catch (IllegalArgumentException e) {
+      throw GameExceptions.InvalidRequest(gameName);
     } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException | EngineException e) {
       throw GameExceptions.FailedToRetrieveGames(gameClass.getSimpleName(), playerName, e);
     }
     List<ServiceResponse<T>> gameResponses = new ArrayList<>();
-    for (T game : games) {
+    for (T game : page.getGames()) {
       ServiceResponse<T> respItem = new ServiceResponse<>(game);
       gameResponses.add(respItem);
     }
-    return gameResponses;
+    return new PageResponse<>(gameResponses, page.getNext());
   }
 
   @Override
@@ -89,6 +107,38 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
     }
     int newLevel = lastCompletedLevel + 1;
 
+    T toCreate = gamePool.claim(fullName);
+    if (toCreate != null) {
+      LOGGER.debug(String.format("Claimed game %s of the pool of %s", toCreate.getId(), fullName));
+      toCreate.setPlayerName(playerName);
+      toCreate.setLevel(newLevel);
+      try {
+        generator.upsertGame(toCreate);
+      } catch (EngineException e) {
+        throw GameExceptions.GenerationError(fullName, e);
+      }
+    } else {
+      toCreate = generateGame(fullName, difficulty, gameClass, playerName, newLevel);
+    }
+    gamePool.refill(fullName, () -> generateGame(fullName, difficulty, gameClass, null, null),
+      () -> selectUnclaimedGames(fullName, difficulty, gameClass));
+
+    R response = toResponse(toCreate);
+    snapshots.put(toCreate.getId(), response);
+    return response;
+  }
+
+  /**
+   * Generates a new game. A game without a player is generated for the {@link GamePool}, with an id of its own,
+   * as the id of the game is based on its player and level otherwise.
+   * <p>
+   * The game is written after its objects are associated with it, so that a generation that fails part-way leaves
+   * no game behind to be reloaded by the {@link GamePool}.
+   */
+  T generateGame(String fullName, Difficulty difficulty, Class<T> gameClass, String playerName, Integer level)
+    throws MciException {
+    String gameName = getGameName(gameClass);
+
     EntityRestriction maxCompleteTimeRes;
     try {
       maxCompleteTimeRes = rules.getEntityRestriction(fullName, "maxCompletionTime");
@@ -105,19 +155,41 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
 
     toCreate.setMaxCompletionTime(generator.generateLongDataValue(maxCompleteTimeRes.getDataRange()));
     toCreate.setPlayerName(playerName);
-    toCreate.setLevel(newLevel);
+    toCreate.setLevel(level);
     toCreate.setDifficulty(difficulty);
+    if (playerName == null) {
+      toCreate.setId(fullName + "_" + UUID.randomUUID().toString().replace("-", ""));
+    }
 
+    handleDataTypeRestrictions(fullName, toCreate);
     try {
-      handleDataTypeRestrictions(fullName, toCreate);
-      generator.upsertGame(toCreate);
+      ano.setEntityId(toCreate);
     } catch (EngineException e) {
       throw GameExceptions.GenerationError(fullName, e);
     }
 
     handleObjectRestrictions(fullName, toCreate);
 
-    return toResponse(toCreate);
+    try {
+      generator.upsertGame(toCreate);
+    } catch (EngineException e) {
+      throw GameExceptions.GenerationError(fullName, e);
+    }
+
+    return toCreate;
+  }
+
+  /**
+   * @return the games without a player that were generated for the {@link GamePool}
+   */
+  List<T> selectUnclaimedGames(String fullName, Difficulty difficulty, Class<T> gameClass) throws MciException {
+    try {
+      T criteria = gameClass.getDeclaredConstructor().newInstance();
+      criteria.setDifficulty(difficulty);
+      return generator.selectGamesWithoutPlayer(criteria);
+    } catch (EngineException | InstantiationException | InvocationTargetException | NoSuchMethodException | IllegalAccessException e) {
+      throw GameExceptions.GenerationError(fullName, e);
+    }
   }
 
   @Override
@@ -129,6 +201,13 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
       throw GameExceptions.InvalidRequest(gameName);
     }
 
+    R snapshot = snapshots.get(id);
+    if (snapshot != null
+        && gameClass.isInstance(snapshot.getGame())
+        && player.equals(snapshot.getGame().getPlayerName())) {
+      return snapshot;
+    }
+
     try {
       T criteria = gameClass.getDeclaredConstructor().newInstance();
       criteria.setId(id);
@@ -137,7 +216,9 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
       if (results.size() != 1) {
         throw GameExceptions.UnableToRetrieveGame(gameName, id, player);
       }
-      return toResponse(results.get(0));
+      R response = toResponse(results.get(0));
+      snapshots.put(id, response);
+      return response;
     } catch (EngineException | InstantiationException | InvocationTargetException | NoSuchMethodException | IllegalAccessException e) {
       throw GameExceptions.UnableToRetrieveGame(gameName, id, player, e);
     }
@@ -174,9 +255,11 @@ public abstract class AbstractGameSvc <T extends BaseGame, R extends ServiceResp
       } catch (EngineException e) {
         throw GameExceptions.GenerationError(gameName, e);
       }
+      gameResponse = toResponse(game);
+      snapshots.put(id, gameResponse);
     }
 
-    return toResponse(game);
+    return gameResponse;
   }
 
   String getGameName (Class<T> gameClass) throws MciException {
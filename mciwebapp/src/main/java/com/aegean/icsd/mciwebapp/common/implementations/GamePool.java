@@ -0,0 +1,126 @@
+package com.aegean.icsd.mciwebapp.common.implementations;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aegean.icsd.engine.common.beans.BaseGame;
+import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.configuration.GamePoolConfiguration;
+
+/**
+ * Games that are generated in the background, before any player asks for them, and kept per full game name,
+ * i.e. per game and difficulty. A pool is created the first time a game is created and is refilled up to its size
+ * every time it drops below its low water mark.
+ * <p>
+ * The games of the pools have no player and level, so they are not visible to any player until they are claimed.
+ * The pools are kept in memory only. The games that were left unclaimed by a previous run are reloaded into their
+ * pool before the pool is refilled for the first time.
+ */
+@Component
+public class GamePool {
+  private static Logger LOGGER = Logger.getLogger(GamePool.class);
+
+  @Autowired
+  private GamePoolConfiguration config;
+
+  private final ConcurrentMap<String, BlockingQueue<BaseGame>> pools = new ConcurrentHashMap<>();
+  private final Set<String> refilling = ConcurrentHashMap.newKeySet();
+  private final Set<String> reloaded = ConcurrentHashMap.newKeySet();
+  private ExecutorService workers;
+
+  /**
+   * @return a game of the pool of the full game name, or null if the pool is empty
+   */
+  @SuppressWarnings("unchecked")
+  <T extends BaseGame> T claim(String fullName) {
+    if (!config.isEnabled()) {
+      return null;
+    }
+    BlockingQueue<BaseGame> pool = pools.get(fullName);
+    return pool == null ? null : (T) pool.poll();
+  }
+
+  /**
+   * Refills the pool of the full game name in the background with the given generation, if it has dropped
+   * below its low water mark and it is not refilled already. The first time, the pool is refilled with the
+   * unclaimed games of the reload before any game is generated.
+   */
+  void refill(String fullName, Generation generation, Reload reload) {
+    if (!config.isEnabled()) {
+      return;
+    }
+    BlockingQueue<BaseGame> pool = pools.computeIfAbsent(fullName, x -> new LinkedBlockingQueue<>());
+    if (pool.size() >= config.getLowWaterMark() || !refilling.add(fullName)) {
+      return;
+    }
+    getWorkers().submit(() -> {
+      try {
+        if (!reloaded.contains(fullName)) {
+          reload(fullName, pool, reload);
+        }
+        long start = System.currentTimeMillis();
+        int generated = 0;
+        while (pool.size() < config.getSize()) {
+          pool.add(generation.generate());
+          generated++;
+        }
+        LOGGER.info(String.format("Generated %d games of %s in %d ms", generated, fullName,
+          System.currentTimeMillis() - start));
+      } catch (MciException | RuntimeException e) {
+        LOGGER.error(String.format("Unable to generate the games of %s", fullName), e);
+      } finally {
+        refilling.remove(fullName);
+      }
+    });
+  }
+
+  void reload(String fullName, BlockingQueue<BaseGame> pool, Reload reload) {
+    try {
+      List<? extends BaseGame> unclaimed = reload.select();
+      pool.addAll(unclaimed);
+      reloaded.add(fullName);
+      LOGGER.info(String.format("Reloaded %d unclaimed games of %s", unclaimed.size(), fullName));
+    } catch (MciException | RuntimeException e) {
+      LOGGER.error(String.format("Unable to reload the unclaimed games of %s", fullName), e);
+    }
+  }
+
+  synchronized ExecutorService getWorkers() {
+    if (workers == null) {
+      AtomicInteger count = new AtomicInteger();
+      workers = Executors.newFixedThreadPool(config.getThreads(), runnable -> {
+        Thread thread = new Thread(runnable, "game-pool-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return workers;
+  }
+
+  @PreDestroy
+  synchronized void shutdown() {
+    if (workers != null) {
+      workers.shutdownNow();
+    }
+  }
+
+  interface Generation {
+    BaseGame generate() throws MciException;
+  }
+
+  interface Reload {
+    List<? extends BaseGame> select() throws MciException;
+  }
+}
@@ -0,0 +1,220 @@
+package com.aegean.icsd.mciwebapp.common.implementations;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
+import com.aegean.icsd.mciwebapp.common.configuration.SnapshotConfiguration;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Snapshots of the responses of the games, keyed by the id of the game. A game does not change after its creation,
+ * apart from its completion, so its response is stored once when it is created and replaced when it is solved.
+ * <p>
+ * The snapshots are kept as json, in memory for the most recently used games and on the disk for the most recently
+ * written ones, and every read returns a new copy, so that the callers can't modify a snapshot. The json is written
+ * with the Gson of the responses of the api.
+ */
+@Component
+public class ResponseSnapshots {
+  private static Logger LOGGER = Logger.getLogger(ResponseSnapshots.class);
+
+  private static final Pattern VALID_ID = Pattern.compile("[a-zA-Z\\d_]+");
+  private static final String EXTENSION = ".json";
+  private static final String TMP_EXTENSION = ".tmp";
+
+  @Autowired
+  private SnapshotConfiguration config;
+
+  @Autowired
+  private Gson gson;
+
+  private final Map<String, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+      return size() > config.getMaxEntries();
+    }
+  };
+  private final Set<String> files = new LinkedHashSet<>();
+
+  /**
+   * @return a copy of the snapshot of the game, or null if there is none
+   */
+  @SuppressWarnings("unchecked")
+  <R extends ServiceResponse<?>> R get(String id) {
+    if (!VALID_ID.matcher(id).matches()) {
+      return null;
+    }
+    Snapshot snapshot;
+    synchronized (snapshots) {
+      snapshot = snapshots.get(id);
+    }
+    if (snapshot == null) {
+      snapshot = read(id);
+      if (snapshot == null) {
+        return null;
+      }
+      synchronized (snapshots) {
+        snapshots.putIfAbsent(id, snapshot);
+      }
+    }
+    try {
+      return (R) gson.fromJson(snapshot.json, snapshot.type);
+    } catch (JsonParseException e) {
+      LOGGER.error(String.format("Unable to read the snapshot of %s", id), e);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the snapshot of the game, replacing any previous one
+   */
+  void put(String id, ServiceResponse<?> response) {
+    if (!VALID_ID.matcher(id).matches()) {
+      return;
+    }
+    Snapshot snapshot = new Snapshot(response.getClass(), gson.toJson(response));
+    synchronized (snapshots) {
+      snapshots.put(id, snapshot);
+    }
+    write(id, snapshot);
+  }
+
+  Snapshot read(String id) {
+    try (BufferedReader reader = Files.newBufferedReader(getLocation(id), StandardCharsets.UTF_8)) {
+      Class<?> type = Class.forName(reader.readLine());
+      if (!ServiceResponse.class.isAssignableFrom(type)) {
+        LOGGER.error(String.format("Snapshot of %s has an invalid type %s", id, type));
+        return null;
+      }
+      return new Snapshot(type, reader.readLine());
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | ClassNotFoundException e) {
+      LOGGER.error(String.format("Unable to read the snapshot of %s", id), e);
+      return null;
+    }
+  }
+
+  void write(String id, Snapshot snapshot) {
+    Path location = getLocation(id);
+    try {
+      Files.createDirectories(location.toAbsolutePath().getParent());
+      Path tmp = Files.createTempFile(location.toAbsolutePath().getParent(), id, TMP_EXTENSION);
+      try {
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+          writer.write(snapshot.type.getName());
+          writer.newLine();
+          writer.write(snapshot.json);
+        }
+        Files.move(tmp, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      LOGGER.error(String.format("Unable to write the snapshot of %s", id), e);
+      return;
+    }
+
+    for (String evicted : addFile(id)) {
+      try {
+        Files.deleteIfExists(getLocation(evicted));
+      } catch (IOException e) {
+        LOGGER.error(String.format("Unable to delete the snapshot of %s", evicted), e);
+      }
+    }
+  }
+
+  /**
+   * Adds the file of the snapshot as the most recently written one
+   *
+   * @return the ids of the oldest snapshots that no longer fit in the folder
+   */
+  synchronized List<String> addFile(String id) {
+    files.remove(id);
+    files.add(id);
+    List<String> evicted = new ArrayList<>();
+    Iterator<String> it = files.iterator();
+    while (files.size() > config.getMaxFiles() && it.hasNext()) {
+      evicted.add(it.next());
+      it.remove();
+    }
+    return evicted;
+  }
+
+  /**
+   * Reads the snapshots that are written by a previous run, oldest first, and deletes any leftover temporary file
+   */
+  @PostConstruct
+  synchronized void scan() {
+    Path dir = Paths.get(config.getDir());
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    List<Path> written = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path path : stream) {
+        String name = path.getFileName().toString();
+        if (name.endsWith(TMP_EXTENSION)) {
+          Files.deleteIfExists(path);
+        } else if (name.endsWith(EXTENSION)) {
+          written.add(path);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.error(String.format("Unable to read the snapshots at %s", dir), e);
+    }
+    written.sort(Comparator.comparingLong(this::lastModified));
+    for (Path path : written) {
+      String name = path.getFileName().toString();
+      files.add(name.substring(0, name.length() - EXTENSION.length()));
+    }
+    LOGGER.info(String.format("Found %d snapshots at %s", files.size(), dir));
+  }
+
+  long lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  Path getLocation(String id) {
+    return Paths.get(config.getDir()).resolve(id + EXTENSION);
+  }
+
+  static class Snapshot {
+    private final Class<?> type;
+    private final String json;
+
+    Snapshot(Class<?> type, String json) {
+      this.type = type;
+      this.json = json;
+    }
+  }
+}
@@ -1,15 +1,21 @@
 package com.aegean.icsd.mciwebapp.common.interfaces;
 
-import java.util.List;
-
 import com.aegean.icsd.engine.common.beans.Difficulty;
 import com.aegean.icsd.engine.common.beans.BaseGame;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 
 public interface IGameService<T extends BaseGame, R extends ServiceResponse<T>> {
 
-  List<ServiceResponse<T>> getGames(String playerName, Class<T> gameClass) throws MciException;
+  /**
+   * @param difficulty if set, only the games of the difficulty are returned
+   * @param completed if set, only the completed or the not completed games are returned
+   * @param cursor the cursor of the page, as returned with the previous page, or null for the first page
+   * @param limit the maximum number of games of the page, or null for the default
+   */
+  PageResponse<T> getGames(String playerName, String difficulty, Boolean completed, String cursor, Integer limit,
+    Class<T> gameClass) throws MciException;
 
   R createGame(String playerName, Difficulty difficulty, Class<T> gameClass) throws MciException;
 
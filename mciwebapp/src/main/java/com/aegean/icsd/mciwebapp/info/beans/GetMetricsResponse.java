@@ -0,0 +1,28 @@
+package com.aegean.icsd.mciwebapp.info.beans;
+
+import java.util.List;
+
+import com.aegean.icsd.engine.generator.beans.ObjectCacheStats;
+import com.aegean.icsd.ontology.beans.QueryShapeMetrics;
+
+public class GetMetricsResponse {
+
+  private List<QueryShapeMetrics> queries;
+  private ObjectCacheStats objectCache;
+
+  public List<QueryShapeMetrics> getQueries() {
+    return queries;
+  }
+
+  public void setQueries(List<QueryShapeMetrics> queries) {
+    this.queries = queries;
+  }
+
+  public ObjectCacheStats getObjectCache() {
+    return objectCache;
+  }
+
+  public void setObjectCache(ObjectCacheStats objectCache) {
+    this.objectCache = objectCache;
+  }
+}
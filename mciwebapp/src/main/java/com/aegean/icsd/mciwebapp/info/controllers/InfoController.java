@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.info.beans.GetGamesResponse;
+import com.aegean.icsd.mciwebapp.info.beans.GetMetricsResponse;
 import com.aegean.icsd.mciwebapp.info.interfaces.IInfoSvc;
 
 /**
@@ -35,4 +36,11 @@ public class InfoController {
     resp.setGames(infoSvc.getGames());
     return new Response<>(resp);
   }
+
+  @GetMapping(value = "/metrics",
+    produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  public Response<GetMetricsResponse> getMetrics() {
+    return new Response<>(infoSvc.getMetrics());
+  }
 }
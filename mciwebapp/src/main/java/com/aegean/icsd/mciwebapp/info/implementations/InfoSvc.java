@@ -5,8 +5,11 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.aegean.icsd.engine.generator.interfaces.IGenerator;
+import com.aegean.icsd.mciwebapp.info.beans.GetMetricsResponse;
 import com.aegean.icsd.mciwebapp.info.dao.IInfoDao;
 import com.aegean.icsd.mciwebapp.info.interfaces.IInfoSvc;
+import com.aegean.icsd.ontology.interfaces.IQueryMetrics;
 
 @Service
 public class InfoSvc implements IInfoSvc {
@@ -14,8 +17,22 @@ public class InfoSvc implements IInfoSvc {
   @Autowired
   private IInfoDao dao;
 
+  @Autowired
+  private IQueryMetrics queryMetrics;
+
+  @Autowired
+  private IGenerator generator;
+
   @Override
   public List<String> getGames() {
     return dao.getGames();
   }
+
+  @Override
+  public GetMetricsResponse getMetrics() {
+    GetMetricsResponse resp = new GetMetricsResponse();
+    resp.setQueries(queryMetrics.getMetrics());
+    resp.setObjectCache(generator.getObjectCacheStats());
+    return resp;
+  }
 }
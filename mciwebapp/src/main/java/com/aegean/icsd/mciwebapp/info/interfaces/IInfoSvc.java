@@ -3,8 +3,14 @@ package com.aegean.icsd.mciwebapp.info.interfaces;
 import java.util.List;
 
 import com.aegean.icsd.engine.common.beans.BaseGame;
+import com.aegean.icsd.mciwebapp.info.beans.GetMetricsResponse;
 
 public interface IInfoSvc {
 
   List<String> getGames();
+
+  /**
+   * @return the metrics of the queries per shape, the most time consuming first, and of the object cache
+   */
+  GetMetricsResponse getMetrics();
 }
@@ -19,8 +19,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.aegean.icsd.engine.common.beans.Difficulty;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.numberorder.beans.NumberOrder;
@@ -47,11 +47,12 @@ public class NumberOrderController {
     produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<NumberOrder>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
-                                                          @RequestParam(name = "completed", required = false) Boolean completed,
-                                                          @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-    List<ServiceResponse<NumberOrder>> responses = numberOrderSvc.getGames(player, NumberOrder.class);
-    List<ServiceResponse<NumberOrder>> filtered = FilterResponse.by(responses, difficulty, completed);
-    return new Response<>(filtered);
+                                                               @RequestParam(name = "completed", required = false) Boolean completed,
+                                                               @RequestParam(name = "cursor", required = false) String cursor,
+                                                               @RequestParam(name = "limit", required = false) Integer limit,
+                                                               @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
+    PageResponse<NumberOrder> page = numberOrderSvc.getGames(player, difficulty, completed, cursor, limit, NumberOrder.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -1,12 +1,15 @@
 package com.aegean.icsd.mciwebapp.puzzles.controllers;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,10 +20,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.aegean.icsd.engine.common.beans.Difficulty;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.puzzles.beans.Puzzle;
@@ -48,10 +53,11 @@ public class PuzzleController {
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<Puzzle>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
                                                           @RequestParam(name = "completed", required = false) Boolean completed,
+                                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                                          @RequestParam(name = "limit", required = false) Integer limit,
                                                           @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-    List<ServiceResponse<Puzzle>> responses = puzzleSvc.getGames(player, Puzzle.class);
-    List<ServiceResponse<Puzzle>> filtered = FilterResponse.by(responses, difficulty, completed);
-    return new Response<>(filtered);
+    PageResponse<Puzzle> page = puzzleSvc.getGames(player, difficulty, completed, cursor, limit, Puzzle.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -74,6 +80,30 @@ public class PuzzleController {
     return new Response<>(resp);
   }
 
+  /**
+   * The tile at the given row and column of a rows x cols grid of the image. The tiles never change,
+   * so they are cached by the clients.
+   */
+  @GetMapping(value = "/tiles/{imageId}/{rows}/{cols}/{row}/{col}")
+  public ResponseEntity<byte[]> getTile(@PathVariable("imageId") String imageId,
+                                        @PathVariable("rows") int rows,
+                                        @PathVariable("cols") int cols,
+                                        @PathVariable("row") int row,
+                                        @PathVariable("col") int col,
+                                        WebRequest request) throws MciException {
+    String etag = String.format("\"%s_%s_%s_%s_%s\"", imageId, rows, cols, row, col);
+    CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+    }
+    ImageTile tile = puzzleSvc.getTile(imageId, rows, cols, row, col);
+    return ResponseEntity.ok()
+      .contentType(MediaType.parseMediaType(tile.getMimeType()))
+      .cacheControl(cacheControl)
+      .eTag(etag)
+      .body(tile.getContent());
+  }
+
   @PutMapping(value = "/{id}",
           consumes = MediaType.APPLICATION_JSON_VALUE,
           produces = MediaType.APPLICATION_JSON_VALUE)
@@ -2,6 +2,7 @@ package com.aegean.icsd.mciwebapp.puzzles.implementations;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -16,6 +17,7 @@ import com.aegean.icsd.engine.rules.beans.RulesException;
 import com.aegean.icsd.engine.rules.interfaces.IRules;
 import com.aegean.icsd.mciobjects.common.beans.ProviderException;
 import com.aegean.icsd.mciobjects.images.beans.Image;
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
 import com.aegean.icsd.mciobjects.images.interfaces.IImageProvider;
 import com.aegean.icsd.mciobjects.pieces.beans.Piece;
 import com.aegean.icsd.mciobjects.pieces.interfaces.IPieceProvider;
@@ -77,17 +79,16 @@ public class PuzzleSvc extends AbstractGameSvc<Puzzle, PuzzleResponse> implement
       throw GameExceptions.GenerationError(Puzzle.NAME, e);
     }
 
-    Image[][] imagePieces;
     Image concreteImage;
     List<Piece> pieces;
     int totalPieces = toCreate.getColumns() * toCreate.getRows();
     try {
       concreteImage = imageProvider.getNewImagesFor(fullName, hasImage.getCardinality(), new Image()).get(0);
-      imagePieces = imageProvider.getImageChunks(concreteImage, toCreate.getRows(), toCreate.getColumns());
       pieces = pieceProvider.getPieces(totalPieces);
     } catch (ProviderException e) {
       throw GameExceptions.GenerationError(Puzzle.NAME, e);
     }
+    pieces.sort(Comparator.comparing(Piece::getId));
 
     List<Piece> cornerPieces = new ArrayList<>();
     List<Piece> interiorPieces = new ArrayList<>();
@@ -105,8 +106,6 @@ public class PuzzleSvc extends AbstractGameSvc<Puzzle, PuzzleResponse> implement
           interiorPieces.add(piece);
         }
         try {
-          Image pieceImage = imagePieces[row][col];
-          pieceProvider.setPieceImage(piece, pieceImage);
           if (col > 0) {
             pieceProvider.connectPieces(piece, pieceMap[row][col -1]);
           }
@@ -226,16 +225,25 @@ public class PuzzleSvc extends AbstractGameSvc<Puzzle, PuzzleResponse> implement
     pieces.addAll(cornerBlocks);
     pieces.addAll(borderPieces);
     pieces.addAll(interiorBlocks);
-    Collections.shuffle(pieces, new Random(System.currentTimeMillis()));
+    pieces.sort(Comparator.comparing(Piece::getId));
 
     List<PuzzlePiece> puzzlePieces = new ArrayList<>();
 
     try {
-      for (Piece piece : pieces) {
-        Image pieceImage =  imageProvider.selectImagesByEntityId(piece.getId()).get(0);
+      List<Image> firstPieceImages = pieces.isEmpty()
+        ? Collections.emptyList()
+        : imageProvider.selectImagesByEntityId(pieces.get(0).getId());
+      boolean chunked = !firstPieceImages.isEmpty();
+      for (int i = 0; i < pieces.size(); i++) {
+        Piece piece = pieces.get(i);
         PuzzlePiece pp = new PuzzlePiece();
         pp.setId(piece.getId());
-        pp.setImagePath(pieceImage.getPath());
+        if (chunked) {
+          List<Image> pieceImages = i == 0 ? firstPieceImages : imageProvider.selectImagesByEntityId(piece.getId());
+          pp.setImagePath(pieceImages.get(0).getPath());
+        } else {
+          pp.setImagePath(getTilePath(image, game, i));
+        }
         puzzlePieces.add(pp);
       }
     } catch (ProviderException e) {
@@ -251,6 +259,25 @@ public class PuzzleSvc extends AbstractGameSvc<Puzzle, PuzzleResponse> implement
   }
 
 
+  @Override
+  public ImageTile getTile(String imageId, int rows, int cols, int row, int col) throws MciException {
+    try {
+      return imageProvider.getImageTile(imageId, rows, cols, row, col);
+    } catch (ProviderException e) {
+      throw GameExceptions.UnableToResponse(Puzzle.NAME, e);
+    }
+  }
+
+  /**
+   * The pieces of a puzzle are laid out on the grid in the order of their ids, so the path of the tile
+   * of every piece is found from the grid of the puzzle, without storing an image per piece.
+   * Puzzles created before that keep the image of each of their pieces.
+   */
+  String getTilePath(Image image, Puzzle game, int index) {
+    return String.format("api/puzzles/tiles/%s/%s/%s/%s/%s", image.getId(), game.getRows(), game.getColumns(),
+      index / game.getColumns(), index % game.getColumns());
+  }
+
   boolean isCorner(int row, int col, int maxRow, int maxCol) {
     return (row == 0 && col ==0)
       || (row == 0 && col == maxCol -1)
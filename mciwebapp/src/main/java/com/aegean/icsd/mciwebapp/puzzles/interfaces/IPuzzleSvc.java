@@ -1,8 +1,11 @@
 package com.aegean.icsd.mciwebapp.puzzles.interfaces;
 
+import com.aegean.icsd.mciobjects.images.beans.ImageTile;
+import com.aegean.icsd.mciwebapp.common.beans.MciException;
 import com.aegean.icsd.mciwebapp.common.interfaces.IGameService;
 import com.aegean.icsd.mciwebapp.puzzles.beans.Puzzle;
 import com.aegean.icsd.mciwebapp.puzzles.beans.PuzzleResponse;
 
 public interface IPuzzleSvc extends IGameService<Puzzle, PuzzleResponse> {
+  ImageTile getTile(String imageId, int rows, int cols, int row, int col) throws MciException;
 }
@@ -1,5 +1,6 @@
 package com.aegean.icsd.mciwebapp.questions.implementations;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -123,9 +124,11 @@ public class QuestionsSvc extends AbstractGameSvc<Questions, QuestionsResponse>
     List<Word> categoryResults;
     try {
       qResults = questionProvider.selectQuestionsForEntityId(game.getId());
-      answerResults = wordProvider.selectWordsByEntityIdOnProperty(game.getId(),hasAnswer.getOnProperty());
-      choiceResults = wordProvider.selectWordsByEntityIdOnProperty(game.getId(),hasChoice.getOnProperty());
-      categoryResults = wordProvider.selectWordsByEntityIdOnProperty(game.getId(),hasCategory.getOnProperty());
+      List<List<Word>> wordResults = wordProvider.selectWordsByEntityIdOnProperties(game.getId(),
+        Arrays.asList(hasAnswer.getOnProperty(), hasChoice.getOnProperty(), hasCategory.getOnProperty()));
+      answerResults = wordResults.get(0);
+      choiceResults = wordResults.get(1);
+      categoryResults = wordResults.get(2);
     } catch (ProviderException e) {
       throw GameExceptions.UnableToResponse(Questions.NAME, e);
     }
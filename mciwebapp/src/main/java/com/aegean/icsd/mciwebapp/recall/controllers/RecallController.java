@@ -19,8 +19,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.aegean.icsd.engine.common.beans.Difficulty;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.observations.beans.ObservationRequest;
@@ -47,10 +47,11 @@ public class RecallController {
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<Recall>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
                                                           @RequestParam(name = "completed", required = false) Boolean completed,
+                                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                                          @RequestParam(name = "limit", required = false) Integer limit,
                                                           @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-    List<ServiceResponse<Recall>> responses = recallSvc.getGames(player, Recall.class);
-    List<ServiceResponse<Recall>> filtered = FilterResponse.by(responses, difficulty, completed);
-    return new Response<>(filtered);
+    PageResponse<Recall> page = recallSvc.getGames(player, difficulty, completed, cursor, limit, Recall.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
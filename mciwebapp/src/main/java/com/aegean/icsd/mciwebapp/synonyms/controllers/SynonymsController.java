@@ -20,8 +20,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.aegean.icsd.engine.common.beans.Difficulty;
-import com.aegean.icsd.mciwebapp.common.FilterResponse;
 import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.beans.PageResponse;
 import com.aegean.icsd.mciwebapp.common.beans.Response;
 import com.aegean.icsd.mciwebapp.common.beans.ServiceResponse;
 import com.aegean.icsd.mciwebapp.synonyms.beans.SynonymRequest;
@@ -46,12 +46,11 @@ public class SynonymsController {
   @ResponseStatus(HttpStatus.OK)
   public Response<List<ServiceResponse<Synonyms>>> getGames(@RequestParam(name = "difficulty", required = false) String difficulty,
                                                             @RequestParam(name = "completed", required = false) Boolean completed,
+                                                            @RequestParam(name = "cursor", required = false) String cursor,
+                                                            @RequestParam(name = "limit", required = false) Integer limit,
                                                             @RequestHeader("X-INFO-PLAYER") String player) throws MciException {
-
-    List<ServiceResponse<Synonyms>> responses = synonymsSvc.getGames(player, Synonyms.class);
-    List<ServiceResponse<Synonyms>> filtered = FilterResponse.by(responses, difficulty, completed);
-
-    return new Response<>(filtered);
+    PageResponse<Synonyms> page = synonymsSvc.getGames(player, difficulty, completed, cursor, limit, Synonyms.class);
+    return new Response<>(page.getGames(), page.getNext());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
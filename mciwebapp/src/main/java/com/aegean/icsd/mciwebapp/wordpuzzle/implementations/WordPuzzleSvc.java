@@ -10,7 +10,6 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.aegean.icsd.engine.common.beans.EngineException;
 import com.aegean.icsd.engine.generator.interfaces.IGenerator;
 import com.aegean.icsd.engine.rules.beans.EntityRestriction;
 import com.aegean.icsd.engine.rules.beans.RulesException;
@@ -57,9 +56,8 @@ public class WordPuzzleSvc extends AbstractGameSvc<WordPuzzle, WordPuzzleRespons
   protected void handleObjectRestrictions(String fullName, WordPuzzle toCreate) throws MciException {
     Word word;
     try {
-      generator.upsertGame(toCreate);
       word = wordProvider.getNewWordFor(fullName, toCreate.getWordLength());
-    } catch (EngineException | ProviderException e) {
+    } catch (ProviderException e) {
       throw GameExceptions.GenerationError(WordPuzzle.NAME, e);
     }
 
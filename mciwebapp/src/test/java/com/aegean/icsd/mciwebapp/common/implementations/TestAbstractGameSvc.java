@@ -0,0 +1,154 @@
+package com.aegean.icsd.mciwebapp.common.implementations;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aegean.icsd.engine.common.beans.BaseGame;
+import com.aegean.icsd.engine.common.beans.Difficulty;
+import com.aegean.icsd.engine.common.beans.EngineException;
+import com.aegean.icsd.engine.core.implementation.AnnotationReader;
+import com.aegean.icsd.engine.generator.interfaces.IGenerator;
+import com.aegean.icsd.engine.rules.beans.EntityProperty;
+import com.aegean.icsd.engine.rules.beans.EntityRestriction;
+import com.aegean.icsd.engine.rules.beans.RulesException;
+import com.aegean.icsd.engine.rules.interfaces.IRules;
+import com.aegean.icsd.mciobjects.words.beans.Word;
+import com.aegean.icsd.mciwebapp.common.GameExceptions;
+import com.aegean.icsd.mciwebapp.common.beans.MciException;
+import com.aegean.icsd.mciwebapp.common.configuration.GamePoolConfiguration;
+import com.aegean.icsd.mciwebapp.synonyms.beans.SynonymResponse;
+import com.aegean.icsd.mciwebapp.synonyms.beans.Synonyms;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@Execution(ExecutionMode.CONCURRENT)
+public class TestAbstractGameSvc {
+  private static final String FULL_NAME = "EasySynonyms";
+
+  @Mock
+  private IGenerator generator;
+
+  @Mock
+  private IRules rules;
+
+  private GameSvc svc;
+
+  @BeforeEach
+  public void setUp() throws RulesException {
+    svc = new GameSvc();
+    ReflectionTestUtils.setField(svc, "generator", generator);
+    ReflectionTestUtils.setField(svc, "rules", rules);
+    ReflectionTestUtils.setField(svc, "ano", new AnnotationReader());
+    given(rules.getEntityRestriction(FULL_NAME, "maxCompletionTime")).willReturn(new EntityRestriction());
+    given(generator.generateLongDataValue(any())).willReturn(60000L);
+  }
+
+  @Test
+  public void testPoolGameIsWrittenAfterItsObjects() throws MciException, EngineException {
+    Synonyms game = svc.generateGame(FULL_NAME, Difficulty.EASY, Synonyms.class, null, null);
+
+    Assertions.assertNull(game.getPlayerName());
+    Assertions.assertTrue(game.getId().startsWith(FULL_NAME + "_"));
+    InOrder order = inOrder(generator);
+    order.verify(generator).createObjRelation(game, svc.word, svc.property);
+    order.verify(generator).upsertGame(game);
+  }
+
+  @Test
+  public void testPlayerGameIdIsSetBeforeItsObjects() throws MciException, EngineException {
+    Synonyms game = svc.generateGame(FULL_NAME, Difficulty.EASY, Synonyms.class, "player", 3);
+
+    Assertions.assertEquals("Synonyms_EASY_player_3", game.getId());
+    verify(generator).upsertGame(game);
+  }
+
+  @Test
+  public void testFailedGenerationWritesNoGame() throws EngineException {
+    svc.failing = true;
+
+    Assertions.assertThrows(MciException.class,
+      () -> svc.generateGame(FULL_NAME, Difficulty.EASY, Synonyms.class, null, null));
+    verify(generator, never()).upsertGame(any());
+  }
+
+  @Test
+  public void testPoolIsFilled() throws InterruptedException {
+    GamePoolConfiguration config = new GamePoolConfiguration();
+    config.setEnabled(true);
+    config.setSize(3);
+    config.setLowWaterMark(1);
+    config.setThreads(1);
+    GamePool pool = new GamePool();
+    ReflectionTestUtils.setField(pool, "config", config);
+
+    pool.refill(FULL_NAME, () -> svc.generateGame(FULL_NAME, Difficulty.EASY, Synonyms.class, null, null),
+      ArrayList::new);
+    pool.getWorkers().shutdown();
+    Assertions.assertTrue(pool.getWorkers().awaitTermination(10, TimeUnit.SECONDS));
+
+    Set<String> claimed = new HashSet<>();
+    BaseGame game;
+    while ((game = pool.claim(FULL_NAME)) != null) {
+      claimed.add(game.getId());
+    }
+    Assertions.assertEquals(3, claimed.size());
+  }
+
+  static class GameSvc extends AbstractGameSvc<Synonyms, SynonymResponse> {
+    private final Word word = new Word();
+    private final EntityProperty property = new EntityProperty();
+    private boolean failing;
+
+    GameSvc() {
+      word.setId("word");
+    }
+
+    @Override
+    protected void handleDataTypeRestrictions(String fullName, Synonyms toCreate) {
+    }
+
+    @Override
+    protected void handleObjectRestrictions(String fullName, Synonyms toCreate) throws MciException {
+      if (failing) {
+        throw GameExceptions.GenerationError(fullName, new IllegalStateException("No words"));
+      }
+      createObjRelation(toCreate, word, property);
+    }
+
+    @Override
+    protected boolean isValid(Object solution) {
+      return true;
+    }
+
+    @Override
+    protected boolean checkSolution(Synonyms game, Object solution) {
+      return true;
+    }
+
+    @Override
+    protected SynonymResponse toResponse(Synonyms game) {
+      return new SynonymResponse(game);
+    }
+  }
+}
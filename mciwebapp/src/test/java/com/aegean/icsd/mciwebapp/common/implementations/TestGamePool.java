@@ -0,0 +1,147 @@
+package com.aegean.icsd.mciwebapp.common.implementations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aegean.icsd.engine.common.beans.BaseGame;
+import com.aegean.icsd.mciwebapp.common.configuration.GamePoolConfiguration;
+import com.aegean.icsd.mciwebapp.synonyms.beans.Synonyms;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestGamePool {
+  private static final String FULL_NAME = "Synonyms_EASY";
+  private static final int THREADS = 8;
+
+  @Test
+  public void testConcurrentRefills() throws InterruptedException {
+    GamePool pool = createPool(5, 2);
+    AtomicInteger generated = new AtomicInteger();
+    AtomicInteger reloads = new AtomicInteger();
+
+    runConcurrently(() -> pool.refill(FULL_NAME, () -> createGame(generated.incrementAndGet()), () -> {
+      reloads.incrementAndGet();
+      return Arrays.asList(createGame(-1), createGame(-2));
+    }));
+    awaitRefills(pool);
+
+    Assertions.assertEquals(1, reloads.get());
+    Assertions.assertEquals(3, generated.get());
+    Set<String> claimed = new HashSet<>();
+    BaseGame game;
+    while ((game = pool.claim(FULL_NAME)) != null) {
+      claimed.add(game.getId());
+    }
+    Assertions.assertEquals(5, claimed.size());
+    Assertions.assertTrue(claimed.containsAll(Arrays.asList("game-1", "game-2")));
+  }
+
+  @Test
+  public void testConcurrentClaims() throws InterruptedException {
+    GamePool pool = createPool(50, 2);
+    AtomicInteger generated = new AtomicInteger();
+    pool.refill(FULL_NAME, () -> createGame(generated.incrementAndGet()), ArrayList::new);
+    awaitRefills(pool);
+
+    Set<String> claimed = ConcurrentHashMap.newKeySet();
+    AtomicInteger claims = new AtomicInteger();
+    runConcurrently(() -> {
+      BaseGame game;
+      while ((game = pool.claim(FULL_NAME)) != null) {
+        claimed.add(game.getId());
+        claims.incrementAndGet();
+      }
+    });
+
+    Assertions.assertEquals(50, claims.get());
+    Assertions.assertEquals(50, claimed.size());
+    Assertions.assertNull(pool.claim(FULL_NAME));
+  }
+
+  @Test
+  public void testFailedReloadIsRetried() throws InterruptedException {
+    GamePool pool = createPool(2, 2);
+    AtomicInteger reloads = new AtomicInteger();
+    GamePool.Reload reload = () -> {
+      if (reloads.incrementAndGet() == 1) {
+        throw new IllegalStateException("Unavailable");
+      }
+      return Collections.singletonList(createGame(-1));
+    };
+    AtomicInteger generated = new AtomicInteger();
+
+    pool.refill(FULL_NAME, () -> createGame(generated.incrementAndGet()), reload);
+    awaitRefills(pool);
+    Assertions.assertEquals(2, generated.get());
+
+    Assertions.assertNotNull(pool.claim(FULL_NAME));
+    pool.refill(FULL_NAME, () -> createGame(generated.incrementAndGet()), reload);
+    awaitRefills(pool);
+    Assertions.assertEquals(2, reloads.get());
+    Assertions.assertEquals(2, generated.get());
+  }
+
+  @Test
+  public void testDisabled() {
+    GamePool pool = createPool(5, 2);
+    ((GamePoolConfiguration) ReflectionTestUtils.getField(pool, "config")).setEnabled(false);
+    pool.refill(FULL_NAME, () -> createGame(1), ArrayList::new);
+    Assertions.assertNull(pool.claim(FULL_NAME));
+  }
+
+  GamePool createPool(int size, int lowWaterMark) {
+    GamePoolConfiguration config = new GamePoolConfiguration();
+    config.setEnabled(true);
+    config.setSize(size);
+    config.setLowWaterMark(lowWaterMark);
+    config.setThreads(2);
+    GamePool pool = new GamePool();
+    ReflectionTestUtils.setField(pool, "config", config);
+    return pool;
+  }
+
+  Synonyms createGame(int index) {
+    Synonyms game = new Synonyms();
+    game.setId("game" + index);
+    return game;
+  }
+
+  /**
+   * Waits until the refills that were submitted so far are done
+   */
+  void awaitRefills(GamePool pool) throws InterruptedException {
+    ExecutorService workers = pool.getWorkers();
+    workers.shutdown();
+    Assertions.assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+    ReflectionTestUtils.setField(pool, "workers", null);
+  }
+
+  void runConcurrently(Runnable task) throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int i = 0; i < THREADS; i++) {
+      executor.submit(() -> {
+        start.await();
+        task.run();
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+}
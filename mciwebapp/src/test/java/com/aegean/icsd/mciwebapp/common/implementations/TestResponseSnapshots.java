@@ -0,0 +1,83 @@
+package com.aegean.icsd.mciwebapp.common.implementations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aegean.icsd.mciwebapp.common.configuration.SnapshotConfiguration;
+import com.aegean.icsd.mciwebapp.synonyms.beans.SynonymResponse;
+import com.aegean.icsd.mciwebapp.synonyms.beans.Synonyms;
+
+import com.google.gson.Gson;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestResponseSnapshots {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  public void testCopies() {
+    ResponseSnapshots snapshots = createSnapshots(10, 10);
+    SynonymResponse response = createResponse("g1");
+    snapshots.put("g1", response);
+    response.setWord("changed");
+
+    SynonymResponse copy = snapshots.get("g1");
+    Assertions.assertEquals("word of g1", copy.getWord());
+    Assertions.assertEquals("g1", copy.getGame().getId());
+    copy.setWord("changed");
+    Assertions.assertEquals("word of g1", ((SynonymResponse) snapshots.get("g1")).getWord());
+    Assertions.assertNull(snapshots.get("g2"));
+    Assertions.assertNull(snapshots.get("../g1"));
+  }
+
+  @Test
+  public void testFilesAreBounded() throws IOException {
+    ResponseSnapshots snapshots = createSnapshots(1, 2);
+    for (int i = 1; i <= 3; i++) {
+      snapshots.put("g" + i, createResponse("g" + i));
+      Files.setLastModifiedTime(dir.resolve("g" + i + ".json"), FileTime.fromMillis(i * 1000L));
+    }
+    Assertions.assertFalse(Files.exists(dir.resolve("g1.json")));
+    Assertions.assertNull(snapshots.get("g1"));
+    Assertions.assertEquals("word of g2", ((SynonymResponse) snapshots.get("g2")).getWord());
+
+    Files.createFile(dir.resolve("g4123.tmp"));
+    ResponseSnapshots restarted = createSnapshots(1, 2);
+    Assertions.assertFalse(Files.exists(dir.resolve("g4123.tmp")));
+    Assertions.assertEquals("word of g3", ((SynonymResponse) restarted.get("g3")).getWord());
+    restarted.put("g4", createResponse("g4"));
+    Assertions.assertFalse(Files.exists(dir.resolve("g2.json")));
+    Assertions.assertTrue(Files.exists(dir.resolve("g3.json")));
+    Assertions.assertTrue(Files.exists(dir.resolve("g4.json")));
+  }
+
+  ResponseSnapshots createSnapshots(int maxEntries, int maxFiles) {
+    SnapshotConfiguration config = new SnapshotConfiguration();
+    config.setDir(dir.toString());
+    config.setMaxEntries(maxEntries);
+    config.setMaxFiles(maxFiles);
+    ResponseSnapshots snapshots = new ResponseSnapshots();
+    ReflectionTestUtils.setField(snapshots, "config", config);
+    ReflectionTestUtils.setField(snapshots, "gson", new Gson());
+    snapshots.scan();
+    return snapshots;
+  }
+
+  SynonymResponse createResponse(String id) {
+    Synonyms game = new Synonyms();
+    game.setId(id);
+    SynonymResponse response = new SynonymResponse(game);
+    response.setWord("word of " + id);
+    return response;
+  }
+}
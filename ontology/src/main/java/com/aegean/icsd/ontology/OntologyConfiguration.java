@@ -1,5 +1,9 @@
 package com.aegean.icsd.ontology;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +14,9 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 
 import com.aegean.icsd.ontology.beans.DatasetProperties;
+import com.aegean.icsd.ontology.implementations.OntologyConnector;
+import com.aegean.icsd.ontology.implementations.TdbOntologyConnector;
+import com.aegean.icsd.ontology.interfaces.IOntologyConnector;
 
 @Configuration
 @ComponentScan({"com.aegean.icsd.ontology"})
@@ -25,12 +32,54 @@ public class OntologyConfiguration {
     LOGGER.info("Started reading configuration of the ontology");
     DatasetProperties properties = new DatasetProperties();
     properties.setDatasetLocation(env.getProperty("datasetLoc"));
+    properties.setDatasetType(env.getProperty("datasetType", "fuseki"));
     properties.setNamespace(env.getProperty("namespace"));
     properties.setOntologyLocation(env.getProperty("ontologyLoc"));
     properties.setPrefix(env.getProperty("prefix"));
     properties.setOntologyName(env.getProperty("ontologyName"));
     properties.setOntologyType(env.getProperty("ontologyType"));
+    properties.setSnapshotLocation(env.getProperty("snapshotLoc"));
+    properties.setLegacyObjectLookup(env.getProperty("legacyObjectLookup", Boolean.class, false));
+    properties.setUsageIndex(env.getProperty("usageIndex", Boolean.class, true));
+    properties.setProgressIndex(env.getProperty("progressIndex", Boolean.class, true));
+    properties.setObjectCacheMaxEntries(env.getProperty("objectCache.maxEntries", Integer.class, 1000));
+    properties.setObjectCacheTtl(env.getProperty("objectCache.ttl", Long.class, 0L));
+    properties.setObjectCacheTtls(getTtls(env.getProperty("objectCache.ttls", "")));
+    properties.setMetricsSlowQuery(env.getProperty("metrics.slowQuery", Long.class, 1000L));
+    properties.setMetricsMaxShapes(env.getProperty("metrics.maxShapes", Integer.class, 500));
+    properties.setMaxConnections(env.getProperty("http.maxConnections", Integer.class, 50));
+    properties.setMaxConnectionsPerRoute(env.getProperty("http.maxConnectionsPerRoute", Integer.class, 20));
+    properties.setKeepAlive(env.getProperty("http.keepAlive", Long.class, 30000L));
+    properties.setIdleTimeout(env.getProperty("http.idleTimeout", Long.class, 60000L));
+    properties.setConnectTimeout(env.getProperty("http.connectTimeout", Integer.class, 5000));
+    properties.setSocketTimeout(env.getProperty("http.socketTimeout", Integer.class, 60000));
+    properties.setMaxInFlight(env.getProperty("http.maxInFlight", Integer.class, 32));
     LOGGER.info("Finished configuration of the ontology");
     return properties;
   }
+
+  @Bean
+  public IOntologyConnector getOntologyConnector(DatasetProperties properties) {
+    if ("tdb".equalsIgnoreCase(properties.getDatasetType())) {
+      LOGGER.info("Using embedded TDB2 dataset");
+      return new TdbOntologyConnector();
+    }
+    LOGGER.info("Using remote Fuseki dataset");
+    return new OntologyConnector();
+  }
+
+  /**
+   * Parses the TTLs of the form {@code Type:ms,Type:ms}
+   */
+  Map<String, Long> getTtls(String ttls) {
+    Map<String, Long> parsed = new HashMap<>();
+    for (String ttl : ttls.split(",")) {
+      if (StringUtils.isBlank(ttl)) {
+        continue;
+      }
+      String[] fragments = ttl.split(":");
+      parsed.put(fragments[0].trim(), Long.parseLong(fragments[1].trim()));
+    }
+    return parsed;
+  }
 }
@@ -1,12 +1,31 @@
 package com.aegean.icsd.ontology.beans;
 
+import java.util.Map;
+
 public class DatasetProperties {
   private String ontologyLocation;
   private String ontologyName;
   private String namespace;
   private String prefix;
   private String datasetLocation;
+  private String datasetType;
   private String ontologyType;
+  private int maxConnections;
+  private int maxConnectionsPerRoute;
+  private long keepAlive;
+  private long idleTimeout;
+  private int connectTimeout;
+  private int socketTimeout;
+  private int maxInFlight;
+  private String snapshotLocation;
+  private boolean legacyObjectLookup;
+  private boolean usageIndex;
+  private boolean progressIndex;
+  private int objectCacheMaxEntries;
+  private long objectCacheTtl;
+  private Map<String, Long> objectCacheTtls;
+  private long metricsSlowQuery;
+  private int metricsMaxShapes;
 
   public String getOntologyLocation() {
     return ontologyLocation;
@@ -40,6 +59,14 @@ public class DatasetProperties {
     this.datasetLocation = datasetLocation;
   }
 
+  public String getDatasetType() {
+    return datasetType;
+  }
+
+  public void setDatasetType(String datasetType) {
+    this.datasetType = datasetType;
+  }
+
   public String getOntologyName() {
     return ontologyName;
   }
@@ -55,4 +82,132 @@ public class DatasetProperties {
   public void setOntologyType(String ontologyType) {
     this.ontologyType = ontologyType;
   }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+  }
+
+  public long getKeepAlive() {
+    return keepAlive;
+  }
+
+  public void setKeepAlive(long keepAlive) {
+    this.keepAlive = keepAlive;
+  }
+
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  public void setIdleTimeout(long idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(int connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public int getSocketTimeout() {
+    return socketTimeout;
+  }
+
+  public void setSocketTimeout(int socketTimeout) {
+    this.socketTimeout = socketTimeout;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public String getSnapshotLocation() {
+    return snapshotLocation;
+  }
+
+  public void setSnapshotLocation(String snapshotLocation) {
+    this.snapshotLocation = snapshotLocation;
+  }
+
+  public boolean isLegacyObjectLookup() {
+    return legacyObjectLookup;
+  }
+
+  public void setLegacyObjectLookup(boolean legacyObjectLookup) {
+    this.legacyObjectLookup = legacyObjectLookup;
+  }
+
+  public boolean isUsageIndex() {
+    return usageIndex;
+  }
+
+  public void setUsageIndex(boolean usageIndex) {
+    this.usageIndex = usageIndex;
+  }
+
+  public boolean isProgressIndex() {
+    return progressIndex;
+  }
+
+  public void setProgressIndex(boolean progressIndex) {
+    this.progressIndex = progressIndex;
+  }
+
+  public int getObjectCacheMaxEntries() {
+    return objectCacheMaxEntries;
+  }
+
+  public void setObjectCacheMaxEntries(int objectCacheMaxEntries) {
+    this.objectCacheMaxEntries = objectCacheMaxEntries;
+  }
+
+  public long getObjectCacheTtl() {
+    return objectCacheTtl;
+  }
+
+  public void setObjectCacheTtl(long objectCacheTtl) {
+    this.objectCacheTtl = objectCacheTtl;
+  }
+
+  public Map<String, Long> getObjectCacheTtls() {
+    return objectCacheTtls;
+  }
+
+  public void setObjectCacheTtls(Map<String, Long> objectCacheTtls) {
+    this.objectCacheTtls = objectCacheTtls;
+  }
+
+  public long getMetricsSlowQuery() {
+    return metricsSlowQuery;
+  }
+
+  public void setMetricsSlowQuery(long metricsSlowQuery) {
+    this.metricsSlowQuery = metricsSlowQuery;
+  }
+
+  public int getMetricsMaxShapes() {
+    return metricsMaxShapes;
+  }
+
+  public void setMetricsMaxShapes(int metricsMaxShapes) {
+    this.metricsMaxShapes = metricsMaxShapes;
+  }
 }
@@ -1,15 +0,0 @@
-package com.aegean.icsd.ontology.beans;
-
-import java.util.List;
-
-public class FusekiHead {
-  private List<String> vars;
-
-  public List<String> getVars() {
-    return vars;
-  }
-
-  public void setVars(List<String> vars) {
-    this.vars = vars;
-  }
-}
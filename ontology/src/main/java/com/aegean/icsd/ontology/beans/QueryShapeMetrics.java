@@ -0,0 +1,119 @@
+package com.aegean.icsd.ontology.beans;
+
+public class QueryShapeMetrics {
+  /**
+   * The type of the query, i.e. SELECT, ASK or INSERT
+   */
+  private String type;
+
+  /**
+   * The command of the query, without the bound values
+   */
+  private String shape;
+  private long count;
+  private long errors;
+  private long rows;
+  private long bytesSent;
+  private long bytesReceived;
+  private double totalMs;
+  private double maxMs;
+  private double p50Ms;
+  private double p95Ms;
+  private double p99Ms;
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getShape() {
+    return shape;
+  }
+
+  public void setShape(String shape) {
+    this.shape = shape;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public void setErrors(long errors) {
+    this.errors = errors;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public void setRows(long rows) {
+    this.rows = rows;
+  }
+
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  public void setBytesSent(long bytesSent) {
+    this.bytesSent = bytesSent;
+  }
+
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  public void setBytesReceived(long bytesReceived) {
+    this.bytesReceived = bytesReceived;
+  }
+
+  public double getTotalMs() {
+    return totalMs;
+  }
+
+  public void setTotalMs(double totalMs) {
+    this.totalMs = totalMs;
+  }
+
+  public double getMaxMs() {
+    return maxMs;
+  }
+
+  public void setMaxMs(double maxMs) {
+    this.maxMs = maxMs;
+  }
+
+  public double getP50Ms() {
+    return p50Ms;
+  }
+
+  public void setP50Ms(double p50Ms) {
+    this.p50Ms = p50Ms;
+  }
+
+  public double getP95Ms() {
+    return p95Ms;
+  }
+
+  public void setP95Ms(double p95Ms) {
+    this.p95Ms = p95Ms;
+  }
+
+  public double getP99Ms() {
+    return p99Ms;
+  }
+
+  public void setP99Ms(double p99Ms) {
+    this.p99Ms = p99Ms;
+  }
+}
@@ -0,0 +1,153 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QueryException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.aegean.icsd.ontology.beans.DatasetProperties;
+import com.aegean.icsd.ontology.beans.OntologyException;
+import com.aegean.icsd.ontology.interfaces.IOntologyConnector;
+import com.aegean.icsd.ontology.queries.AskQuery;
+import com.aegean.icsd.ontology.queries.InsertQuery;
+import com.aegean.icsd.ontology.queries.SelectQuery;
+import com.aegean.icsd.ontology.queries.beans.InsertParam;
+
+import com.google.gson.JsonArray;
+
+/**
+ * Common base of the {@link IOntologyConnector} implementations. It is responsible for translating the query
+ * beans into SPARQL, leaving to the implementations only the execution against the dataset.
+ */
+public abstract class AbstractOntologyConnector implements IOntologyConnector {
+
+  @Autowired
+  protected DatasetProperties ontologyProps;
+
+  @Autowired
+  private SparqlTemplateCache templates;
+
+  @Autowired
+  QueryMetrics metrics;
+
+  @Override
+  public JsonArray select(SelectQuery query) throws OntologyException {
+    JsonArray array = new JsonArray();
+    select(query, array::add);
+    return array;
+  }
+
+  String buildAskQuery(AskQuery ask) throws OntologyException {
+    Map<String, Node> params = new HashMap<>();
+
+    for (Map.Entry<String, String> entry : ask.getIriParams().entrySet()) {
+      setIri(params, entry.getKey(), entry.getValue());
+    }
+
+    for (Map.Entry<String, String> entry : ask.getStrLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue());
+    }
+
+    for (Map.Entry<String, Integer> entry : ask.getIntLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue().longValue());
+    }
+
+    for (Map.Entry<String, Long> entry : ask.getLongLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue());
+    }
+
+    for (Map.Entry<String, Boolean> entry : ask.getBoolLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue());
+    }
+
+    try {
+      return templates.bind(getPrefixes(new HashMap<>()), ask.getCommand(), params, false);
+    } catch (QueryException ex) {
+      throw new OntologyException("ASK.1", "Error when constructing the query", ex);
+    }
+  }
+
+  String buildSelectQuery(SelectQuery selectQuery) throws OntologyException {
+    Map<String, Node> params = new HashMap<>();
+
+    for(Map.Entry<String, String> entry : selectQuery.getIriParams().entrySet()) {
+      setIri(params, entry.getKey(), entry.getValue());
+    }
+    for(Map.Entry<String, String> entry : selectQuery.getLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue());
+    }
+    for(Map.Entry<String, Long> entry : selectQuery.getLongLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue());
+    }
+    for(Map.Entry<String, Boolean> entry : selectQuery.getBoolLiteralParams().entrySet()) {
+      setLiteral(params, entry.getKey(), entry.getValue());
+    }
+
+    try {
+      return templates.bind(getPrefixes(selectQuery.getPrefixes()), selectQuery.getCommand(), params, false);
+    } catch (QueryException ex ) {
+      throw new OntologyException("SEL.1", "Error when constructing the query", ex);
+    }
+  }
+
+  String buildInsertQuery(InsertQuery insertQuery) throws OntologyException {
+    Map<String, Node> params = new HashMap<>();
+
+    for (InsertParam param : insertQuery.getParams()) {
+      if (param.isIriParam()) {
+        setIri(params, param.getName(), param.getValue().toString());
+      } else {
+        if (String.class.equals(param.getValueClass())) {
+          setLiteral(params, param.getName(), param.getValue().toString());
+        } else if (Long.class.equals(param.getValueClass())) {
+          setLiteral(params, param.getName(), Long.parseLong(param.getValue().toString()));
+        } else if (Boolean.class.equals(param.getValueClass())) {
+          setLiteral(params, param.getName(), (Boolean) param.getValue());
+        }
+      }
+    }
+
+    try {
+      return templates.bind(getPrefixes(insertQuery.getPrefixes()), insertQuery.getCommand(), params, true);
+    } catch (QueryException ex ) {
+      throw new OntologyException("INS.1", "Error when constructing the query", ex);
+    }
+  }
+
+  Map<String, String> getPrefixes(Map<String, String> prefixes) {
+    Map<String, String> defaultPrefixes = new HashMap<>();
+    defaultPrefixes.put(ontologyProps.getPrefix(), ontologyProps.getNamespace());
+    defaultPrefixes.put("owl", "http://www.w3.org/2002/07/owl#");
+    defaultPrefixes.put("rdf", "http://www.w3.org/1999/02/22-rdf-syntax-ns#");
+    defaultPrefixes.put("rdfs", "http://www.w3.org/2000/01/rdf-schema#");
+    defaultPrefixes.put("xsd", "http://www.w3.org/2001/XMLSchema#");
+
+    defaultPrefixes.putAll(prefixes);
+    return defaultPrefixes;
+  }
+
+  void setIri(Map<String, Node> params, String name, String iri) {
+    params.put(getVarName(name), NodeFactory.createURI(iri));
+  }
+
+  void setLiteral(Map<String, Node> params, String name, String value) {
+    params.put(getVarName(name), NodeFactory.createLiteral(value));
+  }
+
+  void setLiteral(Map<String, Node> params, String name, long value) {
+    params.put(getVarName(name), NodeFactory.createLiteral(Long.toString(value), XSDDatatype.XSDinteger));
+  }
+
+  void setLiteral(Map<String, Node> params, String name, boolean value) {
+    params.put(getVarName(name), NodeFactory.createLiteral(Boolean.toString(value), XSDDatatype.XSDboolean));
+  }
+
+  String getVarName(String name) {
+    return StringUtils.removeStart(StringUtils.removeStart(name, "?"), "$");
+  }
+}
@@ -0,0 +1,131 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * The class hierarchy of the namespace as inferred by the reasoner, materialized once. Every class gets a number
+ * and keeps the numbers of all of its subclasses in a bitset, so that a subclass check is a single bit lookup.
+ * The direct subclasses of every class are kept as well.
+ */
+class ClassHierarchy {
+  private final Map<String, Integer> ids;
+  private final List<String> names;
+  private final List<List<String>> children;
+  private final List<BitSet> subClasses;
+
+  ClassHierarchy(List<String> names, List<List<String>> children, List<BitSet> subClasses) {
+    Map<String, Integer> ids = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      ids.put(names.get(i), i);
+    }
+    this.ids = ids;
+    this.names = names;
+    this.children = children;
+    this.subClasses = subClasses;
+  }
+
+  static ClassHierarchy build(OntModel model, String namespace) {
+    List<OntClass> classes = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    ExtendedIterator<OntClass> it = model.listNamedClasses();
+    while (it.hasNext()) {
+      OntClass ontClass = it.next();
+      if (namespace.equals(ontClass.getNameSpace())) {
+        classes.add(ontClass);
+        names.add(ontClass.getLocalName());
+      }
+    }
+
+    Map<String, Integer> ids = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      ids.put(names.get(i), i);
+    }
+
+    List<List<String>> children = new ArrayList<>();
+    List<BitSet> subClasses = new ArrayList<>();
+    for (OntClass ontClass : classes) {
+      List<String> direct = new ArrayList<>();
+      ExtendedIterator<OntClass> directIt = ontClass.listSubClasses(true);
+      while (directIt.hasNext()) {
+        direct.add(directIt.next().getLocalName());
+      }
+      children.add(Collections.unmodifiableList(direct));
+
+      BitSet all = new BitSet(names.size());
+      ExtendedIterator<OntClass> allIt = ontClass.listSubClasses(false);
+      while (allIt.hasNext()) {
+        OntClass subClass = allIt.next();
+        Integer id = subClass.isAnon() || !namespace.equals(subClass.getNameSpace())
+          ? null
+          : ids.get(subClass.getLocalName());
+        if (id != null) {
+          all.set(id);
+        }
+      }
+      if (ontClass.hasSubClass(ontClass)) {
+        all.set(ids.get(ontClass.getLocalName()));
+      }
+      subClasses.add(all);
+    }
+    return new ClassHierarchy(names, children, subClasses);
+  }
+
+  boolean contains(String className) {
+    return ids.containsKey(className);
+  }
+
+  List<String> getClassNames() {
+    return Collections.unmodifiableList(names);
+  }
+
+  List<String> getChildren(String className) {
+    return new ArrayList<>(children.get(ids.get(className)));
+  }
+
+  boolean isSubclassOf(String subclassName, String className) {
+    Integer subclassId = ids.get(subclassName);
+    return subclassId != null && subClasses.get(ids.get(className)).get(subclassId);
+  }
+
+  void write(DataOutputStream out) throws IOException {
+    out.writeInt(names.size());
+    for (int i = 0; i < names.size(); i++) {
+      out.writeUTF(names.get(i));
+      ModelSnapshot.writeStrings(out, children.get(i));
+      long[] bits = subClasses.get(i).toLongArray();
+      out.writeInt(bits.length);
+      for (long word : bits) {
+        out.writeLong(word);
+      }
+    }
+  }
+
+  static ClassHierarchy read(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    List<String> names = new ArrayList<>();
+    List<List<String>> children = new ArrayList<>();
+    List<BitSet> subClasses = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      names.add(in.readUTF());
+      children.add(Collections.unmodifiableList(ModelSnapshot.readStrings(in)));
+      long[] bits = new long[in.readInt()];
+      for (int j = 0; j < bits.length; j++) {
+        bits[j] = in.readLong();
+      }
+      subClasses.add(BitSet.valueOf(bits));
+    }
+    return new ClassHierarchy(names, children, subClasses);
+  }
+}
@@ -1,6 +1,11 @@
 package com.aegean.icsd.ontology.implementations;
 
 import javax.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
@@ -21,6 +26,8 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.shared.JenaException;
 import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.OWL2;
 import org.apache.jena.vocabulary.RDF;
@@ -47,11 +54,44 @@ public class MciModelReader implements IMciModelReader {
   @Autowired
   private DatasetProperties ontologyProps;
 
-  private OntModel model;
+  private volatile OntModel model;
+
+  private ModelSnapshot snapshot;
+
+  private ClassHierarchy hierarchy;
 
 
   @Override
   public ClassSchema getClassSchema(String className) throws OntologyException {
+    if (snapshot != null) {
+      ClassSchema schema = snapshot.getClassSchema(className);
+      if (schema != null) {
+        return schema;
+      }
+    }
+    return readClassSchema(className);
+  }
+
+  @Override
+  public List<String> getClassChildren(String className) {
+    if (hierarchy.contains(className)) {
+      return hierarchy.getChildren(className);
+    }
+    return readClassChildren(className);
+  }
+
+  @Override
+  public boolean isSubclassOf(String subclassName, String className) {
+    if (hierarchy.contains(className)) {
+      return hierarchy.isSubclassOf(subclassName, className);
+    }
+    LOGGER.info(String.format("Checking if %s is subclass of %s", subclassName, className));
+    OntClass classEntity = getOntClass(className);
+    OntClass subclassEntity = getOntClass(subclassName);
+    return classEntity.hasSubClass(subclassEntity);
+  }
+
+  ClassSchema readClassSchema(String className) throws OntologyException {
     LOGGER.info(String.format("Reading ontology schema for class %s", className));
     ClassSchema result = new ClassSchema();
     result.setClassName(className);
@@ -67,8 +107,7 @@ public class MciModelReader implements IMciModelReader {
     return result;
   }
 
-  @Override
-  public List<String> getClassChildren(String className) {
+  List<String> readClassChildren(String className) {
     LOGGER.info(String.format("Reading subclasses of class %s", className));
     OntClass entity = getOntClass(className);
     ExtendedIterator<OntClass> it = entity.listSubClasses(true);
@@ -79,14 +118,6 @@ public class MciModelReader implements IMciModelReader {
     return subClasses;
   }
 
-  @Override
-  public boolean isSubclassOf(String subclassName, String className) {
-    LOGGER.info(String.format("Checking if %s is subclass of %s", subclassName, className));
-    OntClass classEntity = getOntClass(className);
-    OntClass subclassEntity = getOntClass(subclassName);
-    return classEntity.hasSubClass(subclassEntity);
-  }
-
   @Override
   public Class<?> getJavaClassFromOwlType(String owlType) {
     Class<?> rangeClass = null;
@@ -355,7 +386,22 @@ public class MciModelReader implements IMciModelReader {
   }
 
   OntClass getOntClass(String className) {
-    return this.model.getOntClass(ontologyProps.getNamespace() + className);
+    return getModel().getOntClass(ontologyProps.getNamespace() + className);
+  }
+
+  /**
+   * When the rules are served from the snapshot the reasoner is not started during the setup,
+   * but only the first time a class that is missing from the snapshot is requested.
+   */
+  OntModel getModel() {
+    if (model == null) {
+      synchronized (this) {
+        if (model == null) {
+          model = loadModel(null);
+        }
+      }
+    }
+    return model;
   }
 
   String removeNamespacePrefix (String uri) {
@@ -370,6 +416,57 @@ public class MciModelReader implements IMciModelReader {
   @PostConstruct
   void setupModel () {
     LOGGER.info("START: Setting up the model");
+    String snapshotLocation = ontologyProps.getSnapshotLocation();
+    if (snapshotLocation == null || snapshotLocation.isEmpty()) {
+      model = loadModel(null);
+      hierarchy = ClassHierarchy.build(model, ontologyProps.getNamespace());
+      return;
+    }
+
+    byte[] ontology;
+    try (InputStream in = RDFDataMgr.open(ontologyProps.getOntologyLocation())) {
+      ontology = in.readAllBytes();
+    } catch (IOException | JenaException e) {
+      LOGGER.error("Unable to read the ontology, the snapshot will not be used", e);
+      model = loadModel(null);
+      hierarchy = ClassHierarchy.build(model, ontologyProps.getNamespace());
+      return;
+    }
+
+    Path snapshotPath = Paths.get(snapshotLocation);
+    String hash = ModelSnapshot.hash(ontology, ontologyProps.getOntologyType(), ontologyProps.getNamespace());
+    snapshot = ModelSnapshot.read(snapshotPath, hash);
+    if (snapshot != null) {
+      hierarchy = snapshot.getHierarchy();
+      LOGGER.info("END: Loaded the model snapshot from :" + snapshotLocation);
+      return;
+    }
+
+    model = loadModel(ontology);
+    hierarchy = ClassHierarchy.build(model, ontologyProps.getNamespace());
+    try {
+      ModelSnapshot created = createSnapshot(hash);
+      created.write(snapshotPath);
+      snapshot = created;
+      LOGGER.info("END: Stored the model snapshot in :" + snapshotLocation);
+    } catch (IOException e) {
+      LOGGER.error("Unable to store the model snapshot in :" + snapshotLocation, e);
+    }
+  }
+
+  ModelSnapshot createSnapshot(String hash) throws IOException {
+    ModelSnapshot result = new ModelSnapshot(hash, hierarchy);
+    for (String className : hierarchy.getClassNames()) {
+      try {
+        result.addClassSchema(className, readClassSchema(className));
+      } catch (OntologyException e) {
+        LOGGER.warn(String.format("Class %s will be read from the model: %s", className, e.getCodeMsg()));
+      }
+    }
+    return result;
+  }
+
+  OntModel loadModel(byte[] ontology) {
     String ontologyName = ontologyProps.getOntologyName();
 
     ModelMaker maker= ModelFactory.createMemModelMaker();
@@ -377,9 +474,15 @@ public class MciModelReader implements IMciModelReader {
     spec.setBaseModelMaker(maker);
     spec.setImportModelMaker(maker);
     Model base = maker.createModel( ontologyName );
-    model = ModelFactory.createOntologyModel(spec, base);
+    OntModel ontModel = ModelFactory.createOntologyModel(spec, base);
     LOGGER.info("START: Reading the model from :" + ontologyProps.getOntologyLocation());
-    model.read(ontologyProps.getOntologyLocation(), ontologyProps.getOntologyType());
+    if (ontology == null) {
+      ontModel.read(ontologyProps.getOntologyLocation(), ontologyProps.getOntologyType());
+    } else {
+      ontModel.read(new ByteArrayInputStream(ontology), ontologyProps.getOntologyLocation(),
+        ontologyProps.getOntologyType());
+    }
     LOGGER.info("END: Reading the model from :" + ontologyProps.getOntologyLocation());
+    return ontModel;
   }
 }
@@ -0,0 +1,333 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.log4j.Logger;
+
+import com.aegean.icsd.ontology.beans.CardinalitySchema;
+import com.aegean.icsd.ontology.beans.ClassSchema;
+import com.aegean.icsd.ontology.beans.DataRangeRestrinctionSchema;
+import com.aegean.icsd.ontology.beans.PropertySchema;
+import com.aegean.icsd.ontology.beans.RestrictionSchema;
+
+/**
+ * Precompiled view of the ontology, as computed by the reasoner: the schema of every class of the namespace
+ * and the {@link ClassHierarchy} of the namespace. The snapshot is stored in a compact binary file and is
+ * valid only for the ontology it was created from, identified by its hash.
+ */
+class ModelSnapshot {
+  private static Logger LOGGER = Logger.getLogger(ModelSnapshot.class);
+
+  private static final int MAGIC = 0x4D434953;
+  private static final int FORMAT_VERSION = 2;
+
+  private final String hash;
+  private final ClassHierarchy hierarchy;
+  private final Map<String, byte[]> schemas = new HashMap<>();
+
+  ModelSnapshot(String hash, ClassHierarchy hierarchy) {
+    this.hash = hash;
+    this.hierarchy = hierarchy;
+  }
+
+  String getHash() {
+    return hash;
+  }
+
+  ClassHierarchy getHierarchy() {
+    return hierarchy;
+  }
+
+  void addClassSchema(String className, ClassSchema schema) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    writeClassSchema(out, schema);
+    out.flush();
+    schemas.put(className, bytes.toByteArray());
+  }
+
+  /**
+   * @return a new instance of the schema of the class every time, or null if the snapshot doesn't have it
+   */
+  ClassSchema getClassSchema(String className) {
+    byte[] schema = schemas.get(className);
+    if (schema == null) {
+      return null;
+    }
+    try {
+      return readClassSchema(new DataInputStream(new ByteArrayInputStream(schema)));
+    } catch (IOException e) {
+      LOGGER.error(String.format("Corrupted snapshot entry for %s", className), e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the snapshot to a temporary file next to the given one, which is then moved in place,
+   * so that other nodes never read a half written snapshot.
+   */
+  void write(Path location) throws IOException {
+    Path parent = location.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path tmp = Files.createTempFile(parent, location.getFileName().toString(), ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+      write(out);
+    } catch (IOException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    Files.move(tmp, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  void write(OutputStream stream) throws IOException {
+    DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeUTF(hash);
+    hierarchy.write(out);
+    out.writeInt(schemas.size());
+    for (Map.Entry<String, byte[]> entry : schemas.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeInt(entry.getValue().length);
+      out.write(entry.getValue());
+    }
+    out.flush();
+  }
+
+  /**
+   * @return the snapshot stored in the given location, or null if there is none or if it belongs to
+   * an ontology with a different hash
+   */
+  static ModelSnapshot read(Path location, String expectedHash) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(location))) {
+      ModelSnapshot snapshot = read(in);
+      if (!snapshot.getHash().equals(expectedHash)) {
+        LOGGER.info(String.format("Snapshot %s is outdated", location));
+        return null;
+      }
+      return snapshot;
+    } catch (NoSuchFileException e) {
+      LOGGER.info(String.format("No snapshot found in %s", location));
+      return null;
+    } catch (IOException e) {
+      LOGGER.error(String.format("Unable to read the snapshot %s", location), e);
+      return null;
+    }
+  }
+
+  static ModelSnapshot read(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(stream);
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+      throw new IOException("Unsupported snapshot format");
+    }
+    String hash = in.readUTF();
+    ModelSnapshot snapshot = new ModelSnapshot(hash, ClassHierarchy.read(in));
+    int schemas = in.readInt();
+    for (int i = 0; i < schemas; i++) {
+      String className = in.readUTF();
+      byte[] schema = new byte[in.readInt()];
+      in.readFully(schema);
+      snapshot.schemas.put(className, schema);
+    }
+    return snapshot;
+  }
+
+  /**
+   * The hash of the ontology content, along with the settings used to read it and the snapshot format.
+   */
+  static String hash(byte[] ontology, String ontologyType, String namespace) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    digest.update((FORMAT_VERSION + "\n" + ontologyType + "\n" + namespace + "\n").getBytes(StandardCharsets.UTF_8));
+    byte[] hash = digest.digest(ontology);
+    StringBuilder hex = new StringBuilder();
+    for (byte b : hash) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  static void writeClassSchema(DataOutputStream out, ClassSchema schema) throws IOException {
+    writeString(out, schema.getId() == null ? null : schema.getId().toString());
+    writeString(out, schema.getClassName());
+    writeSize(out, schema.getProperties());
+    if (schema.getProperties() != null) {
+      for (PropertySchema property : schema.getProperties()) {
+        writePropertySchema(out, property);
+      }
+    }
+    writeRestrictionSchemas(out, schema.getRestrictions());
+    writeRestrictionSchemas(out, schema.getEqualityRestrictions());
+  }
+
+  static ClassSchema readClassSchema(DataInputStream in) throws IOException {
+    ClassSchema schema = new ClassSchema();
+    String id = readString(in);
+    schema.setId(id == null ? null : UUID.fromString(id));
+    schema.setClassName(readString(in));
+    int properties = in.readInt();
+    if (properties >= 0) {
+      List<PropertySchema> list = new ArrayList<>();
+      for (int i = 0; i < properties; i++) {
+        list.add(readPropertySchema(in));
+      }
+      schema.setProperties(list);
+    }
+    schema.setRestrictions(readRestrictionSchemas(in));
+    schema.setEqualityRestrictions(readRestrictionSchemas(in));
+    return schema;
+  }
+
+  static void writePropertySchema(DataOutputStream out, PropertySchema property) throws IOException {
+    writeString(out, property.getName());
+    writeString(out, property.getParent());
+    writeString(out, property.getInverse());
+    out.writeBoolean(property.isObjectProperty());
+    writeString(out, property.getRange());
+    writeStrings(out, property.getEnumerations());
+    out.writeBoolean(property.isMandatory());
+    out.writeBoolean(property.isSymmetric());
+    out.writeBoolean(property.isReflexive());
+    out.writeBoolean(property.isIrreflexive());
+  }
+
+  static PropertySchema readPropertySchema(DataInputStream in) throws IOException {
+    PropertySchema property = new PropertySchema();
+    property.setName(readString(in));
+    property.setParent(readString(in));
+    property.setInverse(readString(in));
+    property.setObjectProperty(in.readBoolean());
+    property.setRange(readString(in));
+    property.setEnumerations(readStrings(in));
+    property.setMandatory(in.readBoolean());
+    property.setSymmetric(in.readBoolean());
+    property.setReflexive(in.readBoolean());
+    property.setIrreflexive(in.readBoolean());
+    return property;
+  }
+
+  static void writeRestrictionSchemas(DataOutputStream out, List<RestrictionSchema> restrictions)
+    throws IOException {
+    writeSize(out, restrictions);
+    if (restrictions == null) {
+      return;
+    }
+    for (RestrictionSchema restriction : restrictions) {
+      out.writeBoolean(restriction.getOnPropertySchema() != null);
+      if (restriction.getOnPropertySchema() != null) {
+        writePropertySchema(out, restriction.getOnPropertySchema());
+      }
+      writeString(out, restriction.getType());
+      writeString(out, restriction.getExactValue());
+      CardinalitySchema cardinality = restriction.getCardinalitySchema();
+      out.writeBoolean(cardinality != null);
+      if (cardinality != null) {
+        writeString(out, cardinality.getOccurrence());
+        List<DataRangeRestrinctionSchema> dataRanges = cardinality.getDataRangeRestrictions();
+        writeSize(out, dataRanges);
+        if (dataRanges != null) {
+          for (DataRangeRestrinctionSchema dataRange : dataRanges) {
+            writeString(out, dataRange.getPredicate());
+            writeString(out, dataRange.getValue());
+            writeString(out, dataRange.getDatatype());
+          }
+        }
+      }
+    }
+  }
+
+  static List<RestrictionSchema> readRestrictionSchemas(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    List<RestrictionSchema> restrictions = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      RestrictionSchema restriction = new RestrictionSchema();
+      if (in.readBoolean()) {
+        restriction.setOnPropertySchema(readPropertySchema(in));
+      }
+      restriction.setType(readString(in));
+      restriction.setExactValue(readString(in));
+      if (in.readBoolean()) {
+        CardinalitySchema cardinality = new CardinalitySchema();
+        cardinality.setOccurrence(readString(in));
+        int dataRanges = in.readInt();
+        if (dataRanges >= 0) {
+          List<DataRangeRestrinctionSchema> list = new ArrayList<>();
+          for (int j = 0; j < dataRanges; j++) {
+            DataRangeRestrinctionSchema dataRange = new DataRangeRestrinctionSchema();
+            dataRange.setPredicate(readString(in));
+            dataRange.setValue(readString(in));
+            dataRange.setDatatype(readString(in));
+            list.add(dataRange);
+          }
+          cardinality.setDataRangeRestrictions(list);
+        }
+        restriction.setCardinalitySchema(cardinality);
+      }
+      restrictions.add(restriction);
+    }
+    return restrictions;
+  }
+
+  static void writeSize(DataOutputStream out, List<?> list) throws IOException {
+    out.writeInt(list == null ? -1 : list.size());
+  }
+
+  static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+    writeSize(out, values);
+    if (values != null) {
+      for (String value : values) {
+        writeString(out, value);
+      }
+    }
+  }
+
+  static List<String> readStrings(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      values.add(readString(in));
+    }
+    return values;
+  }
+
+  static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
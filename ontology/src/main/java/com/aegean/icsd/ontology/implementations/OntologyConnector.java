@@ -1,226 +1,248 @@
 package com.aegean.icsd.ontology.implementations;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import org.apache.http.client.methods.CloseableHttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
-import org.apache.jena.query.ParameterizedSparqlString;
-import org.apache.jena.query.QueryException;
 import org.apache.log4j.Logger;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 
-import com.aegean.icsd.ontology.beans.DatasetProperties;
-import com.aegean.icsd.ontology.beans.FusekiResponse;
 import com.aegean.icsd.ontology.beans.OntologyException;
-import com.aegean.icsd.ontology.interfaces.IOntologyConnector;
 import com.aegean.icsd.ontology.queries.AskQuery;
 import com.aegean.icsd.ontology.queries.InsertQuery;
 import com.aegean.icsd.ontology.queries.SelectQuery;
-import com.aegean.icsd.ontology.queries.beans.InsertParam;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
-@Service
-public class OntologyConnector implements IOntologyConnector {
+public class OntologyConnector extends AbstractOntologyConnector {
   private static Logger LOGGER = Logger.getLogger(OntologyConnector.class);
 
-  @Autowired
-  private DatasetProperties ontologyProps;
+  private CloseableHttpClient client;
+
+  private HttpClient asyncClient;
+
+  private RequestLimiter limiter;
+
+  @PostConstruct
+  void setupClient() {
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(ontologyProps.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(ontologyProps.getMaxConnectionsPerRoute());
+
+    RequestConfig requestConfig = RequestConfig.custom()
+      .setConnectTimeout(ontologyProps.getConnectTimeout())
+      .setConnectionRequestTimeout(ontologyProps.getConnectTimeout())
+      .setSocketTimeout(ontologyProps.getSocketTimeout())
+      .build();
+
+    client = HttpClients.custom()
+      .setConnectionManager(connectionManager)
+      .setDefaultRequestConfig(requestConfig)
+      .setKeepAliveStrategy((response, context) -> {
+        long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return keepAlive > 0 ? keepAlive : ontologyProps.getKeepAlive();
+      })
+      .evictExpiredConnections()
+      .evictIdleConnections(ontologyProps.getIdleTimeout(), TimeUnit.MILLISECONDS)
+      .build();
+
+    asyncClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofMillis(ontologyProps.getConnectTimeout()))
+      .build();
+    limiter = new RequestLimiter(ontologyProps.getMaxInFlight());
+  }
+
+  @PreDestroy
+  void closeClient() {
+    try {
+      client.close();
+    } catch (IOException e) {
+      LOGGER.error("Error when closing the client", e);
+    }
+  }
 
   @Override
   public boolean ask(AskQuery ask) throws OntologyException {
-    ParameterizedSparqlString sparql = getPrefixedSparql(new HashMap<>());
-    sparql.setCommandText(ask.getCommand());
+    String query = buildAskQuery(ask);
+    QueryMetrics.Timer timer = metrics.start("ASK", ask.getCommand(), query);
 
-    for (Map.Entry<String, String> entry : ask.getIriParams().entrySet()) {
-      sparql.setIri(entry.getKey(), entry.getValue());
+    try {
+      return execute("query", query, timer,
+        response -> SparqlResultsReader.readBoolean(timer.countBytes(response.getEntity().getContent())));
+    } catch (HttpResponseException e) {
+      throw new OntologyException("ASK.400", "Error when executing the query", e);
+    } catch (IOException e) {
+      throw new OntologyException("ASK.999", "Error when executing the query", e);
     }
+  }
 
-    for (Map.Entry<String, String> entry : ask.getStrLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
-    }
+  @Override
+  public void select(SelectQuery selectQuery, Consumer<JsonObject> rowConsumer) throws OntologyException {
+    String query = buildSelectQuery(selectQuery);
+    QueryMetrics.Timer timer = metrics.start("SELECT", selectQuery.getCommand(), query);
 
-    for (Map.Entry<String, Integer> entry : ask.getIntLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
+    try {
+      execute("query", query, timer, response -> {
+        SparqlResultsReader.readBindings(timer.countBytes(response.getEntity().getContent()),
+          timer.countRows(rowConsumer));
+        return null;
+      });
+    } catch (HttpResponseException e) {
+      throw new OntologyException("SEL.400", "Error when executing the query", e);
+    } catch (IOException e) {
+      throw new OntologyException("SEL.1", "Error when executing the query", e);
     }
+  }
 
-    for (Map.Entry<String, Long> entry : ask.getLongLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
-    }
+  @Override
+  public boolean insert(InsertQuery insertQuery) throws OntologyException {
+    String query = buildInsertQuery(insertQuery);
+    QueryMetrics.Timer timer = metrics.start("INSERT", insertQuery.getCommand(), query);
 
-    for (Map.Entry<String, Boolean> entry : ask.getBoolLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
+    try {
+      return execute("update", query, timer, response -> true);
+    } catch (HttpResponseException e) {
+      throw new OntologyException("INS.2", "Error when inserting the data", e);
+    } catch (IOException e) {
+      throw new OntologyException("INS.99", "Error when executing the query", e);
     }
+  }
 
-
+  @Override
+  public CompletableFuture<JsonArray> selectAsync(SelectQuery selectQuery) {
     String query;
     try {
-      query = sparql.asQuery().toString();
-    } catch (QueryException ex) {
-      throw new OntologyException("ASK.1", "Error when constructing the query", ex);
+      query = buildSelectQuery(selectQuery);
+    } catch (OntologyException e) {
+      return CompletableFuture.failedFuture(e);
     }
+    QueryMetrics.Timer timer = metrics.start("SELECT", selectQuery.getCommand(), query);
 
-    CloseableHttpClient client = HttpClients.createDefault();
-    try {
-      HttpPost request = buildPostRequest("query", query);
-      CloseableHttpResponse response = client.execute(request);
-      if (response.getStatusLine().getStatusCode() >= 400) {
-        throw new OntologyException("ASK.400", "Error when executing the query");
-      }
-      String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-      FusekiResponse res = new Gson().fromJson(body, FusekiResponse.class);
-      return res.getAskResponse();
-    } catch (IOException e) {
-      throw new OntologyException("ASK.999", "Error when executing the query", e);
-    } finally {
+    return executeAsync("query", query, timer, "SEL.400", "SEL.1").thenApply(body -> {
+      JsonArray array = new JsonArray();
       try {
-        client.close();
+        SparqlResultsReader.readBindings(new ByteArrayInputStream(body), timer.countRows(array::add));
       } catch (IOException e) {
-        LOGGER.error("Error when closing the client", e);
+        throw new CompletionException(new OntologyException("SEL.1", "Error when reading the results", e));
       }
-    }
+      return array;
+    }).whenComplete(timer::stop);
   }
 
   @Override
-  public JsonArray select(SelectQuery selectQuery) throws OntologyException {
-    JsonArray array = new JsonArray();
-
-    ParameterizedSparqlString sparql = getPrefixedSparql(selectQuery.getPrefixes());
-    sparql.setCommandText(selectQuery.getCommand());
-
-    for(Map.Entry<String, String> entry : selectQuery.getIriParams().entrySet()) {
-      sparql.setIri(entry.getKey(), entry.getValue());
-    }
-    for(Map.Entry<String, String> entry : selectQuery.getLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
-    }
-    for(Map.Entry<String, Long> entry : selectQuery.getLongLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
-    }
-    for(Map.Entry<String, Boolean> entry : selectQuery.getBoolLiteralParams().entrySet()) {
-      sparql.setLiteral(entry.getKey(), entry.getValue());
-    }
-
+  public CompletableFuture<Boolean> insertAsync(InsertQuery insertQuery) {
     String query;
     try {
-      query = sparql.asQuery().toString();
-    } catch (QueryException ex ) {
-      throw new OntologyException("SEL.1", "Error when constructing the query", ex);
+      query = buildInsertQuery(insertQuery);
+    } catch (OntologyException e) {
+      return CompletableFuture.failedFuture(e);
     }
+    QueryMetrics.Timer timer = metrics.start("INSERT", insertQuery.getCommand(), query);
 
-    CloseableHttpClient client = HttpClients.createDefault();
-    try {
-      HttpPost request = buildPostRequest("query", query);
-
-      CloseableHttpResponse response = client.execute(request);
-      if (response.getStatusLine().getStatusCode() >= 400) {
-        throw new OntologyException("SEL.400", "Error when executing the query");
-      }
-
-      String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-      FusekiResponse res = new Gson().fromJson(body, FusekiResponse.class);
-      List<String> varNames = res.getHead().getVars();
-      for (JsonElement elem : res.getResults().getBindings()) {
-        JsonObject resultObj = new JsonObject();
-        for (String varName : varNames) {
-          JsonObject currentResult = elem.getAsJsonObject();
-          if (currentResult.has(varName)) {
-            String value = currentResult.get(varName).getAsJsonObject().get("value").getAsString();
-            resultObj.addProperty(varName, value);
-          }
-        }
-        if (resultObj.entrySet().size() > 0) {
-          array.add(resultObj);
-        }
-      }
-    } catch (IOException e) {
-      throw new OntologyException("SEL.1", "Error when executing the query", e);
-    } finally {
-      try {
-        client.close();
-      } catch (IOException e) {
-        LOGGER.error("Error when closing the client", e);
-      }
-    }
-
-    return array;
+    return executeAsync("update", query, timer, "INS.2", "INS.99").thenApply(body -> true)
+      .whenComplete(timer::stop);
   }
 
   @Override
-  public boolean insert(InsertQuery insertQuery) throws OntologyException {
-    ParameterizedSparqlString sparql = getPrefixedSparql(insertQuery.getPrefixes());
-    sparql.setCommandText(insertQuery.getCommand());
-
-    for (InsertParam param : insertQuery.getParams()) {
-      if (param.isIriParam()) {
-        sparql.setIri(param.getName(), param.getValue().toString());
-      } else {
-        if (String.class.equals(param.getValueClass())) {
-          sparql.setLiteral(param.getName(), param.getValue().toString());
-        } else if (Long.class.equals(param.getValueClass())) {
-          sparql.setLiteral(param.getName(), Long.parseLong(param.getValue().toString()));
-        } else if (Boolean.class.equals(param.getValueClass())) {
-          sparql.setLiteral(param.getName(), (Boolean) param.getValue());
-        }
-      }
-    }
-
+  public CompletableFuture<Boolean> askAsync(AskQuery ask) {
     String query;
     try {
-      query = sparql.asUpdate().toString();
-    } catch (QueryException ex ) {
-      throw new OntologyException("INS.1", "Error when constructing the query", ex);
+      query = buildAskQuery(ask);
+    } catch (OntologyException e) {
+      return CompletableFuture.failedFuture(e);
     }
+    QueryMetrics.Timer timer = metrics.start("ASK", ask.getCommand(), query);
 
-    CloseableHttpClient client = HttpClients.createDefault();
-    try {
-      HttpPost request = buildPostRequest("update", query);
-      CloseableHttpResponse response = client.execute(request);
-      if (response.getStatusLine().getStatusCode() != 200) {
-        throw new OntologyException("INS.2", "Error when inserting the data");
-      }
-      return true;
-    } catch (IOException e) {
-      throw new OntologyException("INS.99", "Error when executing the query", e);
-    } finally {
+    return executeAsync("query", query, timer, "ASK.400", "ASK.999").thenApply(body -> {
       try {
-        client.close();
+        return SparqlResultsReader.readBoolean(new ByteArrayInputStream(body));
       } catch (IOException e) {
-        LOGGER.error("Error when closing the client", e);
+        throw new CompletionException(new OntologyException("ASK.999", "Error when reading the results", e));
       }
-    }
-
+    }).whenComplete(timer::stop);
   }
 
-  ParameterizedSparqlString getPrefixedSparql(Map<String, String> prefixes) {
-    Map<String, String> defaultPrefixes = new HashMap<>();
-    defaultPrefixes.put(ontologyProps.getPrefix(), ontologyProps.getNamespace());
-    defaultPrefixes.put("owl", "http://www.w3.org/2002/07/owl#");
-    defaultPrefixes.put("rdf", "http://www.w3.org/1999/02/22-rdf-syntax-ns#");
-    defaultPrefixes.put("rdfs", "http://www.w3.org/2000/01/rdf-schema#");
-    defaultPrefixes.put("xsd", "http://www.w3.org/2001/XMLSchema#");
-
-    defaultPrefixes.putAll(prefixes);
+  /**
+   * Executes the query on the given endpoint of the dataset. The response content is handed to the handler
+   * when the status is successful and is always consumed afterwards, so that the connection returns to the pool.
+   * The query is recorded in the timer once the handler returns.
+   */
+  <T> T execute(String action, String query, QueryMetrics.Timer timer, ResponseHandler<T> handler)
+    throws IOException {
+    HttpPost request = buildPostRequest(action, query);
+    try {
+      return client.execute(request, response -> {
+        int status = response.getStatusLine().getStatusCode();
+        if (status >= 400) {
+          String body = response.getEntity() != null
+            ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)
+            : null;
+          throw new HttpResponseException(status, "Error when executing " + action + ": " + body);
+        }
+        return handler.handleResponse(response);
+      });
+    } catch (IOException | RuntimeException e) {
+      timer.fail();
+      throw e;
+    } finally {
+      timer.stop();
+    }
+  }
 
-    ParameterizedSparqlString sparql = new ParameterizedSparqlString();
-    sparql.setNsPrefixes(defaultPrefixes);
-    return sparql;
+  /**
+   * Non-blocking counterpart of {@link #execute(String, String, QueryMetrics.Timer, ResponseHandler)}. At most
+   * maxInFlight requests are sent at the same time, the rest wait in the limiter's queue. The size of the response
+   * is added to the timer, which the caller stops once the response is read.
+   */
+  CompletableFuture<byte[]> executeAsync(String action, String query, QueryMetrics.Timer timer,
+                                         String statusErrorCode, String ioErrorCode) {
+    return limiter.submit(() -> asyncClient.sendAsync(buildAsyncRequest(action, query), BodyHandlers.ofByteArray()))
+      .handle((response, ex) -> {
+        if (ex != null) {
+          Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+          throw new CompletionException(new OntologyException(ioErrorCode, "Error when executing the query", cause));
+        }
+        timer.addBytesReceived(response.body().length);
+        if (response.statusCode() >= 400) {
+          throw new CompletionException(new OntologyException(statusErrorCode,
+            "Error when executing " + action + ": " + new String(response.body(), StandardCharsets.UTF_8)));
+        }
+        return response.body();
+      });
   }
 
+  HttpRequest buildAsyncRequest(String action, String query) {
+    String body = action + "=" + URLEncoder.encode(query, StandardCharsets.UTF_8);
+    return HttpRequest.newBuilder(URI.create(ontologyProps.getDatasetLocation() + "/" + action))
+      .timeout(Duration.ofMillis(ontologyProps.getSocketTimeout()))
+      .header("Accept", "application/sparql-results+json,*/*;q=0.9")
+      .header("Content-Type", "application/x-www-form-urlencoded")
+      .POST(HttpRequest.BodyPublishers.ofString(body))
+      .build();
+  }
 
   HttpPost buildPostRequest (String action, String query) throws UnsupportedEncodingException {
     HttpPost httpPost = new HttpPost(ontologyProps.getDatasetLocation() + "/" + action);
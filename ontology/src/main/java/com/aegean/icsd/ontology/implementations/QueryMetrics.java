@@ -0,0 +1,287 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.aegean.icsd.ontology.beans.DatasetProperties;
+import com.aegean.icsd.ontology.beans.QueryShapeMetrics;
+import com.aegean.icsd.ontology.interfaces.IQueryMetrics;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Metrics of the executed queries per shape, i.e. per command before its values are bound. The VALUES blocks and
+ * the NOT IN lists of a shape are collapsed, as are the repeated triples of an INSERT, so that a query has a single
+ * shape whatever the number of its values or entries. The latencies are kept
+ * in a histogram of logarithmic buckets, four per power of two microseconds, so that the percentiles are within
+ * 20% of the actual latencies without keeping every latency.
+ * <p>
+ * The number of shapes is bounded, the queries of any further shape are counted under a single overflow shape.
+ * The queries that take longer than the slow query threshold are logged with their rendered SPARQL.
+ */
+@Service
+public class QueryMetrics implements IQueryMetrics {
+  private static Logger SLOW_QUERIES = Logger.getLogger(QueryMetrics.class.getName() + ".slow");
+
+  private static final int BUCKETS_PER_POWER = 4;
+  private static final int BUCKETS = 40 * BUCKETS_PER_POWER;
+  private static final String OVERFLOW_SHAPE = "(other)";
+  private static final Pattern VALUES_BLOCK = Pattern.compile("VALUES (\\?\\w+) \\{[^}]*}");
+  private static final Pattern NOT_IN_LIST = Pattern.compile("NOT IN \\([^)]*\\)");
+  private static final Pattern PARAM_INDEX = Pattern.compile("(\\?[A-Za-z_]+)\\d+\\b");
+
+  @Autowired
+  private DatasetProperties ontologyProps;
+
+  private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<>();
+
+  /**
+   * Starts timing a query
+   *
+   * @param type the type of the query, i.e. SELECT, ASK or INSERT
+   * @param command the command of the query, before its values are bound
+   * @param query the rendered query
+   */
+  Timer start(String type, String command, String query) {
+    return new Timer(type, command, query);
+  }
+
+  @Override
+  public List<QueryShapeMetrics> getMetrics() {
+    List<QueryShapeMetrics> metrics = new ArrayList<>();
+    for (Shape shape : shapes.values()) {
+      metrics.add(shape.toMetrics());
+    }
+    metrics.sort(Comparator.comparingDouble(QueryShapeMetrics::getTotalMs).reversed());
+    return metrics;
+  }
+
+  @Override
+  public void reset() {
+    shapes.clear();
+  }
+
+  void record(Timer timer, long nanos) {
+    String command = getShape(timer.command);
+    String key = timer.type + " " + command;
+    Shape shape = shapes.get(key);
+    if (shape == null) {
+      if (shapes.size() >= ontologyProps.getMetricsMaxShapes()) {
+        key = timer.type + " " + OVERFLOW_SHAPE;
+        shape = shapes.computeIfAbsent(key, x -> new Shape(timer.type, OVERFLOW_SHAPE));
+      } else {
+        shape = shapes.computeIfAbsent(key, x -> new Shape(timer.type, command));
+      }
+    }
+    shape.record(nanos, timer.rows, timer.bytesSent, timer.bytesReceived, timer.failed);
+
+    long slowQuery = ontologyProps.getMetricsSlowQuery();
+    long millis = nanos / 1_000_000;
+    if (slowQuery > 0 && millis >= slowQuery) {
+      SLOW_QUERIES.warn(String.format("%s of %d ms, %d rows, %d bytes received%s:%n%s", timer.type, millis,
+        timer.rows, timer.bytesReceived, timer.failed ? ", failed" : "", timer.query));
+    }
+  }
+
+  static String getShape(String command) {
+    if (command.startsWith("INSERT DATA")) {
+      return getInsertShape(command);
+    }
+    String shape = VALUES_BLOCK.matcher(command).replaceAll("VALUES $1 { ... }");
+    return NOT_IN_LIST.matcher(shape).replaceAll("NOT IN (...)");
+  }
+
+  /**
+   * @return the distinct triples of the insert, with the indexes of their params removed
+   */
+  static String getInsertShape(String command) {
+    int start = command.indexOf('{');
+    int end = command.lastIndexOf('}');
+    if (start < 0 || end < start) {
+      return command;
+    }
+    Set<String> triples = new LinkedHashSet<>();
+    List<String> terms = new ArrayList<>();
+    for (String token : command.substring(start + 1, end).trim().split("\\s+")) {
+      if (";".equals(token) || ".".equals(token)) {
+        if (terms.size() == 3) {
+          triples.add(String.join(" ", terms));
+        }
+        terms = ".".equals(token) || terms.isEmpty() ? new ArrayList<>() : new ArrayList<>(terms.subList(0, 1));
+      } else if (!token.isEmpty()) {
+        terms.add(PARAM_INDEX.matcher(token).replaceAll("$1"));
+      }
+    }
+    if (terms.size() == 3) {
+      triples.add(String.join(" ", terms));
+    }
+
+    StringBuilder shape = new StringBuilder(command.substring(0, start + 1)).append("\n");
+    for (String triple : triples) {
+      shape.append("\t").append(triple).append(" .\n");
+    }
+    return shape.append("}\n").toString();
+  }
+
+  static int getBucket(long nanos) {
+    long micros = Math.max(1, nanos / 1000);
+    int bucket = (int) Math.ceil(BUCKETS_PER_POWER * Math.log(micros) / Math.log(2));
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  static double getBucketMs(int bucket) {
+    return Math.pow(2, (double) bucket / BUCKETS_PER_POWER) / 1000;
+  }
+
+  /**
+   * The measurements of a single query, recorded once it is stopped
+   */
+  class Timer {
+    private final String type;
+    private final String command;
+    private final String query;
+    private final long start = System.nanoTime();
+    private final long bytesSent;
+    private volatile long rows;
+    private volatile long bytesReceived;
+    private volatile boolean failed;
+
+    Timer(String type, String command, String query) {
+      this.type = type;
+      this.command = command;
+      this.query = query;
+      this.bytesSent = query.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    Consumer<JsonObject> countRows(Consumer<JsonObject> rowConsumer) {
+      return row -> {
+        rows++;
+        rowConsumer.accept(row);
+      };
+    }
+
+    InputStream countBytes(InputStream stream) {
+      return new FilterInputStream(stream) {
+        @Override
+        public int read() throws IOException {
+          int read = super.read();
+          if (read >= 0) {
+            bytesReceived++;
+          }
+          return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          int read = super.read(b, off, len);
+          if (read > 0) {
+            bytesReceived += read;
+          }
+          return read;
+        }
+      };
+    }
+
+    void addRows(long count) {
+      rows += count;
+    }
+
+    void addBytesReceived(long count) {
+      bytesReceived += count;
+    }
+
+    void fail() {
+      failed = true;
+    }
+
+    void stop() {
+      record(this, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the timer once the future of the query completes, counting it as an error if it completes exceptionally
+     */
+    void stop(Object result, Throwable ex) {
+      if (ex != null) {
+        fail();
+      }
+      stop();
+    }
+  }
+
+  static class Shape {
+    private final String type;
+    private final String command;
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long errors;
+    private long rows;
+    private long bytesSent;
+    private long bytesReceived;
+    private long totalNanos;
+    private long maxNanos;
+
+    Shape(String type, String command) {
+      this.type = type;
+      this.command = command;
+    }
+
+    synchronized void record(long nanos, long rows, long bytesSent, long bytesReceived, boolean failed) {
+      buckets[getBucket(nanos)]++;
+      count++;
+      errors += failed ? 1 : 0;
+      this.rows += rows;
+      this.bytesSent += bytesSent;
+      this.bytesReceived += bytesReceived;
+      totalNanos += nanos;
+      maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    synchronized QueryShapeMetrics toMetrics() {
+      QueryShapeMetrics metrics = new QueryShapeMetrics();
+      metrics.setType(type);
+      metrics.setShape(command);
+      metrics.setCount(count);
+      metrics.setErrors(errors);
+      metrics.setRows(rows);
+      metrics.setBytesSent(bytesSent);
+      metrics.setBytesReceived(bytesReceived);
+      metrics.setTotalMs(totalNanos / 1e6);
+      metrics.setMaxMs(maxNanos / 1e6);
+      metrics.setP50Ms(getPercentile(0.50));
+      metrics.setP95Ms(getPercentile(0.95));
+      metrics.setP99Ms(getPercentile(0.99));
+      return metrics;
+    }
+
+    /**
+     * @return the upper bound of the bucket of the percentile, capped to the maximum latency
+     */
+    double getPercentile(double percentile) {
+      long rank = (long) Math.ceil(percentile * count);
+      long seen = 0;
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        seen += buckets[bucket];
+        if (seen >= rank && seen > 0) {
+          return Math.min(getBucketMs(bucket), maxNanos / 1e6);
+        }
+      }
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of asynchronous requests that are in flight at the same time. Requests over the limit
+ * are queued and started when a running one completes, so that no thread is ever blocked waiting for a slot.
+ * <p>
+ * The queue is drained by one thread at a time. A request that completes while it is started, or while another
+ * thread drains, only marks that there is more to drain, so the stack never grows with the queue.
+ */
+class RequestLimiter {
+  private final Semaphore permits;
+  private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger drains = new AtomicInteger();
+
+  RequestLimiter(int maxInFlight) {
+    this.permits = new Semaphore(maxInFlight);
+  }
+
+  <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    pending.add(() -> {
+      CompletableFuture<T> started;
+      try {
+        started = request.get();
+      } catch (RuntimeException e) {
+        started = CompletableFuture.failedFuture(e);
+      }
+      started.whenComplete((value, ex) -> {
+        permits.release();
+        drain();
+        if (ex != null) {
+          result.completeExceptionally(ex);
+        } else {
+          result.complete(value);
+        }
+      });
+    });
+    drain();
+    return result;
+  }
+
+  void drain() {
+    if (drains.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      while (!pending.isEmpty() && permits.tryAcquire()) {
+        Runnable next = pending.poll();
+        if (next == null) {
+          permits.release();
+          break;
+        }
+        next.run();
+      }
+      missed = drains.addAndGet(-missed);
+    } while (missed != 0);
+  }
+}
@@ -0,0 +1,103 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Streaming reader of the application/sparql-results+json format. The response is decoded token by token
+ * and every binding is handed over as soon as it is read, so the body is never held in memory as a whole.
+ */
+class SparqlResultsReader {
+
+  private SparqlResultsReader() { }
+
+  /**
+   * Passes each binding of a SELECT response to the consumer as a {@link JsonObject} of variable to value
+   */
+  static void readBindings(InputStream stream, Consumer<JsonObject> rowConsumer) throws IOException {
+    try (JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if ("results".equals(reader.nextName())) {
+          readResults(reader, rowConsumer);
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+    }
+  }
+
+  static boolean readBoolean(InputStream stream) throws IOException {
+    try (JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      Boolean result = null;
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if ("boolean".equals(reader.nextName())) {
+          result = reader.nextBoolean();
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+      if (result == null) {
+        throw new IOException("No boolean found in the response");
+      }
+      return result;
+    }
+  }
+
+  static void readResults(JsonReader reader, Consumer<JsonObject> rowConsumer) throws IOException {
+    reader.beginObject();
+    while (reader.hasNext()) {
+      if ("bindings".equals(reader.nextName())) {
+        reader.beginArray();
+        while (reader.hasNext()) {
+          JsonObject row = readBinding(reader);
+          if (row.size() > 0) {
+            rowConsumer.accept(row);
+          }
+        }
+        reader.endArray();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+  }
+
+  static JsonObject readBinding(JsonReader reader) throws IOException {
+    JsonObject row = new JsonObject();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String varName = reader.nextName();
+      String value = readValue(reader);
+      if (value != null) {
+        row.addProperty(varName, value);
+      }
+    }
+    reader.endObject();
+    return row;
+  }
+
+  static String readValue(JsonReader reader) throws IOException {
+    String value = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      if ("value".equals(reader.nextName()) && reader.peek() != JsonToken.NULL) {
+        value = reader.nextString();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return value;
+  }
+}
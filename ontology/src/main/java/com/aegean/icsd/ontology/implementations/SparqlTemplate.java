@@ -0,0 +1,124 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QueryException;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.jena.update.UpdateFactory;
+
+/**
+ * A SPARQL command that has been split once into its static text and its parameter slots,
+ * so that binding the parameters is a plain concatenation instead of a parse and re-serialization.
+ */
+class SparqlTemplate {
+  private final PrefixMapping prefixMapping;
+  private final String header;
+  private final List<String> segments = new ArrayList<>();
+  private final List<String> slots = new ArrayList<>();
+  private final boolean update;
+  private final int chars;
+  private volatile boolean validated;
+
+  SparqlTemplate(Map<String, String> prefixes, String command, Iterable<String> paramNames, boolean update) {
+    this.prefixMapping = PrefixMapping.Factory.create().setNsPrefixes(prefixes).lock();
+
+    StringBuilder headerBuilder = new StringBuilder();
+    for (Map.Entry<String, String> prefix : new TreeMap<>(prefixes).entrySet()) {
+      headerBuilder.append("PREFIX ").append(prefix.getKey()).append(": <").append(prefix.getValue()).append(">\n");
+    }
+    this.header = headerBuilder.toString();
+
+    Set<String> names = new HashSet<>();
+    for (String name : paramNames) {
+      names.add(name);
+    }
+    tokenize(command, names);
+    this.update = update;
+    this.chars = header.length() + command.length();
+  }
+
+  /**
+   * @return the characters of the template, for bounding the cache of the templates
+   */
+  int getChars() {
+    return chars;
+  }
+
+  /**
+   * Returns the command with the given parameter values in place of their slots. Slots without a value are
+   * left as variables, as {@link org.apache.jena.query.ParameterizedSparqlString} does.
+   *
+   * @throws QueryException when the first bound instance of the command is not valid SPARQL
+   */
+  String bind(Map<String, Node> params) {
+    String bound = format(params);
+    if (!validated) {
+      if (update) {
+        UpdateFactory.create(bound);
+      } else {
+        QueryFactory.create(bound);
+      }
+      validated = true;
+    }
+    return bound;
+  }
+
+  /**
+   * Returns the command with the given parameter values in place of their slots, without validating it
+   */
+  String format(Map<String, Node> params) {
+    StringBuilder builder = new StringBuilder(header);
+    for (int i = 0; i < slots.size(); i++) {
+      builder.append(segments.get(i));
+      String slot = slots.get(i);
+      Node value = params.get(slot);
+      if (value != null) {
+        builder.append(FmtUtils.stringForNode(value, prefixMapping));
+      } else {
+        builder.append('?').append(slot);
+      }
+    }
+    builder.append(segments.get(segments.size() - 1));
+    return builder.toString();
+  }
+
+  /**
+   * Splits the command at the variables that are parameters, in a single pass that reads every variable name
+   * and looks it up in the names
+   */
+  void tokenize(String command, Set<String> names) {
+    int start = 0;
+    int i = 0;
+    while (i < command.length()) {
+      char current = command.charAt(i);
+      if (current != '?' && current != '$') {
+        i++;
+        continue;
+      }
+      int end = i + 1;
+      while (end < command.length() && isWordChar(command.charAt(end))) {
+        end++;
+      }
+      String name = command.substring(i + 1, end);
+      if (names.contains(name)) {
+        segments.add(command.substring(start, i));
+        slots.add(name);
+        start = end;
+      }
+      i = end;
+    }
+    segments.add(command.substring(start));
+  }
+
+  boolean isWordChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+  }
+}
@@ -0,0 +1,106 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jena.graph.Node;
+import org.springframework.stereotype.Service;
+
+import com.aegean.icsd.ontology.interfaces.ISparqlTemplateCache;
+
+/**
+ * The compiled templates of the commands, bounded to the most recently used ones that fit in a total number of
+ * characters. The commands with many parameters, such as the VALUES blocks and the bulk inserts, differ in the number
+ * of their parameters on every call, so they are compiled for a single use and are not cached.
+ */
+@Service
+public class SparqlTemplateCache implements ISparqlTemplateCache {
+  private static final int MAX_CHARS = 4 * 1024 * 1024;
+  private static final int MAX_PARAMS = 64;
+
+  private final int maxChars;
+  private final LinkedHashMap<String, SparqlTemplate> templates = new LinkedHashMap<>(16, 0.75f, true);
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private long chars;
+
+  public SparqlTemplateCache() {
+    this(MAX_CHARS);
+  }
+
+  SparqlTemplateCache(int maxChars) {
+    this.maxChars = maxChars;
+  }
+
+  @Override
+  public long getHits() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public int getSize() {
+    synchronized (templates) {
+      return templates.size();
+    }
+  }
+
+  /**
+   * Binds the parameters into the template of the command, compiling and validating the template
+   * the first time the command is seen
+   */
+  String bind(Map<String, String> prefixes, String command, Map<String, Node> params, boolean update) {
+    if (params.size() > MAX_PARAMS) {
+      misses.incrementAndGet();
+      return new SparqlTemplate(prefixes, command, params.keySet(), update).format(params);
+    }
+
+    String key = getKey(prefixes, command, params, update);
+    SparqlTemplate template;
+    synchronized (templates) {
+      template = templates.get(key);
+    }
+    if (template != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      template = new SparqlTemplate(prefixes, command, params.keySet(), update);
+      put(key, template);
+    }
+    return template.bind(params);
+  }
+
+  /**
+   * Adds the template and evicts the least recently used templates until the cache fits in its characters again
+   */
+  void put(String key, SparqlTemplate template) {
+    synchronized (templates) {
+      if (templates.putIfAbsent(key, template) != null) {
+        return;
+      }
+      chars += getChars(key, template);
+      Iterator<Map.Entry<String, SparqlTemplate>> eldest = templates.entrySet().iterator();
+      while (chars > maxChars && eldest.hasNext()) {
+        Map.Entry<String, SparqlTemplate> entry = eldest.next();
+        chars -= getChars(entry.getKey(), entry.getValue());
+        eldest.remove();
+      }
+    }
+  }
+
+  long getChars(String key, SparqlTemplate template) {
+    return key.length() + template.getChars();
+  }
+
+  String getKey(Map<String, String> prefixes, String command, Map<String, Node> params, boolean update) {
+    return (update ? "U" : "Q") + new TreeMap<>(prefixes) + new TreeSet<>(params.keySet()) + command;
+  }
+}
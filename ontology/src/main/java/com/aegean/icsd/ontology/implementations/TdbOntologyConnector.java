@@ -0,0 +1,178 @@
+package com.aegean.icsd.ontology.implementations;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.shared.JenaException;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.update.UpdateExecutionFactory;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+import org.apache.log4j.Logger;
+
+import com.aegean.icsd.ontology.beans.OntologyException;
+import com.aegean.icsd.ontology.queries.AskQuery;
+import com.aegean.icsd.ontology.queries.InsertQuery;
+import com.aegean.icsd.ontology.queries.SelectQuery;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * {@link com.aegean.icsd.ontology.interfaces.IOntologyConnector} that executes the queries in-process against
+ * a TDB2 dataset located at the configured datasetLoc.
+ */
+public class TdbOntologyConnector extends AbstractOntologyConnector {
+  private static Logger LOGGER = Logger.getLogger(TdbOntologyConnector.class);
+
+  private Dataset dataset;
+
+  private ExecutorService executor;
+
+  @PostConstruct
+  void setupDataset() {
+    LOGGER.info("Connecting to TDB2 dataset at " + ontologyProps.getDatasetLocation());
+    dataset = TDB2Factory.connectDataset(ontologyProps.getDatasetLocation());
+    executor = Executors.newFixedThreadPool(ontologyProps.getMaxInFlight());
+  }
+
+  @PreDestroy
+  void closeDataset() {
+    executor.shutdown();
+    dataset.close();
+  }
+
+  @Override
+  public boolean ask(AskQuery ask) throws OntologyException {
+    String rendered = buildAskQuery(ask);
+    Query query = QueryFactory.create(rendered);
+    QueryMetrics.Timer timer = metrics.start("ASK", ask.getCommand(), rendered);
+
+    try {
+      return Txn.calculateRead(dataset, () -> {
+        try (QueryExecution exec = QueryExecutionFactory.create(query, dataset)) {
+          return exec.execAsk();
+        }
+      });
+    } catch (JenaException e) {
+      timer.fail();
+      throw new OntologyException("ASK.999", "Error when executing the query", e);
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Override
+  public void select(SelectQuery selectQuery, Consumer<JsonObject> rowConsumer) throws OntologyException {
+    String rendered = buildSelectQuery(selectQuery);
+    Query query = QueryFactory.create(rendered);
+    QueryMetrics.Timer timer = metrics.start("SELECT", selectQuery.getCommand(), rendered);
+
+    try {
+      Txn.executeRead(dataset, () -> {
+        try (QueryExecution exec = QueryExecutionFactory.create(query, dataset)) {
+          ResultSet results = exec.execSelect();
+          List<String> varNames = results.getResultVars();
+          while (results.hasNext()) {
+            QuerySolution solution = results.next();
+            JsonObject resultObj = new JsonObject();
+            for (String varName : varNames) {
+              RDFNode node = solution.get(varName);
+              if (node != null) {
+                resultObj.addProperty(varName, getNodeValue(node));
+              }
+            }
+            if (resultObj.entrySet().size() > 0) {
+              timer.addRows(1);
+              rowConsumer.accept(resultObj);
+            }
+          }
+        }
+      });
+    } catch (JenaException e) {
+      timer.fail();
+      throw new OntologyException("SEL.1", "Error when executing the query", e);
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Override
+  public boolean insert(InsertQuery insertQuery) throws OntologyException {
+    String rendered = buildInsertQuery(insertQuery);
+    UpdateRequest update = UpdateFactory.create(rendered);
+    QueryMetrics.Timer timer = metrics.start("INSERT", insertQuery.getCommand(), rendered);
+
+    try {
+      Txn.executeWrite(dataset, () -> UpdateExecutionFactory.create(update, dataset).execute());
+      return true;
+    } catch (JenaException e) {
+      timer.fail();
+      throw new OntologyException("INS.99", "Error when executing the query", e);
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Override
+  public CompletableFuture<JsonArray> selectAsync(SelectQuery query) {
+    return supplyAsync(() -> select(query));
+  }
+
+  @Override
+  public CompletableFuture<Boolean> insertAsync(InsertQuery query) {
+    return supplyAsync(() -> insert(query));
+  }
+
+  @Override
+  public CompletableFuture<Boolean> askAsync(AskQuery ask) {
+    return supplyAsync(() -> ask(ask));
+  }
+
+  /**
+   * The dataset is in-process, so the queries are simply executed on a bounded pool of maxInFlight threads
+   */
+  <T> CompletableFuture<T> supplyAsync(OntologyCall<T> call) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    executor.execute(() -> {
+      try {
+        future.complete(call.call());
+      } catch (OntologyException | RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  interface OntologyCall<T> {
+    T call() throws OntologyException;
+  }
+
+  /**
+   * Returns the value of the node in the same form as the "value" field of the SPARQL JSON results,
+   * so that both connectors return identical rows
+   */
+  String getNodeValue(RDFNode node) {
+    if (node.isLiteral()) {
+      return node.asLiteral().getLexicalForm();
+    } else if (node.isURIResource()) {
+      return node.asResource().getURI();
+    } else {
+      return node.asResource().getId().getLabelString();
+    }
+  }
+}
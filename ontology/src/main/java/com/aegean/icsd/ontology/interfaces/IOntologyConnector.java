@@ -1,16 +1,32 @@
 package com.aegean.icsd.ontology.interfaces;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 import com.aegean.icsd.ontology.beans.OntologyException;
 import com.aegean.icsd.ontology.queries.AskQuery;
 import com.aegean.icsd.ontology.queries.InsertQuery;
 import com.aegean.icsd.ontology.queries.SelectQuery;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 
 public interface IOntologyConnector {
   JsonArray select(SelectQuery query) throws OntologyException;
 
+  void select(SelectQuery query, Consumer<JsonObject> rowConsumer) throws OntologyException;
+
   boolean insert(InsertQuery query) throws OntologyException;
 
   boolean ask(AskQuery ask) throws OntologyException;
+
+  /**
+   * Asynchronous variants of the queries. The returned futures complete exceptionally
+   * with an {@link OntologyException} when the query fails
+   */
+  CompletableFuture<JsonArray> selectAsync(SelectQuery query);
+
+  CompletableFuture<Boolean> insertAsync(InsertQuery query);
+
+  CompletableFuture<Boolean> askAsync(AskQuery ask);
 }
@@ -0,0 +1,18 @@
+package com.aegean.icsd.ontology.interfaces;
+
+import java.util.List;
+
+import com.aegean.icsd.ontology.beans.QueryShapeMetrics;
+
+public interface IQueryMetrics {
+
+  /**
+   * @return the metrics of every query shape, the most time consuming first
+   */
+  List<QueryShapeMetrics> getMetrics();
+
+  /**
+   * Drops the metrics of all the shapes, e.g. before measuring a load test
+   */
+  void reset();
+}
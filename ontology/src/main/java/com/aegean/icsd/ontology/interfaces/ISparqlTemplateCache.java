@@ -0,0 +1,9 @@
+package com.aegean.icsd.ontology.interfaces;
+
+public interface ISparqlTemplateCache {
+  long getHits();
+
+  long getMisses();
+
+  int getSize();
+}
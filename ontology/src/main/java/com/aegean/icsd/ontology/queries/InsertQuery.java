@@ -34,9 +34,11 @@ public class InsertQuery {
 
   public static class Builder {
     private Map<String, String> prefixes = new HashMap<>();
-    private InsertParam subject;
-    private Map<InsertParam, List<InsertParam>> relations = new LinkedHashMap<>();
+    private Map<InsertParam, Map<InsertParam, List<InsertParam>>> subjects = new LinkedHashMap<>();
+    private Map<Object, Map<InsertParam, List<InsertParam>>> relationsBySubject = new HashMap<>();
+    private Map<InsertParam, List<InsertParam>> relations;
     private List<InsertParam> params = new LinkedList<>();
+    private int generatedNames = 0;
 
     public Builder addPrefix (String prefix, String Uri) {
       prefixes.put(prefix, Uri);
@@ -44,33 +46,39 @@ public class InsertQuery {
     }
 
     public Builder insertEntry (String id, String type) {
-      this.subject = InsertParam.createObj(id);
-      this.subject.setIriParam(true);
+      forSubject(InsertParam.createObj(id));
 
       InsertParam rdfType = InsertParam.createObj("rdf:type");
       InsertParam typeToAssociate = InsertParam.createObj(type);
-      List<InsertParam> typeList = new LinkedList<>();
-      typeList.add(typeToAssociate);
-      relations.put(rdfType, typeList);
-      return this;
+      return addRelation(rdfType, typeToAssociate);
     }
 
     public Builder insertEntry (InsertParam subject, String type) {
-      this.subject = subject;
-      this.subject.setIriParam(true);
+      boolean firstSubject = subjects.isEmpty();
+      forSubject(subject);
 
       InsertParam rdfType = InsertParam.create("?rdfType", "rdf:type", true, String.class);
-      InsertParam typeToAssociate = InsertParam.create("?typeToAssociate", type, true, type.getClass());
-      List<InsertParam> typeList = new LinkedList<>();
-      typeList.add(typeToAssociate);
-      relations.put(rdfType, typeList);
-
-      return this;
+      InsertParam typeToAssociate = firstSubject
+        ? InsertParam.create("?typeToAssociate", type, true, type.getClass())
+        : InsertParam.createObj(type);
+      return addRelation(rdfType, typeToAssociate);
     }
 
+    /**
+     * Sets the subject of the relations that follow. When the builder already contains a subject
+     * with the same value its relations are continued, otherwise a new subject is added to the query,
+     * so that many entries can be written with a single request
+     */
     public Builder forSubject (InsertParam subject) {
-      this.subject = subject;
-      this.subject.setIriParam(true);
+      subject.setIriParam(true);
+      Map<InsertParam, List<InsertParam>> existing = relationsBySubject.get(subject.getValue());
+      if (existing != null) {
+        this.relations = existing;
+        return this;
+      }
+      this.relations = new LinkedHashMap<>();
+      this.subjects.put(subject, this.relations);
+      this.relationsBySubject.put(subject.getValue(), this.relations);
 
       return this;
     }
@@ -96,31 +104,36 @@ public class InsertQuery {
     public InsertQuery build() {
       StringBuilder builder = new StringBuilder();
       InsertQuery query = new InsertQuery();
-      builder.append("INSERT DATA {\n\t");
-      builder.append(removeParamChars(subject.getName())).append(" ");
-      params.add(subject);
-
-      Iterator<Map.Entry<InsertParam, List<InsertParam>>> relationIt = relations.entrySet().iterator();
-      while (relationIt.hasNext()) {
-        Map.Entry<InsertParam, List<InsertParam>> relation = relationIt.next();
-        Iterator<InsertParam> objectsIt = relation.getValue().iterator();
-        params.add(relation.getKey());
-        params.addAll(relation.getValue());
-
-        while (objectsIt.hasNext()) {
-          InsertParam object = objectsIt.next();
-          builder.append(removeParamChars(relation.getKey().getName())).append(" ")
-            .append(removeParamChars(object.getName())).append(" ");
-          if(objectsIt.hasNext()) {
+      builder.append("INSERT DATA {\n");
+
+      for (Map.Entry<InsertParam, Map<InsertParam, List<InsertParam>>> subjectEntry : subjects.entrySet()) {
+        InsertParam subject = subjectEntry.getKey();
+        builder.append("\t").append(removeParamChars(nameOf(subject))).append(" ");
+        params.add(subject);
+
+        Iterator<Map.Entry<InsertParam, List<InsertParam>>> relationIt = subjectEntry.getValue().entrySet().iterator();
+        while (relationIt.hasNext()) {
+          Map.Entry<InsertParam, List<InsertParam>> relation = relationIt.next();
+          Iterator<InsertParam> objectsIt = relation.getValue().iterator();
+          params.add(relation.getKey());
+          params.addAll(relation.getValue());
+
+          while (objectsIt.hasNext()) {
+            InsertParam object = objectsIt.next();
+            builder.append(removeParamChars(nameOf(relation.getKey()))).append(" ")
+              .append(removeParamChars(nameOf(object))).append(" ");
+            if(objectsIt.hasNext()) {
+              builder.append(";\n\t\t");
+            }
+          }
+          if(relationIt.hasNext()) {
             builder.append(";\n\t\t");
           }
         }
-        if(relationIt.hasNext()) {
-          builder.append(";\n\t\t");
-        }
+        builder.append(".\n");
       }
 
-      builder.append(".\n}\n");
+      builder.append("}\n");
 
       query.command = builder.toString();
       query.prefixes = prefixes;
@@ -128,6 +141,13 @@ public class InsertQuery {
       return query;
     }
 
+    String nameOf(InsertParam param) {
+      if (param.getName() == null) {
+        param.setName("param" + generatedNames++);
+      }
+      return param.getName();
+    }
+
     String removeParamChars(String entry) {
       return "?" + entry.replace("?", "").replace("$", "");
     }
@@ -2,12 +2,12 @@ package com.aegean.icsd.ontology.queries;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -69,10 +69,13 @@ public class SelectQuery {
     private Map<String, Long> longLiteralParams = new LinkedHashMap<>();
     private Map<String, Boolean> boolLiteralParams = new LinkedHashMap<>();
     private List<SelectQuery> subQueries = new LinkedList<>();
+    private List<String> valuesClauses = new LinkedList<>();
     private boolean isAscOrdered = false;
+    private boolean randomOrder = false;
     private String orderFiled = null;
     private int limit = -1;
     private boolean distinct = false;
+    private int typePlaceholders = 0;
 
     public enum Operator {
       GT, LT, EQ, CONTAINS, NOT_CONTAINS,IS_LITERAL
@@ -130,13 +133,20 @@ public class SelectQuery {
       return this;
     }
 
+    /**
+     * Adds the subquery to the WHERE clause, along with its params.
+     */
     public Builder where(SelectQuery subquery) {
       subQueries.add(subquery);
+      iriParams.putAll(subquery.getIriParams());
+      literalParams.putAll(subquery.getLiteralParams());
+      longLiteralParams.putAll(subquery.getLongLiteralParams());
+      boolLiteralParams.putAll(subquery.getBoolLiteralParams());
       return this;
     }
 
     public Builder whereHasType(String subject, String type) {
-      String ph = UUID.randomUUID().toString().replace("-", "");
+      String ph = "typeOf" + typePlaceholders++;
       Triplet t = new Triplet(subject, "rdfType", ph);
       if (conditions.containsKey(subject)) {
         conditions.get(subject).add(t);
@@ -150,6 +160,46 @@ public class SelectQuery {
       return this;
     }
 
+    /**
+     * Restricts the variable to the given literal values with an inline VALUES block.
+     * Every value is bound as a literal param named after the variable.
+     */
+    public Builder values(String var, Collection<String> values) {
+      return addValues(var, values, false);
+    }
+
+    /**
+     * Restricts the variable to the given IRIs with an inline VALUES block.
+     * Every IRI is bound as an IRI param named after the variable.
+     */
+    public Builder iriValues(String var, Collection<String> iris) {
+      return addValues(var, iris, true);
+    }
+
+    /**
+     * Excludes the given literal values of the variable with a NOT IN filter.
+     * Every value is bound as a literal param named after the variable.
+     */
+    public Builder filterNotIn(String var, Collection<String> values) {
+      if (values.isEmpty()) {
+        return this;
+      }
+      String sanitizedVar = removeParamChars(var);
+      StringBuilder filter = new StringBuilder("FILTER (").append(sanitizedVar).append(" NOT IN (");
+      int i = 0;
+      for (String value : values) {
+        String param = sanitizedVar.substring(1) + "Excluded" + i;
+        if (i++ > 0) {
+          filter.append(", ");
+        }
+        filter.append(removeParamChars(param));
+        addLiteralParam(param, value);
+      }
+      filter.append("))");
+      filters.add(filter.toString());
+      return this;
+    }
+
     public Builder regexFilter(String value, String pattern) {
       this.regexFilter(value, pattern, true, null);
       return this;
@@ -201,6 +251,21 @@ public class SelectQuery {
       return this;
     }
 
+    /**
+     * Keeps only the solutions for which the pattern of the given builder matches. The pattern is evaluated
+     * per solution, so unlike MINUS its right side is never materialized.
+     */
+    public Builder filterExists(Builder pattern) {
+      return addExistsFilter("FILTER EXISTS ", pattern);
+    }
+
+    /**
+     * Keeps only the solutions for which the pattern of the given builder doesn't match.
+     */
+    public Builder filterNotExists(Builder pattern) {
+      return addExistsFilter("FILTER NOT EXISTS ", pattern);
+    }
+
     public Builder minus (String subject, String predicate, String object) {
       if (minusConditions.containsKey(subject)) {
         minusConditions.get(subject).add(new Triplet(subject, predicate, object));
@@ -244,6 +309,16 @@ public class SelectQuery {
       return this.orderBy(field, true);
     }
 
+    /**
+     * Orders the results randomly. Combined with a limit, the store only has to keep the current top results
+     * instead of sorting every solution.
+     */
+    public Builder orderByRandom() {
+      this.orderFiled = null;
+      this.randomOrder = true;
+      return this;
+    }
+
     public Builder limit(int numberOfRecords) {
       limit = numberOfRecords;
       return this;
@@ -284,13 +359,17 @@ public class SelectQuery {
     }
 
     void buildWhereClauses(StringBuilder builder) {
-      builder.append("WHERE").append(" ").append("{").append("\n");
+      builder.append("WHERE").append(" ");
+      buildGroupPattern(builder);
+      builder.append("\n");
+    }
 
-      for (Map.Entry<String, List<Triplet>> entry : conditions.entrySet()) {
-        String whereClause = buildTripletClause(entry);
-        if (!StringUtils.isEmpty(whereClause)) {
-          builder.append("\t").append(whereClause).append("\n");
-        }
+    void buildGroupPattern(StringBuilder builder) {
+      builder.append("{").append("\n");
+
+      // the inline data and the subqueries come first, so that the patterns below are evaluated per value
+      for (String values : valuesClauses) {
+        builder.append("\t").append(values).append("\n");
       }
 
       for (SelectQuery subQ : subQueries) {
@@ -299,6 +378,13 @@ public class SelectQuery {
         }
       }
 
+      for (Map.Entry<String, List<Triplet>> entry : conditions.entrySet()) {
+        String whereClause = buildTripletClause(entry);
+        if (!StringUtils.isEmpty(whereClause)) {
+          builder.append("\t").append(whereClause).append("\n");
+        }
+      }
+
       if (!minusConditions.isEmpty()) {
         builder.append("\tMINUS {").append("\n");
         for (Map.Entry<String, List<Triplet>> entry : minusConditions.entrySet()) {
@@ -318,11 +404,13 @@ public class SelectQuery {
         }
       }
 
-      builder.append("}").append("\n");
+      builder.append("}");
     }
 
     void buildOrderClause(StringBuilder builder) {
-      if (!StringUtils.isEmpty(orderFiled)) {
+      if (randomOrder) {
+        builder.append("ORDER BY RAND()\n");
+      } else if (!StringUtils.isEmpty(orderFiled)) {
         builder.append("ORDER BY ");
         if (isAscOrdered) {
           builder.append("ASC");
@@ -366,7 +454,37 @@ public class SelectQuery {
       return "?" + sanitized;
     }
 
+    Builder addValues(String var, Collection<String> values, boolean iri) {
+      String sanitizedVar = removeParamChars(var);
+      StringBuilder clause = new StringBuilder("VALUES ").append(sanitizedVar).append(" {");
+      int i = 0;
+      for (String value : values) {
+        String param = sanitizedVar.substring(1) + "Value" + i++;
+        clause.append(" ").append(removeParamChars(param));
+        if (iri) {
+          addIriParam(param, value);
+        } else {
+          addLiteralParam(param, value);
+        }
+      }
+      clause.append(" }");
+      valuesClauses.add(clause.toString());
+      return this;
+    }
+
+    Builder addExistsFilter(String filter, Builder pattern) {
+      StringBuilder builder = new StringBuilder(filter);
+      pattern.buildGroupPattern(builder);
+      filters.add(builder.toString());
+      iriParams.putAll(pattern.iriParams);
+      literalParams.putAll(pattern.literalParams);
+      longLiteralParams.putAll(pattern.longLiteralParams);
+      boolLiteralParams.putAll(pattern.boolLiteralParams);
+      return this;
+    }
+
     Builder orderBy(String field, boolean ascended) {
+      this.randomOrder = false;
       this.orderFiled = field;
       this.isAscOrdered = ascended;
       return this;
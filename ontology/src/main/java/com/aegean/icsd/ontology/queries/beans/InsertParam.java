@@ -1,7 +1,5 @@
 package com.aegean.icsd.ontology.queries.beans;
 
-import java.util.UUID;
-
 public class InsertParam {
   private String name;
   private Object value;
@@ -39,12 +37,17 @@ public class InsertParam {
   public void setValueClass(Class<?> valueClass) {
     this.valueClass = valueClass;
   }
+
+  /**
+   * Creates an IRI parameter without a name. The name is assigned by the {@link com.aegean.icsd.ontology.queries.InsertQuery}
+   * according to its position, so that queries of the same shape have the same command
+   */
   public static InsertParam createObj(String value) {
-    return InsertParam.create(UUID.randomUUID().toString(), value, true, value.getClass());
+    return InsertParam.create(null, value, true, value.getClass());
   }
 
   public static <T> InsertParam createValue(Object value, Class<T> rangeClass) {
-    return InsertParam.create(UUID.randomUUID().toString(), value, false, rangeClass);
+    return InsertParam.create(null, value, false, rangeClass);
   }
 
   public static <T> InsertParam create(String name, Object value, boolean isIri, Class<T> rangeClass) {
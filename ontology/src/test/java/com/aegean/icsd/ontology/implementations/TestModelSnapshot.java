@@ -0,0 +1,125 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.aegean.icsd.ontology.beans.CardinalitySchema;
+import com.aegean.icsd.ontology.beans.ClassSchema;
+import com.aegean.icsd.ontology.beans.DataRangeRestrinctionSchema;
+import com.aegean.icsd.ontology.beans.PropertySchema;
+import com.aegean.icsd.ontology.beans.RestrictionSchema;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestModelSnapshot {
+
+  @Test
+  public void testWriteRead() throws Exception {
+    PropertySchema property = new PropertySchema();
+    property.setName("hasWord");
+    property.setParent("hasEntity");
+    property.setObjectProperty(true);
+    property.setRange("Word");
+    property.setEnumerations(Arrays.asList("a", "b"));
+    property.setMandatory(true);
+
+    DataRangeRestrinctionSchema dataRange = new DataRangeRestrinctionSchema();
+    dataRange.setPredicate("minInclusive");
+    dataRange.setValue("1");
+    dataRange.setDatatype("http://www.w3.org/2001/XMLSchema#positiveInteger");
+    CardinalitySchema cardinality = new CardinalitySchema();
+    cardinality.setOccurrence("2");
+    cardinality.setDataRangeRestrictions(Arrays.asList(dataRange));
+    RestrictionSchema restriction = new RestrictionSchema();
+    restriction.setOnPropertySchema(property);
+    restriction.setType(RestrictionSchema.MIN_TYPE);
+    restriction.setCardinalitySchema(cardinality);
+
+    ClassSchema schema = new ClassSchema();
+    schema.setClassName("Puzzle");
+    schema.setProperties(Arrays.asList(property));
+    schema.setRestrictions(Arrays.asList(restriction));
+    schema.setEqualityRestrictions(new ArrayList<>());
+
+    String hash = ModelSnapshot.hash("ontology".getBytes(StandardCharsets.UTF_8), "TURTLE", "http://mci#");
+    ModelSnapshot snapshot = new ModelSnapshot(hash, getHierarchy());
+    snapshot.addClassSchema("Puzzle", schema);
+
+    Path location = Files.createTempDirectory("snapshot").resolve("games.snapshot");
+    snapshot.write(location);
+
+    ModelSnapshot read = ModelSnapshot.read(location, hash);
+    Assertions.assertNotNull(read);
+    Assertions.assertNull(read.getClassSchema("Game"));
+    Assertions.assertEquals(Arrays.asList("Game", "Puzzle", "Hard"), read.getHierarchy().getClassNames());
+    Assertions.assertEquals(Arrays.asList("Hard"), read.getHierarchy().getChildren("Puzzle"));
+    Assertions.assertTrue(read.getHierarchy().isSubclassOf("Hard", "Game"));
+    Assertions.assertFalse(read.getHierarchy().isSubclassOf("Game", "Puzzle"));
+
+    ClassSchema result = read.getClassSchema("Puzzle");
+    Assertions.assertNotSame(result, read.getClassSchema("Puzzle"));
+    Assertions.assertEquals("Puzzle", result.getClassName());
+    Assertions.assertNull(result.getId());
+    Assertions.assertEquals(0, result.getEqualityRestrictions().size());
+    PropertySchema resultProperty = result.getProperties().get(0);
+    Assertions.assertEquals("hasWord", resultProperty.getName());
+    Assertions.assertEquals("hasEntity", resultProperty.getParent());
+    Assertions.assertNull(resultProperty.getInverse());
+    Assertions.assertTrue(resultProperty.isObjectProperty());
+    Assertions.assertTrue(resultProperty.isMandatory());
+    Assertions.assertEquals(Arrays.asList("a", "b"), resultProperty.getEnumerations());
+    RestrictionSchema resultRestriction = result.getRestrictions().get(0);
+    Assertions.assertEquals(RestrictionSchema.MIN_TYPE, resultRestriction.getType());
+    Assertions.assertEquals("Word", resultRestriction.getOnPropertySchema().getRange());
+    Assertions.assertEquals("2", resultRestriction.getCardinalitySchema().getOccurrence());
+    List<DataRangeRestrinctionSchema> resultRanges = resultRestriction.getCardinalitySchema().getDataRangeRestrictions();
+    Assertions.assertEquals("minInclusive", resultRanges.get(0).getPredicate());
+    Assertions.assertEquals("1", resultRanges.get(0).getValue());
+  }
+
+  @Test
+  public void testOutdatedSnapshot() throws Exception {
+    String hash = ModelSnapshot.hash("ontology".getBytes(StandardCharsets.UTF_8), "TURTLE", "http://mci#");
+    String changedHash = ModelSnapshot.hash("changed".getBytes(StandardCharsets.UTF_8), "TURTLE", "http://mci#");
+    Assertions.assertNotEquals(hash, changedHash);
+
+    Path location = Files.createTempDirectory("snapshot").resolve("games.snapshot");
+    Assertions.assertNull(ModelSnapshot.read(location, hash));
+
+    new ModelSnapshot(hash, getHierarchy()).write(location);
+    Assertions.assertNotNull(ModelSnapshot.read(location, hash));
+    Assertions.assertNull(ModelSnapshot.read(location, changedHash));
+  }
+
+  @Test
+  public void testHierarchy() {
+    ClassHierarchy hierarchy = getHierarchy();
+    Assertions.assertTrue(hierarchy.contains("Puzzle"));
+    Assertions.assertFalse(hierarchy.contains("Word"));
+    Assertions.assertTrue(hierarchy.isSubclassOf("Puzzle", "Game"));
+    Assertions.assertTrue(hierarchy.isSubclassOf("Game", "Game"));
+    Assertions.assertFalse(hierarchy.isSubclassOf("Word", "Game"));
+    Assertions.assertEquals(new ArrayList<>(), hierarchy.getChildren("Hard"));
+  }
+
+  ClassHierarchy getHierarchy() {
+    BitSet game = new BitSet();
+    game.set(0, 3);
+    BitSet puzzle = new BitSet();
+    puzzle.set(1, 3);
+    BitSet hard = new BitSet();
+    hard.set(2);
+    return new ClassHierarchy(Arrays.asList("Game", "Puzzle", "Hard"),
+      Arrays.asList(Arrays.asList("Puzzle"), Arrays.asList("Hard"), new ArrayList<>()),
+      Arrays.asList(game, puzzle, hard));
+  }
+}
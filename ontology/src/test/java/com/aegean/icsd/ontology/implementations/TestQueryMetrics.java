@@ -0,0 +1,131 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aegean.icsd.ontology.beans.DatasetProperties;
+import com.aegean.icsd.ontology.beans.QueryShapeMetrics;
+import com.aegean.icsd.ontology.queries.InsertQuery;
+import com.aegean.icsd.ontology.queries.SelectQuery;
+import com.aegean.icsd.ontology.queries.beans.InsertParam;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestQueryMetrics {
+
+  @Test
+  public void testShapes() {
+    DatasetProperties ds = new DatasetProperties();
+    ds.setMetricsMaxShapes(2);
+    ds.setMetricsSlowQuery(0);
+    QueryMetrics metrics = new QueryMetrics();
+    ReflectionTestUtils.setField(metrics, "ontologyProps", ds);
+
+    String command = "SELECT ?s WHERE { ?s ?p ?value . }";
+    for (int i = 0; i < 100; i++) {
+      QueryMetrics.Timer timer = metrics.start("SELECT", command, "SELECT ?s WHERE { ?s ?p " + i + " . }");
+      timer.addRows(2);
+      if (i == 0) {
+        timer.fail();
+      }
+      timer.stop();
+    }
+    metrics.start("ASK", "ASK { ?s ?p ?o }", "ASK { ?s ?p ?o }").stop();
+    metrics.start("INSERT", "INSERT DATA { ?s ?p ?o }", "INSERT DATA { <s> <p> <o> }").stop();
+
+    List<QueryShapeMetrics> shapes = metrics.getMetrics();
+    Assertions.assertEquals(3, shapes.size());
+    QueryShapeMetrics select = shapes.stream().filter(x -> command.equals(x.getShape())).findFirst().get();
+    Assertions.assertEquals(100, select.getCount());
+    Assertions.assertEquals(1, select.getErrors());
+    Assertions.assertEquals(200, select.getRows());
+    Assertions.assertTrue(select.getBytesSent() > 0);
+    Assertions.assertTrue(select.getP50Ms() <= select.getP95Ms());
+    Assertions.assertTrue(select.getP99Ms() <= select.getMaxMs());
+    Assertions.assertTrue(shapes.stream().anyMatch(x -> "INSERT".equals(x.getType())
+      && "(other)".equals(x.getShape())));
+
+    metrics.reset();
+    Assertions.assertTrue(metrics.getMetrics().isEmpty());
+  }
+
+  @Test
+  public void testShapeOfValues() {
+    DatasetProperties ds = new DatasetProperties();
+    ds.setMetricsMaxShapes(10);
+    QueryMetrics metrics = new QueryMetrics();
+    ReflectionTestUtils.setField(metrics, "ontologyProps", ds);
+
+    for (int count = 1; count <= 5; count++) {
+      List<String> ids = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        ids.add("mci:Word" + i);
+      }
+      SelectQuery select = new SelectQuery.Builder()
+        .select("s")
+        .where("s", "hasId", "id")
+        .iriValues("s", ids)
+        .filterNotIn("id", ids)
+        .build();
+      metrics.start("SELECT", select.getCommand(), select.getCommand()).stop();
+    }
+    SelectQuery other = new SelectQuery.Builder()
+      .select("s")
+      .where("s", "hasValue", "value")
+      .iriValues("s", Collections.singletonList("mci:Word0"))
+      .build();
+    metrics.start("SELECT", other.getCommand(), other.getCommand()).stop();
+
+    List<QueryShapeMetrics> shapes = metrics.getMetrics();
+    Assertions.assertEquals(2, shapes.size());
+    QueryShapeMetrics values = shapes.stream().filter(x -> x.getCount() == 5).findFirst().get();
+    Assertions.assertTrue(values.getShape().contains("VALUES ?s { ... }"));
+    Assertions.assertTrue(values.getShape().contains("NOT IN (...)"));
+  }
+
+  @Test
+  public void testShapeOfInserts() {
+    Assertions.assertEquals(QueryMetrics.getShape(createInsert(2, 2)), QueryMetrics.getShape(createInsert(2, 30)));
+    Assertions.assertEquals(QueryMetrics.getShape(createInsert(3, 2)), QueryMetrics.getShape(createInsert(3, 30)));
+    Assertions.assertNotEquals(QueryMetrics.getShape(createInsert(2, 1)), QueryMetrics.getShape(createInsert(2, 2)));
+    Assertions.assertEquals("INSERT DATA {\n"
+      + "\t?param ?rdfType ?typeToAssociate .\n"
+      + "\t?param ?param ?param .\n"
+      + "\t?param ?rdfType ?param .\n"
+      + "}\n", QueryMetrics.getShape(createInsert(2, 10)));
+
+    InsertQuery.Builder relations = new InsertQuery.Builder()
+      .forSubject(InsertParam.createObj("mci:Game0"));
+    for (int i = 0; i < 10; i++) {
+      relations.addRelation(InsertParam.createObj("mci:hasWord"), InsertParam.createObj("mci:Word" + i));
+    }
+    Assertions.assertEquals("INSERT DATA {\n\t?param ?param ?param .\n}\n",
+      QueryMetrics.getShape(relations.build().getCommand()));
+  }
+
+  String createInsert(int values, int entries) {
+    InsertQuery.Builder builder = new InsertQuery.Builder();
+    for (int i = 0; i < entries; i++) {
+      builder.insertEntry(InsertParam.createObj("mci:Word" + i), "mci:Word");
+      for (int j = 0; j < values; j++) {
+        builder.addRelation(InsertParam.createObj("mci:hasValue" + j), InsertParam.createValue("w" + i, String.class));
+      }
+    }
+    return builder.build().getCommand();
+  }
+
+  @Test
+  public void testBuckets() {
+    for (long nanos : new long[] {1_000, 150_000, 2_000_000, 3_700_000_000L}) {
+      double bucketMs = QueryMetrics.getBucketMs(QueryMetrics.getBucket(nanos));
+      Assertions.assertTrue(bucketMs >= nanos / 1e6);
+      Assertions.assertTrue(bucketMs <= nanos / 1e6 * 1.2);
+    }
+  }
+}
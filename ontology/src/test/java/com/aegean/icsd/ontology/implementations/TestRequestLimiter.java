@@ -0,0 +1,58 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestRequestLimiter {
+
+  @Test
+  public void testMaxInFlight() {
+    RequestLimiter limiter = new RequestLimiter(2);
+    List<CompletableFuture<Integer>> started = new ArrayList<>();
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(limiter.submit(() -> {
+        CompletableFuture<Integer> request = new CompletableFuture<>();
+        started.add(request);
+        return request;
+      }));
+    }
+    Assertions.assertEquals(2, started.size());
+
+    started.get(0).complete(0);
+    Assertions.assertEquals(0, results.get(0).join());
+    Assertions.assertEquals(3, started.size());
+
+    started.get(2).completeExceptionally(new IllegalStateException("Failed"));
+    Assertions.assertTrue(results.get(2).isCompletedExceptionally());
+    Assertions.assertEquals(4, started.size());
+  }
+
+  @Test
+  public void testQueueOfCompletedRequestsIsDrainedIteratively() {
+    RequestLimiter limiter = new RequestLimiter(1);
+    CompletableFuture<Integer> first = new CompletableFuture<>();
+    limiter.submit(() -> first);
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      int value = i;
+      results.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+    }
+    Assertions.assertFalse(results.get(0).isDone());
+
+    first.complete(-1);
+    Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+      for (int i = 0; i < results.size(); i++) {
+        Assertions.assertEquals(i, results.get(i).join());
+      }
+    });
+  }
+}
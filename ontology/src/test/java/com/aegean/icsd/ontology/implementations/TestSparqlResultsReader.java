@@ -0,0 +1,50 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.google.gson.JsonObject;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestSparqlResultsReader {
+
+  @Test
+  public void testReadBindings() throws IOException {
+    String json = "{ \"head\": { \"vars\": [ \"s\", \"o\" ] },\n"
+      + "  \"results\": { \"bindings\": [\n"
+      + "    { \"s\": { \"type\": \"uri\", \"value\": \"http://mci#w1\" },"
+      + "      \"o\": { \"type\": \"literal\", \"datatype\": \"http://www.w3.org/2001/XMLSchema#long\", \"value\": \"5\" } },\n"
+      + "    { \"s\": { \"type\": \"uri\", \"value\": \"http://mci#w2\" } },\n"
+      + "    { }\n"
+      + "  ] } }";
+
+    List<JsonObject> rows = new ArrayList<>();
+    SparqlResultsReader.readBindings(toStream(json), rows::add);
+
+    Assertions.assertEquals(2, rows.size());
+    Assertions.assertEquals("http://mci#w1", rows.get(0).get("s").getAsString());
+    Assertions.assertEquals("5", rows.get(0).get("o").getAsString());
+    Assertions.assertEquals("http://mci#w2", rows.get(1).get("s").getAsString());
+    Assertions.assertFalse(rows.get(1).has("o"));
+  }
+
+  @Test
+  public void testReadBoolean() throws IOException {
+    Assertions.assertTrue(SparqlResultsReader.readBoolean(toStream("{ \"head\": {}, \"boolean\": true }")));
+    Assertions.assertFalse(SparqlResultsReader.readBoolean(toStream("{ \"boolean\": false }")));
+    Assertions.assertThrows(IOException.class, () -> SparqlResultsReader.readBoolean(toStream("{ \"head\": {} }")));
+  }
+
+  private InputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,99 @@
+package com.aegean.icsd.ontology.implementations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QueryException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class TestSparqlTemplateCache {
+
+  @Test
+  public void testBind() {
+    SparqlTemplateCache cache = new SparqlTemplateCache();
+    Map<String, String> prefixes = new HashMap<>();
+    prefixes.put("mci", "http://mci#");
+    String command = "SELECT ?s \nWHERE {\n\t?s ?hasValue ?value;\n\t\t?hasOther ?other .\n}\n";
+
+    Map<String, Node> params = new HashMap<>();
+    params.put("hasValue", NodeFactory.createURI("http://mci#hasValue"));
+    params.put("value", NodeFactory.createLiteral("5", XSDDatatype.XSDinteger));
+
+    String expected = "PREFIX mci: <http://mci#>\n"
+      + "SELECT ?s \nWHERE {\n\t?s mci:hasValue 5;\n\t\t?hasOther ?other .\n}\n";
+    Assertions.assertEquals(expected, cache.bind(prefixes, command, params, false));
+    Assertions.assertEquals(0, cache.getHits());
+    Assertions.assertEquals(1, cache.getMisses());
+
+    params.put("value", NodeFactory.createLiteral("a \"quoted\" value"));
+    expected = "PREFIX mci: <http://mci#>\n"
+      + "SELECT ?s \nWHERE {\n\t?s mci:hasValue \"a \\\"quoted\\\" value\";\n\t\t?hasOther ?other .\n}\n";
+    Assertions.assertEquals(expected, cache.bind(prefixes, command, params, false));
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void testInvalidUpdate() {
+    SparqlTemplateCache cache = new SparqlTemplateCache();
+    Map<String, Node> params = new HashMap<>();
+    params.put("sub", NodeFactory.createURI("http://mci#sub"));
+
+    Assertions.assertThrows(QueryException.class,
+      () -> cache.bind(new HashMap<>(), "INSERT DATA {\n\t?sub ?pred ?obj .\n}\n", params, true));
+  }
+
+  @Test
+  public void testEviction() {
+    Map<String, Node> params = new HashMap<>();
+    params.put("value", NodeFactory.createLiteral("5", XSDDatatype.XSDinteger));
+    String command = "SELECT ?s WHERE { ?s ?a ?value . }";
+    SparqlTemplateCache cache = new SparqlTemplateCache(2 * (int) getChars(command, params) + 10);
+
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?a ?value . }", params, false);
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?b ?value . }", params, false);
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?a ?value . }", params, false);
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?c ?value . }", params, false);
+    Assertions.assertEquals(2, cache.getSize());
+
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?a ?value . }", params, false);
+    Assertions.assertEquals(2, cache.getHits());
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?b ?value . }", params, false);
+    Assertions.assertEquals(4, cache.getMisses());
+
+    cache.bind(new HashMap<>(), "SELECT ?s WHERE { ?s ?a ?value . ?s ?a ?value . ?s ?a ?value . }", params, false);
+    Assertions.assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void testManyParams() {
+    SparqlTemplateCache cache = new SparqlTemplateCache();
+    Map<String, Node> params = new HashMap<>();
+    StringBuilder values = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      params.put("id" + i, NodeFactory.createLiteral("v" + i));
+      values.append(" ?id").append(i);
+      expected.append(" \"v").append(i).append('"');
+    }
+    String command = "SELECT ?s WHERE { ?s ?p ?id . VALUES ?id {" + values + " } ?s ?p ?id1x . }";
+
+    Assertions.assertEquals("SELECT ?s WHERE { ?s ?p ?id . VALUES ?id {" + expected + " } ?s ?p ?id1x . }",
+      cache.bind(new HashMap<>(), command, params, false));
+    Assertions.assertEquals(0, cache.getSize());
+    Assertions.assertEquals(1, cache.getMisses());
+  }
+
+  long getChars(String command, Map<String, Node> params) {
+    SparqlTemplateCache cache = new SparqlTemplateCache();
+    String key = cache.getKey(new HashMap<>(), command, params, false);
+    return cache.getChars(key, new SparqlTemplate(new HashMap<>(), command, params.keySet(), false));
+  }
+}
@@ -38,4 +38,27 @@ public class TestInsertQuery {
     Assertions.assertEquals(expected, insertQuery.getCommand());
   }
 
+  @Test
+  public void testBuilderWithManySubjects() {
+    InsertParam first = InsertParam.create("?first", "mci:first", true, String.class);
+    InsertParam second = InsertParam.create("?second", "mci:second", true, String.class);
+    InsertParam predicate = InsertParam.create("?pred", "mci:hasValue", true, String.class);
+    InsertParam firstValue = InsertParam.create("?firstValue", 1L, false, Long.class);
+    InsertParam secondValue = InsertParam.create("?secondValue", 2L, false, Long.class);
+    InsertParam otherValue = InsertParam.create("?otherValue", 3L, false, Long.class);
+
+    InsertQuery insertQuery = new InsertQuery.Builder()
+      .forSubject(first)
+      .addRelation(predicate, firstValue)
+      .forSubject(second)
+      .addRelation(predicate, secondValue)
+      .forSubject(InsertParam.create("?again", "mci:first", true, String.class))
+      .addRelation(predicate, otherValue)
+      .build();
+
+    String expected = "INSERT DATA {\n\t?first ?pred ?firstValue ;\n\t\t?pred ?otherValue .\n"
+      + "\t?second ?pred ?secondValue .\n}\n";
+
+    Assertions.assertEquals(expected, insertQuery.getCommand());
+  }
 }
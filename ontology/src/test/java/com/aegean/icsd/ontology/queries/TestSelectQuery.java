@@ -1,5 +1,7 @@
 package com.aegean.icsd.ontology.queries;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -135,4 +137,74 @@ public class TestSelectQuery {
 
     Assertions.assertEquals(expected, actual);
   }
+
+  @Test
+  public void testValues() {
+    SelectQuery query = new SelectQuery.Builder()
+      .select("?s", "?p", "?o")
+      .where("?s", "?hasId", "?id")
+      .values("id", Arrays.asList("a", "b"))
+      .build();
+    String expected = "SELECT ?s ?p ?o \nWHERE {\n\tVALUES ?id { ?idValue0 ?idValue1 }\n\t?s ?hasId ?id .\n}\n";
+    String actual = query.getCommand();
+
+    Assertions.assertEquals(expected, actual);
+    Assertions.assertEquals("a", query.getLiteralParams().get("idValue0"));
+    Assertions.assertEquals("b", query.getLiteralParams().get("idValue1"));
+  }
+
+  @Test
+  public void testIriValues() {
+    SelectQuery query = new SelectQuery.Builder()
+      .select("?p", "?o")
+      .where("?s", "?p", "?o")
+      .iriValues("s", Arrays.asList("mci:a"))
+      .build();
+    String expected = "SELECT ?p ?o \nWHERE {\n\tVALUES ?s { ?sValue0 }\n\t?s ?p ?o .\n}\n";
+    String actual = query.getCommand();
+
+    Assertions.assertEquals(expected, actual);
+    Assertions.assertEquals("mci:a", query.getIriParams().get("sValue0"));
+  }
+
+  @Test
+  public void testFilterNotIn() {
+    SelectQuery query = new SelectQuery.Builder()
+      .select("?s")
+      .where("?s", "?hasId", "?id")
+      .filterNotIn("id", Arrays.asList("a", "b"))
+      .build();
+    String expected = "SELECT ?s \nWHERE {\n\t?s ?hasId ?id .\n\tFILTER (?id NOT IN (?idExcluded0, ?idExcluded1))\n}\n";
+    String actual = query.getCommand();
+
+    Assertions.assertEquals(expected, actual);
+    Assertions.assertEquals("a", query.getLiteralParams().get("idExcluded0"));
+    Assertions.assertEquals("b", query.getLiteralParams().get("idExcluded1"));
+  }
+
+  @Test
+  public void testRandomSample() {
+    SelectQuery sample = new SelectQuery.Builder()
+      .select("s")
+      .where("s", "hasValue", "value")
+      .filterNotExists(new SelectQuery.Builder()
+        .where("e", "p", "s")
+        .addIriParam("e", "mci:e"))
+      .orderByRandom()
+      .limit(2)
+      .addLiteralParam("value", "a")
+      .build();
+    SelectQuery query = new SelectQuery.Builder()
+      .select("?s", "?p", "?o")
+      .where("?s", "?p", "?o")
+      .where(sample)
+      .build();
+    String expected = "SELECT ?s ?p ?o \nWHERE {\n\t{\n\tSELECT ?s \nWHERE {\n\t?s ?hasValue ?value .\n"
+      + "\tFILTER NOT EXISTS {\n\t?e ?p ?s .\n}\n}\nORDER BY RAND()\nLIMIT 2\n\n\t}\n\t?s ?p ?o .\n}\n";
+    String actual = query.getCommand();
+
+    Assertions.assertEquals(expected, actual);
+    Assertions.assertEquals("mci:e", query.getIriParams().get("e"));
+    Assertions.assertEquals("a", query.getLiteralParams().get("value"));
+  }
 }